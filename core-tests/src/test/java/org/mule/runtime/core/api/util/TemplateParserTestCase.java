@@ -218,6 +218,39 @@ public class TemplateParserTestCase extends AbstractMuleTestCase {
     assertEquals(expectedResult, result);
   }
 
+  @Test
+  public void muleParserTokenizesTemplate() {
+    TemplateParser tp = TemplateParser.createMuleStyleParser();
+
+    ParsedTemplate parsedTemplate = tp.tokenize("1#[mel:2]3#[mel:[4]]");
+    assertEquals(2, parsedTemplate.getTokenCount());
+    assertEquals("mel:2", parsedTemplate.getToken(0));
+    assertEquals("mel:[4]", parsedTemplate.getToken(1));
+    assertEquals("1<mel:2>3<mel:[4]>", parsedTemplate.render(index -> "<" + parsedTemplate.getToken(index) + ">"));
+    assertEquals("1null3null", parsedTemplate.render(index -> null));
+
+    assertEquals(0, tp.tokenize("no expressions").getTokenCount());
+    assertEquals("no expressions", tp.tokenize("no expressions").render(index -> null));
+  }
+
+  @Test
+  public void parsedTemplateRendersNestedTemplates() {
+    TemplateParser tp = TemplateParser.createMuleStyleParser();
+    ParsedTemplate inner = tp.tokenize("(#[a])");
+    ParsedTemplate outer = tp.tokenize("#[b]-#[c]");
+
+    assertEquals("(x)-(x)", outer.render(index -> inner.render(innerIndex -> "x")));
+  }
+
+  @Test
+  public void antParserKeepsUnknownTokensAndDollarSigns() {
+    TemplateParser tp = TemplateParser.createAntStyleParser();
+    Map<String, String> props = new HashMap<>();
+    props.put("price", "$5\\");
+
+    assertEquals("costs $5\\ ${unknown}", tp.parse(props, "costs ${price} ${unknown}"));
+  }
+
   @Test
   public void muleParserManagesConcatenation() {
     TemplateParser tp = TemplateParser.createMuleStyleParser();
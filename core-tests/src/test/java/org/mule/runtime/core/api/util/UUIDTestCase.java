@@ -6,7 +6,10 @@
  */
 package org.mule.runtime.core.api.util;
 
+import static java.util.UUID.fromString;
+import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 
@@ -16,6 +19,7 @@ import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.junit.Test;
 
@@ -48,6 +52,31 @@ public class UUIDTestCase extends AbstractMuleTestCase {
     }
   }
 
-}
-
+  @Test
+  public void generatesType1UUIDs() throws Exception {
+    java.util.UUID uuid = fromString(UUID.getUUID());
+    assertThat(uuid.version(), is(1));
+    assertThat(uuid.toString(), is(uuid.toString().toLowerCase()));
+  }
 
+  @Test
+  public void generatesUniqueIdsConcurrently() throws Exception {
+    final Set<String> ids = ConcurrentHashMap.newKeySet();
+    final int numberOfThreads = 4;
+    final int numberOfIdsToGenerate = 10000;
+    List<Thread> threads = new ArrayList<>(numberOfThreads);
+    for (int i = 0; i < numberOfThreads; ++i) {
+      Thread thread = new Thread(() -> {
+        for (int index = 0; index < numberOfIdsToGenerate; index++) {
+          ids.add(UUID.getUUID());
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertThat(ids.size(), is(numberOfThreads * numberOfIdsToGenerate));
+  }
+}
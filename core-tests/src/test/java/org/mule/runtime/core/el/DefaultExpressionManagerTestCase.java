@@ -44,6 +44,7 @@ import org.mule.runtime.api.streaming.CursorProvider;
 import org.mule.runtime.core.api.InternalEvent;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.construct.FlowConstruct;
+import org.mule.runtime.core.api.el.CompiledExpression;
 import org.mule.runtime.core.api.el.ExtendedExpressionManager;
 import org.mule.runtime.core.api.registry.MuleRegistry;
 import org.mule.runtime.core.api.streaming.StreamingManager;
@@ -225,6 +226,34 @@ public class DefaultExpressionManagerTestCase extends AbstractMuleContextTestCas
     assertThat(expressionManager.parse(expression, testEvent(), TEST_CONNECTOR_LOCATION), is(expression));
   }
 
+  @Test
+  @Description("Verifies that compiled expressions evaluate the same way as their uncompiled counterparts.")
+  public void compiledExpression() throws MuleException {
+    CompiledExpression payload = expressionManager.compile("#[payload]");
+    assertThat(payload.evaluate(testEvent()).getValue(), is(TEST_PAYLOAD));
+    assertThat(payload.evaluate(BYTE_ARRAY, builder().build(), testEvent()).getValue(), is(TEST_PAYLOAD.getBytes()));
+
+    CompiledExpression flowVars = expressionManager.compile("#[vars.myVar]");
+    InternalEvent.Builder eventBuilder = InternalEvent.builder(testEvent());
+    assertThat(flowVars.evaluate(eventBuilder.build()).getValue(), nullValue());
+    eventBuilder.addVariable(MY_VAR, "Leda");
+    assertThat(flowVars.evaluate(eventBuilder.build()).getValue(), is("Leda"));
+
+    CompiledExpression mel = expressionManager.compile("#[mel:payload + 'mel']");
+    assertThat(mel.evaluate(testEvent()).getValue(), is(TEST_PAYLOAD + "mel"));
+  }
+
+  @Test
+  @Description("Verifies that compiled templates resolve the same way as parsing them.")
+  public void compiledTemplate() throws MuleException {
+    assertThat(expressionManager.compileTemplate("this is #[mel:payload], #[mel:null]")
+        .parse(testEvent(), TEST_CONNECTOR_LOCATION), is(String.format("this is %s, null", TEST_PAYLOAD)));
+    assertThat(expressionManager.compileTemplate("#['this is ' ++ payload]").parse(testEvent(), TEST_CONNECTOR_LOCATION),
+               is(String.format("this is %s", TEST_PAYLOAD)));
+    assertThat(expressionManager.compileTemplate("this is a test").parse(testEvent(), TEST_CONNECTOR_LOCATION),
+               is("this is a test"));
+  }
+
   @Test
   public void isValid() {
     String expression = "2*2";
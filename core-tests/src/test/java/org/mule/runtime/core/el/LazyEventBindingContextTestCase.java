@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.el;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mule.runtime.api.el.BindingContextUtils.ATTRIBUTES;
+import static org.mule.runtime.api.el.BindingContextUtils.FLOW;
+import static org.mule.runtime.api.el.BindingContextUtils.PAYLOAD;
+import static org.mule.runtime.api.el.BindingContextUtils.VARS;
+import static org.mule.runtime.api.metadata.DataType.STRING;
+import static org.mule.runtime.core.el.LazyEventBindingContext.referencedEventBindings;
+
+import org.mule.runtime.api.el.BindingContext;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.core.api.InternalEvent;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class LazyEventBindingContextTestCase extends AbstractMuleContextTestCase {
+
+  @Test
+  public void referencedBindings() {
+    assertThat(referencedEventBindings("payload.name ++ vars.foo"), containsInAnyOrder(PAYLOAD, VARS));
+    assertThat(referencedEventBindings("'attributes' ++ myPayload ++ payloads"), containsInAnyOrder(ATTRIBUTES));
+    assertThat(referencedEventBindings("1 + 2"), is(empty()));
+  }
+
+  @Test
+  public void eventNotAccessedWhenNotReferenced() {
+    InternalEvent event = mock(InternalEvent.class);
+    BindingContext context = BindingContext.builder().addBinding("foo", new TypedValue<>("bar", STRING)).build();
+
+    LazyEventBindingContext lazyContext = new LazyEventBindingContext(event, context, null, referencedEventBindings("foo"));
+
+    assertThat(lazyContext.lookup("foo").get().getValue(), is("bar"));
+    assertThat(lazyContext.lookup(PAYLOAD).isPresent(), is(false));
+    assertThat(lazyContext.identifiers(), containsInAnyOrder("foo"));
+    verifyZeroInteractions(event);
+  }
+
+  @Test
+  public void referencedBindingsResolvedFromEvent() throws Exception {
+    InternalEvent event = testEvent();
+
+    LazyEventBindingContext lazyContext =
+        new LazyEventBindingContext(event, null, null, referencedEventBindings("payload ++ vars.foo"));
+
+    assertThat(lazyContext.lookup(PAYLOAD).get(), sameInstance(event.getMessage().getPayload()));
+    assertThat(lazyContext.lookup(VARS).isPresent(), is(true));
+    assertThat(lazyContext.lookup(ATTRIBUTES).isPresent(), is(false));
+    assertThat(lazyContext.identifiers(), containsInAnyOrder(PAYLOAD, VARS));
+  }
+
+  @Test
+  public void bindingsPrecedence() throws Exception {
+    TypedValue<String> contextPayload = new TypedValue<>("context", STRING);
+    TypedValue<String> flow = new TypedValue<>("flow", STRING);
+    BindingContext context = BindingContext.builder().addBinding(PAYLOAD, contextPayload)
+        .addBinding(FLOW, new TypedValue<>("contextFlow", STRING)).build();
+
+    InternalEvent event = testEvent();
+    LazyEventBindingContext lazyContext = new LazyEventBindingContext(event, context, flow, referencedEventBindings("payload"));
+    assertThat(lazyContext.lookup(PAYLOAD).get(), sameInstance(event.getMessage().getPayload()));
+    assertThat(lazyContext.lookup(FLOW).get(), sameInstance(flow));
+
+    lazyContext = new LazyEventBindingContext(null, context, null, referencedEventBindings("payload"));
+    assertThat(lazyContext.lookup(PAYLOAD).get(), sameInstance(contextPayload));
+  }
+}
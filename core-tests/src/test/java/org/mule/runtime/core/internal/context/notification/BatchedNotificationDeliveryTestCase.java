@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.mule.runtime.core.api.context.notification.Notification;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.After;
+import org.junit.Test;
+
+@SmallTest
+public class BatchedNotificationDeliveryTestCase extends AbstractMuleTestCase {
+
+  private static final int PUBLISHERS = 4;
+  private static final int NOTIFICATIONS_PER_PUBLISHER = 1000;
+
+  private final ExecutorService executor = newSingleThreadExecutor();
+  private final List<Notification> delivered = new CopyOnWriteArrayList<>();
+
+  @After
+  public void after() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void ringBufferHoldsUpToCapacity() {
+    BoundedMpscRingBuffer<String> buffer = new BoundedMpscRingBuffer<>(3);
+    assertThat(buffer.capacity(), is(4));
+
+    for (int i = 0; i < 4; ++i) {
+      assertThat(buffer.offer("" + i), is(true));
+    }
+    assertThat(buffer.offer("4"), is(false));
+
+    assertThat(buffer.poll(), is("0"));
+    assertThat(buffer.offer("4"), is(true));
+    for (int i = 1; i < 5; ++i) {
+      assertThat(buffer.poll(), is("" + i));
+    }
+    assertThat(buffer.poll(), is(nullValue()));
+    assertThat(buffer.isEmpty(), is(true));
+  }
+
+  @Test
+  public void deliversAllPublishedInOrder() throws Exception {
+    BatchedNotificationDelivery delivery = new BatchedNotificationDelivery(16, false, delivered::add);
+    delivery.start(executor);
+
+    List<List<Notification>> published = new ArrayList<>();
+    List<Thread> publishers = new ArrayList<>();
+    for (int i = 0; i < PUBLISHERS; ++i) {
+      List<Notification> notifications = new ArrayList<>();
+      for (int j = 0; j < NOTIFICATIONS_PER_PUBLISHER; ++j) {
+        notifications.add(mock(Notification.class));
+      }
+      published.add(notifications);
+      Thread publisher = new Thread(() -> notifications.forEach(delivery::publish));
+      publishers.add(publisher);
+      publisher.start();
+    }
+    for (Thread publisher : publishers) {
+      publisher.join();
+    }
+
+    delivery.stop();
+    executor.shutdown();
+    assertThat(executor.awaitTermination(5, SECONDS), is(true));
+
+    assertThat(delivered.size(), is(PUBLISHERS * NOTIFICATIONS_PER_PUBLISHER));
+    assertThat(delivery.getDroppedNotifications(), is(0L));
+    for (List<Notification> notifications : published) {
+      List<Notification> deliveredFromPublisher = new ArrayList<>(delivered);
+      deliveredFromPublisher.retainAll(notifications);
+      assertThat(deliveredFromPublisher, contains(notifications.toArray()));
+    }
+  }
+
+  @Test
+  public void dropsWhenBufferIsFull() {
+    BatchedNotificationDelivery delivery = new BatchedNotificationDelivery(2, true, delivered::add);
+
+    for (int i = 0; i < 5; ++i) {
+      delivery.publish(mock(Notification.class));
+    }
+
+    assertThat(delivery.getDroppedNotifications(), is(3L));
+  }
+
+  @Test
+  public void deliversPendingWhenStopped() throws Exception {
+    BatchedNotificationDelivery delivery = new BatchedNotificationDelivery(4, false, delivered::add);
+    Notification notification = mock(Notification.class);
+    delivery.publish(notification);
+    delivery.stop();
+
+    delivery.start(executor);
+    executor.shutdown();
+    assertThat(executor.awaitTermination(5, SECONDS), is(true));
+
+    assertThat(delivered, contains(notification));
+
+    delivery.publish(mock(Notification.class));
+    assertThat(delivery.getDroppedNotifications(), is(1L));
+  }
+
+  @Test
+  public void deliversInlineWhenPublishedByListener() throws Exception {
+    Notification first = mock(Notification.class);
+    Notification second = mock(Notification.class);
+    BatchedNotificationDelivery[] delivery = new BatchedNotificationDelivery[1];
+    delivery[0] = new BatchedNotificationDelivery(1, false, nfn -> {
+      delivered.add(nfn);
+      if (nfn == first) {
+        // would never find room in the buffer if it were not delivered inline
+        delivery[0].publish(second);
+        delivery[0].publish(second);
+      }
+    });
+
+    delivery[0].publish(first);
+    delivery[0].stop();
+    delivery[0].start(executor);
+    executor.shutdown();
+    assertThat(executor.awaitTermination(5, SECONDS), is(true));
+
+    assertThat(delivered, contains(first, second, second));
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static java.lang.System.lineSeparator;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.mule.runtime.core.api.context.notification.FlowStackElement;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.EmptyStackException;
+import java.util.List;
+
+import org.junit.Test;
+
+@SmallTest
+public class DefaultFlowCallStackTestCase extends AbstractMuleTestCase {
+
+  private final DefaultFlowCallStack stack = new DefaultFlowCallStack();
+
+  @Test
+  public void elementsFromTopToBottom() {
+    stack.push("flow");
+    stack.setCurrentProcessorPath("/flow/processors/0");
+    stack.push(new FlowStackElement("subFlow", null));
+
+    List<FlowStackElement> elements = stack.getElements();
+    assertThat(elements.size(), is(2));
+    assertThat(elements.get(0).toString(), is("subFlow"));
+    assertThat(elements.get(1).toString(), is("flow(/flow/processors/0)"));
+    assertThat(stack.toString(), is("at subFlow" + lineSeparator() + "at flow(/flow/processors/0)"));
+  }
+
+  @Test
+  public void growsBeyondInitialCapacity() {
+    for (int i = 0; i < 20; ++i) {
+      stack.push("flow" + i);
+    }
+    for (int i = 19; i >= 0; --i) {
+      assertThat(stack.getElements().get(0).getFlowName(), is("flow" + i));
+      stack.pop();
+    }
+    assertThat(stack.getElements().isEmpty(), is(true));
+  }
+
+  @Test
+  public void reusesPoppedFrame() {
+    stack.push("flow");
+    stack.push("subFlow");
+    stack.setCurrentProcessorPath("/subFlow/processors/0");
+    stack.pop();
+    stack.push("otherSubFlow");
+
+    assertThat(stack.toString(), is("at otherSubFlow" + lineSeparator() + "at flow"));
+  }
+
+  @Test
+  public void cloneNotAffectedByChanges() {
+    stack.push("flow");
+    stack.setCurrentProcessorPath("/flow/processors/0");
+    stack.push("subFlow");
+
+    DefaultFlowCallStack cloned = stack.clone();
+    stack.setCurrentProcessorPath("/subFlow/processors/0");
+    stack.pop();
+    stack.push("otherSubFlow");
+
+    assertThat(cloned.toString(), is("at subFlow" + lineSeparator() + "at flow(/flow/processors/0)"));
+    assertThat(stack.toString(), is("at otherSubFlow" + lineSeparator() + "at flow(/flow/processors/0)"));
+  }
+
+  @Test
+  public void changesToCloneNotVisible() {
+    stack.push("flow");
+
+    DefaultFlowCallStack cloned = stack.clone();
+    cloned.setCurrentProcessorPath("/flow/processors/0");
+    cloned.push("subFlow");
+
+    assertThat(stack.toString(), is("at flow"));
+    assertThat(cloned.toString(), is("at subFlow" + lineSeparator() + "at flow(/flow/processors/0)"));
+  }
+
+  @Test
+  public void cloneNotAffectedByChangesBelowTop() {
+    stack.push("flow");
+    stack.push("subFlow");
+    stack.push("innerSubFlow");
+
+    DefaultFlowCallStack cloned = stack.clone();
+    stack.setCurrentProcessorPath("/innerSubFlow/processors/0");
+    stack.pop();
+    stack.pop();
+    stack.setCurrentProcessorPath("/flow/processors/1");
+    stack.push("otherSubFlow");
+    stack.push("otherInnerSubFlow");
+
+    assertThat(cloned.toString(), is("at innerSubFlow" + lineSeparator() + "at subFlow" + lineSeparator() + "at flow"));
+    assertThat(stack.toString(), is("at otherInnerSubFlow" + lineSeparator() + "at otherSubFlow" + lineSeparator()
+        + "at flow(/flow/processors/1)"));
+  }
+
+  @Test(expected = EmptyStackException.class)
+  public void setProcessorPathOnEmptyStack() {
+    stack.setCurrentProcessorPath("/flow/processors/0");
+  }
+
+  @Test(expected = EmptyStackException.class)
+  public void popEmptyStack() {
+    stack.pop();
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.internal.management.stats.LatencyHistogram.MAX_TRACKABLE_VALUE;
+import static org.mule.runtime.core.internal.management.stats.LatencyHistogram.highestEquivalentValue;
+import static org.mule.runtime.core.internal.management.stats.LatencyHistogram.indexFor;
+
+import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.core.api.management.stats.ProcessorStatistics;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+
+import org.junit.Test;
+
+/**
+ * Validates the accuracy of the {@link LatencyHistogram} and the per processor statistics built on it.
+ */
+public class LatencyHistogramTestCase extends AbstractMuleTestCase {
+
+  @Test
+  public void emptyHistogram() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertThat(histogram.getTotalCount(), equalTo(0L));
+    assertThat(histogram.getMean(), equalTo(0L));
+    assertThat(histogram.getValueAtPercentile(99.0), equalTo(0L));
+  }
+
+  @Test
+  public void smallValuesAreExact() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long i = 1; i <= 50; ++i) {
+      histogram.recordValue(i);
+    }
+    assertThat(histogram.getValueAtPercentile(50.0), equalTo(25L));
+    assertThat(histogram.getValueAtPercentile(100.0), equalTo(50L));
+    assertThat(histogram.getMaxValue(), equalTo(50L));
+    assertThat(histogram.getTotalValue(), equalTo(1275L));
+  }
+
+  @Test
+  public void percentilesWithinPrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long i = 1; i <= 100000; ++i) {
+      histogram.recordValue(i * 1000);
+    }
+    assertThat((double) histogram.getValueAtPercentile(50.0), closeTo(50000000, 50000000 * 0.035));
+    assertThat((double) histogram.getValueAtPercentile(99.0), closeTo(99000000, 99000000 * 0.035));
+    assertThat((double) histogram.getValueAtPercentile(99.9), closeTo(99900000, 99900000 * 0.035));
+    assertThat(histogram.getMaxValue(), equalTo(100000000L));
+  }
+
+  @Test
+  public void bucketsAreContiguous() {
+    for (int i = 0; i < indexFor(MAX_TRACKABLE_VALUE); ++i) {
+      assertThat(indexFor(highestEquivalentValue(i)), equalTo(i));
+      assertThat(indexFor(highestEquivalentValue(i) + 1), equalTo(i + 1));
+    }
+  }
+
+  @Test
+  public void outOfRangeValuesAreClamped() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.recordValue(Long.MAX_VALUE);
+    histogram.recordValue(-1);
+    assertThat(histogram.getMaxValue(), equalTo(MAX_TRACKABLE_VALUE));
+    assertThat(histogram.getValueAtPercentile(50.0), equalTo(0L));
+  }
+
+  @Test
+  public void flowStatisticsPerProcessor() {
+    DefaultFlowConstructStatistics flowStatistics = new DefaultFlowConstructStatistics("Flow", "flow");
+    ComponentLocation location = mock(ComponentLocation.class);
+    when(location.getLocation()).thenReturn("flow/processors/0");
+
+    flowStatistics.addProcessorExecutionTime(location, 10);
+    assertThat(flowStatistics.getProcessorStatistics().isEmpty(), equalTo(true));
+
+    flowStatistics.setEnabled(true);
+    flowStatistics.addProcessorExecutionTime(location, 10);
+    flowStatistics.addProcessorExecutionTime(location, 30);
+    flowStatistics.addProcessorExecutionError(location, 50);
+
+    ProcessorStatistics processorStatistics = flowStatistics.getProcessorStatistics().get("flow/processors/0");
+    assertThat(processorStatistics.getProcessedEvents(), equalTo(3L));
+    assertThat(processorStatistics.getExecutionErrors(), equalTo(1L));
+    assertThat(processorStatistics.getAverageProcessingTime(), equalTo(30L));
+    assertThat(processorStatistics.getMaxProcessingTime(), equalTo(50L));
+
+    flowStatistics.clear();
+    assertThat(processorStatistics.getProcessedEvents(), equalTo(0L));
+    assertThat(processorStatistics.getExecutionErrors(), equalTo(0L));
+  }
+}
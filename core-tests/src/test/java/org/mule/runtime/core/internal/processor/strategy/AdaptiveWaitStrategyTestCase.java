@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.core.internal.processor.strategy.AdaptiveWaitStrategy.MIN_SPIN_BUDGET;
+import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.PROCESSING_STRATEGIES;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Test;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+
+@SmallTest
+@Feature(PROCESSING_STRATEGIES)
+public class AdaptiveWaitStrategyTestCase extends AbstractMuleTestCase {
+
+  private final AdaptiveWaitStrategy waitStrategy = new AdaptiveWaitStrategy();
+  private final AtomicLong cursor = new AtomicLong(-1);
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+  @After
+  public void after() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  @Description("A sequence that is already available is returned without waiting.")
+  public void available() throws Exception {
+    cursor.set(5);
+    assertThat(waitStrategy.waitFor(3, cursor::get, () -> {
+    }), is(5L));
+  }
+
+  @Test
+  @Description("A blocked consumer is woken up once the producer publishes and signals.")
+  public void blocksUntilSignalled() throws Exception {
+    Future<Long> result = executor.submit(() -> waitStrategy.waitFor(0, cursor::get, () -> {
+    }));
+
+    Thread.sleep(100);
+    cursor.set(0);
+    waitStrategy.signalAllWhenBlocking();
+
+    assertThat(result.get(5, SECONDS), is(0L));
+  }
+
+  @Test
+  @Description("The spin budget grows when waits are satisfied while spinning and decays back when consumers must block.")
+  public void spinBudgetAdapts() throws Exception {
+    AtomicInteger spins = new AtomicInteger();
+    waitStrategy.waitFor(0, cursor::get, () -> {
+      if (spins.incrementAndGet() == 2) {
+        cursor.set(0);
+      }
+    });
+    assertThat(waitStrategy.getSpinBudget(), greaterThan(MIN_SPIN_BUDGET));
+
+    Future<Long> result = executor.submit(() -> waitStrategy.waitFor(1, cursor::get, () -> {
+    }));
+    Thread.sleep(100);
+    cursor.set(1);
+    waitStrategy.signalAllWhenBlocking();
+    result.get(5, SECONDS);
+
+    assertThat(waitStrategy.getSpinBudget(), is(MIN_SPIN_BUDGET));
+  }
+
+}
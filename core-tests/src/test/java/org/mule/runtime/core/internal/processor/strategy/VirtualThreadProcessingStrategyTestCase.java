@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.allOf;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.everyItem;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.startsWith;
+import static org.hamcrest.core.IsCollectionContaining.hasItem;
+import static org.junit.Assume.assumeTrue;
+import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.BLOCKING;
+import static org.mule.runtime.core.internal.processor.strategy.AbstractProcessingStrategy.TRANSACTIONAL_ERROR_MESSAGE;
+import static org.mule.runtime.core.internal.processor.strategy.VirtualThreadProcessingStrategyFactory.createVirtualThreadPerTaskExecutor;
+import static org.mule.runtime.core.internal.processor.strategy.VirtualThreadProcessingStrategyFactory.isVirtualThreadSupported;
+import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.PROCESSING_STRATEGIES;
+import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.ProcessingStrategiesStory.VIRTUAL_THREAD;
+
+import org.mule.runtime.core.api.DefaultMuleException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.exception.MessagingException;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.api.transaction.TransactionCoordination;
+import org.mule.runtime.core.internal.processor.strategy.VirtualThreadProcessingStrategyFactory.ConcurrencyLimitedExecutorService;
+import org.mule.runtime.core.internal.processor.strategy.VirtualThreadProcessingStrategyFactory.VirtualThreadProcessingStrategy;
+import org.mule.tck.testmodels.mule.TestTransaction;
+
+import java.util.concurrent.ExecutorService;
+
+import org.junit.Test;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@Feature(PROCESSING_STRATEGIES)
+@Story(VIRTUAL_THREAD)
+public class VirtualThreadProcessingStrategyTestCase extends AbstractProcessingStrategyTestCase {
+
+  private static final String VIRTUAL = "virtual";
+
+  public VirtualThreadProcessingStrategyTestCase(Mode mode) {
+    super(mode);
+  }
+
+  @Override
+  protected ProcessingStrategy createProcessingStrategy(MuleContext muleContext, String schedulersNamePrefix) {
+    return new VirtualThreadProcessingStrategy(() -> blocking);
+  }
+
+  @Override
+  @Description("Regardless of processor type, when the VirtualThreadProcessingStrategy is configured, the pipeline is executed "
+      + "synchronously in the thread the event was dispatched to.")
+  public void singleCpuLight() throws Exception {
+    super.singleCpuLight();
+    assertSynchronousIOScheduler(1);
+  }
+
+  @Override
+  @Description("Regardless of processor type, when the VirtualThreadProcessingStrategy is configured, the pipeline is executed "
+      + "synchronously in the thread the event was dispatched to.")
+  public void singleCpuLightConcurrent() throws Exception {
+    super.singleCpuLightConcurrent();
+    assertThat(threads.size(), allOf(greaterThanOrEqualTo(1), lessThanOrEqualTo(2)));
+    assertThat(threads.stream().filter(name -> name.startsWith(IO)).count(), allOf(
+                                                                                   greaterThanOrEqualTo(1l),
+                                                                                   lessThanOrEqualTo(2l)));
+    assertThat(threads.stream().filter(name -> name.startsWith(CPU_LIGHT)).count(), equalTo(0l));
+    assertThat(threads.stream().filter(name -> name.startsWith(CPU_INTENSIVE)).count(), equalTo(0l));
+  }
+
+  @Override
+  @Description("Regardless of processor type, when the VirtualThreadProcessingStrategy is configured, the pipeline is executed "
+      + "synchronously in the thread the event was dispatched to.")
+  public void multipleCpuLight() throws Exception {
+    super.multipleCpuLight();
+    assertSynchronousIOScheduler(1);
+  }
+
+  @Override
+  @Description("Regardless of processor type, when the VirtualThreadProcessingStrategy is configured, the pipeline is executed "
+      + "synchronously in the thread the event was dispatched to.")
+  public void singleBlocking() throws Exception {
+    super.singleBlocking();
+    assertSynchronousIOScheduler(1);
+  }
+
+  @Override
+  @Description("Regardless of processor type, when the VirtualThreadProcessingStrategy is configured, the pipeline is executed "
+      + "synchronously in the thread the event was dispatched to.")
+  public void multipleBlocking() throws Exception {
+    super.multipleBlocking();
+    assertSynchronousIOScheduler(1);
+  }
+
+  @Override
+  @Description("Regardless of processor type, when the VirtualThreadProcessingStrategy is configured, the pipeline is executed "
+      + "synchronously in the thread the event was dispatched to.")
+  public void singleCpuIntensive() throws Exception {
+    super.singleCpuIntensive();
+    assertSynchronousIOScheduler(1);
+  }
+
+  @Override
+  @Description("Regardless of processor type, when the VirtualThreadProcessingStrategy is configured, the pipeline is executed "
+      + "synchronously in the thread the event was dispatched to.")
+  public void multipleCpuIntensive() throws Exception {
+    super.multipleCpuIntensive();
+    assertSynchronousIOScheduler(1);
+  }
+
+  @Override
+  @Description("Regardless of processor type, when the VirtualThreadProcessingStrategy is configured, the pipeline is executed "
+      + "synchronously in the thread the event was dispatched to.")
+  public void mix() throws Exception {
+    super.mix();
+    assertSynchronousIOScheduler(1);
+  }
+
+  @Override
+  @Description("Regardless of processor type, when the VirtualThreadProcessingStrategy is configured, the pipeline is executed "
+      + "synchronously in the thread the event was dispatched to.")
+  public void mix2() throws Exception {
+    super.mix2();
+    assertSynchronousIOScheduler(1);
+  }
+
+  @Override
+  @Description("When the VirtualThreadProcessingStrategy is configured and a transaction is active processing fails with an "
+      + "error")
+  public void tx() throws Exception {
+    flow = flowBuilder.get().processors(cpuLightProcessor, cpuIntensiveProcessor, blockingProcessor).build();
+    flow.initialise();
+    flow.start();
+
+    TransactionCoordination.getInstance().bindTransaction(new TestTransaction(muleContext));
+
+    expectedException.expect(MessagingException.class);
+    expectedException.expectCause(instanceOf(DefaultMuleException.class));
+    expectedException.expectCause(hasMessage(equalTo(TRANSACTIONAL_ERROR_MESSAGE)));
+    process(flow, testEvent());
+  }
+
+  @Override
+  @Description("When the VirtualThreadProcessingStrategy is configured any async processing will be returned to the thread "
+      + "of the event.")
+  public void asyncCpuLight() throws Exception {
+    super.asyncCpuLight();
+    assertThat(threads.size(), between(1, 2));
+    assertThat(threads.stream().filter(name -> name.startsWith(IO)).count(), between(1l, 2l));
+    assertThat(threads, not(hasItem(startsWith(CPU_LIGHT))));
+    assertThat(threads, not(hasItem(startsWith(CPU_INTENSIVE))));
+    assertThat(threads, not(hasItem(startsWith(CUSTOM))));
+  }
+
+  @Override
+  @Description("When the VirtualThreadProcessingStrategy is configured any async processing will be returned to the thread "
+      + "of the event.")
+  public void asyncCpuLightConcurrent() throws Exception {
+    super.asyncCpuLightConcurrent();
+    assertThat(threads.size(), between(2, 4));
+    assertThat(threads.stream().filter(name -> name.startsWith(IO)).count(), between(2l, 4l));
+    assertThat(threads, not(hasItem(startsWith(CPU_LIGHT))));
+    assertThat(threads, not(hasItem(startsWith(CPU_INTENSIVE))));
+    assertThat(threads, not(hasItem(startsWith(CUSTOM))));
+  }
+
+  private void assertSynchronousIOScheduler(int concurrency) {
+    assertThat(threads.size(), equalTo(concurrency));
+    assertThat(threads.stream().filter(name -> name.startsWith(IO)).count(), equalTo((long) concurrency));
+    assertThat(threads, not(hasItem(startsWith(CPU_LIGHT))));
+    assertThat(threads, not(hasItem(startsWith(CPU_INTENSIVE))));
+    assertThat(threads, not(hasItem(startsWith(CUSTOM))));
+  }
+
+  @Override
+  @Description("Concurrent stream with concurrency of 8 only uses four IO threads.")
+  public void concurrentStream() throws Exception {
+    super.concurrentStream();
+    assertThat(threads, hasSize(4));
+    assertThat(threads.stream().filter(name -> name.startsWith(IO)).count(), equalTo(4l));
+  }
+
+  @Test
+  @Description("If the executor rejects the event OVERLOAD error is thrown")
+  public void rejectedExecution() throws Exception {
+    flow = flowBuilder.get().processors(blockingProcessor)
+        .processingStrategyFactory((context,
+                                    prefix) -> new VirtualThreadProcessingStrategy(() -> new RejectingScheduler(blocking)))
+        .build();
+    flow.initialise();
+    flow.start();
+    expectRejected();
+    process(flow, testEvent());
+  }
+
+  @Test
+  @Description("Events exceeding the configured max concurrency are rejected with an OVERLOAD error instead of queued.")
+  public void maxConcurrencyRejectsExcessEvents() throws Exception {
+    MultipleInvocationLatchedProcessor latchedProcessor = new MultipleInvocationLatchedProcessor(BLOCKING, 1);
+    flow = flowBuilder.get().processors(latchedProcessor)
+        .processingStrategyFactory((context, prefix) -> new VirtualThreadProcessingStrategy(() -> limitConcurrency(blocking, 1)))
+        .build();
+    flow.initialise();
+    flow.start();
+
+    asyncExecutor.submit(() -> process(flow, newEvent()));
+    assertThat(latchedProcessor.getAllLatchedLatch().await(RECEIVE_TIMEOUT, MILLISECONDS), is(true));
+
+    try {
+      expectRejected();
+      process(flow, newEvent());
+    } finally {
+      latchedProcessor.release();
+    }
+  }
+
+  @Test
+  @Description("The concurrency permit of an event is released once it completes so further events are accepted.")
+  public void maxConcurrencyPermitReleasedOnCompletion() throws Exception {
+    flow = flowBuilder.get().processors(blockingProcessor)
+        .processingStrategyFactory((context, prefix) -> new VirtualThreadProcessingStrategy(() -> limitConcurrency(blocking, 1)))
+        .build();
+    flow.initialise();
+    flow.start();
+
+    process(flow, testEvent());
+    process(flow, testEvent());
+    assertSynchronousIOScheduler(1);
+  }
+
+  @Test
+  @Description("When supported by the JVM each event is processed on a named virtual thread.")
+  public void virtualThreads() throws Exception {
+    assumeTrue(isVirtualThreadSupported());
+    flow = flowBuilder.get().processors(cpuLightProcessor, blockingProcessor)
+        .processingStrategyFactory((context, prefix) -> new VirtualThreadProcessingStrategy(this::createVirtualExecutor))
+        .build();
+    flow.initialise();
+    flow.start();
+
+    process(flow, testEvent());
+    assertThat(threads, hasSize(1));
+    assertThat(threads, everyItem(startsWith(VIRTUAL + "-")));
+  }
+
+  private ExecutorService limitConcurrency(ExecutorService executor, int maxConcurrency) {
+    return new ConcurrencyLimitedExecutorService(executor, maxConcurrency);
+  }
+
+  private ExecutorService createVirtualExecutor() {
+    return createVirtualThreadPerTaskExecutor(VIRTUAL);
+  }
+
+}
@@ -40,7 +40,7 @@ public class IdempotentMessageValidatorMule6079TestCase extends AbstractMuleCont
   /*
    * This test admits two execution paths, note that the implementation of objectStore can lock on the await call of the latch, to
    * avoid this a countDown call was added to contains method, since there is a trace that locks otherwise. See implementation of
-   * IdempotentMessageValidator.isNewMessage to understand the trace.
+   * TemplateObjectStore.store to understand the trace.
    */
   @Test
   public void testRaceConditionOnAcceptAndProcess() throws Exception {
@@ -102,8 +102,8 @@ public class IdempotentMessageValidatorMule6079TestCase extends AbstractMuleCont
       boolean containsKey;
       synchronized (this) {
         // avoiding deadlock with the latch (locks if the element was already added to map, see definition of
-        // IdempotentMessageValidator.isNewMessage definition, if the element is added, it wont enter the
-        // objectStore.store method, and will lock.
+        // TemplateObjectStore.store definition, if the element is added, it wont enter the
+        // doStore method, and will lock.
         containsKey = map.containsKey(key);
         if (containsKey) {
           barrier.countDown();
@@ -11,13 +11,19 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.rules.ExpectedException.none;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
 import static org.mule.runtime.api.message.Message.of;
 
 import org.mule.runtime.api.message.Message;
 import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectStore;
 import org.mule.runtime.core.api.InternalEvent;
 import org.mule.runtime.core.api.InternalEventContext;
 import org.mule.runtime.core.api.el.ExpressionLanguageAdaptor;
@@ -195,4 +201,22 @@ public class IdempotentMessageValidatorTestCase extends AbstractMuleContextTestC
     processedEvent = idempotent.process(event);
     assertNotNull(processedEvent);
   }
+
+  @Test
+  public void idCheckedAndStoredInSingleStoreOperation() throws Exception {
+    ObjectStore<String> store = mock(ObjectStore.class);
+    idempotent.setObjectStore(store);
+
+    final InternalEventContext context = mock(InternalEventContext.class);
+    when(context.getCorrelationId()).thenReturn("1");
+    InternalEvent event = InternalEvent.builder(context).message(of("OK")).build();
+
+    assertThat(idempotent.process(event), sameInstance(event));
+    verify(store).store("1", "1");
+    verify(store, never()).contains(anyString());
+
+    doThrow(new ObjectAlreadyExistsException()).when(store).store("1", "1");
+    expected.expect(ValidationException.class);
+    idempotent.process(event);
+  }
 }
@@ -6,6 +6,9 @@
  */
 package org.mule.runtime.core.internal.routing.correlation;
 
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -36,6 +39,9 @@ import org.mule.tck.probe.Probe;
 import org.mule.tck.probe.Prober;
 import org.mule.tck.size.SmallTest;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -173,6 +179,19 @@ public class EventCorrelatorTestCase extends AbstractMuleTestCase {
     verify(mockEventGroup, times(1)).getMessageCollectionEvent();
   }
 
+  @Test
+  public void groupLocksStripedByGroupId() throws Exception {
+    EventCorrelator eventCorrelator = createEventCorrelator();
+    assertThat(eventCorrelator.getGroupLock(new String(TEST_GROUP_ID)),
+               sameInstance(eventCorrelator.getGroupLock(TEST_GROUP_ID)));
+
+    Map<Object, Object> locks = new IdentityHashMap<>();
+    for (int i = 0; i < 100; ++i) {
+      locks.put(eventCorrelator.getGroupLock(TEST_GROUP_ID + i), TEST_GROUP_ID + i);
+    }
+    assertThat(locks.size(), greaterThan(1));
+  }
+
   private EventCorrelator createEventCorrelator() throws Exception {
     when(mockMuleContext.getRegistry().get(OBJECT_STORE_MANAGER)).thenReturn(mockObjectStoreManager);
     memoryObjectStore.store(TEST_GROUP_ID, mockEventGroup, "prefix.eventGroups");
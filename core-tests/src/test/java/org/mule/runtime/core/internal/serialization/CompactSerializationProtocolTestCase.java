@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import org.mule.runtime.api.serialization.SerializationException;
+import org.mule.tck.core.internal.serialization.AbstractSerializerProtocolContractTestCase;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class CompactSerializationProtocolTestCase extends AbstractSerializerProtocolContractTestCase {
+
+  @Override
+  protected void doSetUp() throws Exception {
+    CompactSerializationProtocol protocol = new CompactSerializationProtocol();
+    protocol.setMuleContext(muleContext);
+    serializationProtocol = protocol;
+  }
+
+  @Test(expected = SerializationException.class)
+  public void notSerializable() throws Exception {
+    serializationProtocol.serialize(new Object());
+  }
+
+  @Test
+  public void scalars() throws Exception {
+    assertRoundTrip("Hello World");
+    assertRoundTrip(42);
+    assertRoundTrip(42L);
+    assertRoundTrip(true);
+    assertRoundTrip(4.2d);
+    assertThat(serializationProtocol.deserialize(serializationProtocol.serialize(new byte[] {1, 2, 3})),
+               equalTo(new byte[] {1, 2, 3}));
+  }
+
+  @Test
+  public void collections() throws Exception {
+    assertRoundTrip(createMap());
+  }
+
+  @Test
+  public void smallerThanJavaSerialization() throws Exception {
+    Map<String, Object> map = createMap();
+    byte[] javaBytes = new JavaExternalSerializerProtocol().serialize(map);
+
+    assertThat(serializationProtocol.serialize(map).length, lessThan(javaBytes.length));
+  }
+
+  @Test
+  public void readsJavaSerialization() throws Exception {
+    Map<String, Object> map = createMap();
+    byte[] javaBytes = new JavaExternalSerializerProtocol().serialize(map);
+
+    assertThat(serializationProtocol.deserialize(javaBytes), equalTo(map));
+  }
+
+  private Map<String, Object> createMap() {
+    List<Object> list = new ArrayList<>();
+    list.add(1L);
+    list.add(new BigDecimal("1.5"));
+    list.add(new Date(0));
+
+    Map<String, Object> map = new HashMap<>();
+    map.put("number", 1);
+    map.put("string", "value");
+    map.put("list", list);
+    return map;
+  }
+
+  private void assertRoundTrip(Object value) throws Exception {
+    Object deserialized = serializationProtocol.deserialize(serializationProtocol.serialize(value));
+    assertThat(deserialized, equalTo(value));
+  }
+}
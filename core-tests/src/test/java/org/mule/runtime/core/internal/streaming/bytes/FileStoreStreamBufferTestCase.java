@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.api.util.DataUnit.BYTE;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+
+import org.mule.runtime.api.util.DataSize;
+import org.mule.runtime.core.api.streaming.bytes.FileStoreCursorStreamConfig;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+
+import org.junit.After;
+import org.junit.Test;
+import io.qameta.allure.Feature;
+
+@SmallTest
+@Feature(STREAMING)
+public class FileStoreStreamBufferTestCase extends AbstractMuleTestCase {
+
+  private static final int MAX_IN_MEMORY_SIZE = 10;
+  private static final int MAPPED_REGION_SIZE = 16;
+
+  private final PoolingByteBufferManager bufferManager = new PoolingByteBufferManager();
+  private FileStoreStreamBuffer buffer;
+
+  @After
+  public void after() {
+    if (buffer != null) {
+      buffer.close();
+    }
+    bufferManager.dispose();
+  }
+
+  @Test
+  public void streamFitsInMemory() throws Exception {
+    byte[] data = data(MAX_IN_MEMORY_SIZE);
+    buffer = createBuffer(data);
+
+    assertThat(readFully(0, data.length), is(data));
+    assertThat(buffer.get(data.length, 1), is(nullValue()));
+    assertThat(buffer.getBufferFile(), is(nullValue()));
+  }
+
+  @Test
+  public void spillAcrossRegions() throws Exception {
+    byte[] data = data(MAX_IN_MEMORY_SIZE + MAPPED_REGION_SIZE * 3 + 5);
+    buffer = createBuffer(data);
+
+    assertThat(readFully(0, data.length), is(data));
+    assertThat(buffer.getBufferFile(), is(notNullValue()));
+    assertThat(buffer.get(data.length, 1), is(nullValue()));
+  }
+
+  @Test
+  public void repeatableReads() throws Exception {
+    byte[] data = data(MAX_IN_MEMORY_SIZE + MAPPED_REGION_SIZE * 2);
+    buffer = createBuffer(data);
+
+    assertThat(readFully(0, data.length), is(data));
+    assertThat(readFully(MAX_IN_MEMORY_SIZE - 3, 20), is(slice(data, MAX_IN_MEMORY_SIZE - 3, 20)));
+    assertThat(readFully(0, data.length), is(data));
+  }
+
+  @Test
+  public void randomAccessBeyondMemory() throws Exception {
+    byte[] data = data(MAX_IN_MEMORY_SIZE + MAPPED_REGION_SIZE * 2);
+    buffer = createBuffer(data);
+
+    int position = MAX_IN_MEMORY_SIZE + MAPPED_REGION_SIZE + 3;
+    assertThat(readFully(position, 5), is(slice(data, position, 5)));
+    assertThat(readFully(0, MAX_IN_MEMORY_SIZE), is(slice(data, 0, MAX_IN_MEMORY_SIZE)));
+  }
+
+  @Test
+  public void fileDeletedOnClose() throws Exception {
+    byte[] data = data(MAX_IN_MEMORY_SIZE + MAPPED_REGION_SIZE);
+    buffer = createBuffer(data);
+    readFully(0, data.length);
+
+    File bufferFile = buffer.getBufferFile();
+    assertThat(bufferFile.exists(), is(true));
+
+    buffer.close();
+    assertThat(bufferFile.exists(), is(false));
+  }
+
+  @Test
+  public void sliceReadableAfterClose() throws Exception {
+    byte[] data = data(MAX_IN_MEMORY_SIZE + MAPPED_REGION_SIZE);
+    buffer = createBuffer(data);
+    readFully(0, data.length);
+
+    ByteBuffer slice = buffer.get(MAX_IN_MEMORY_SIZE, MAPPED_REGION_SIZE);
+    buffer.close();
+
+    byte[] read = new byte[slice.remaining()];
+    slice.get(read);
+    assertThat(read, is(slice(data, MAX_IN_MEMORY_SIZE, MAPPED_REGION_SIZE)));
+  }
+
+  private FileStoreStreamBuffer createBuffer(byte[] data) {
+    return new FileStoreStreamBuffer(new ByteArrayInputStream(data),
+                                     new FileStoreCursorStreamConfig(new DataSize(MAX_IN_MEMORY_SIZE, BYTE)),
+                                     bufferManager, MAPPED_REGION_SIZE);
+  }
+
+  private byte[] readFully(long position, int length) {
+    byte[] result = new byte[length];
+    int offset = 0;
+    while (offset < length) {
+      ByteBuffer read = buffer.get(position + offset, length - offset);
+      int count = read.remaining();
+      read.get(result, offset, count);
+      offset += count;
+    }
+    return result;
+  }
+
+  private byte[] data(int length) {
+    byte[] data = new byte[length];
+    for (int i = 0; i < length; i++) {
+      data[i] = (byte) i;
+    }
+    return data;
+  }
+
+  private byte[] slice(byte[] data, int offset, int length) {
+    byte[] slice = new byte[length];
+    System.arraycopy(data, offset, slice, 0, length);
+    return slice;
+  }
+}
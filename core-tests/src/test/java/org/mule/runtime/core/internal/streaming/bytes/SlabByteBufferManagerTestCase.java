@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Math.toIntExact;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+
+import org.mule.runtime.api.util.Reference;
+import org.mule.runtime.core.api.util.concurrent.Latch;
+import org.mule.runtime.core.internal.streaming.MemoryManager;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.nio.ByteBuffer;
+
+import org.junit.After;
+import org.junit.Test;
+import io.qameta.allure.Feature;
+
+@SmallTest
+@Feature(STREAMING)
+public class SlabByteBufferManagerTestCase extends AbstractMuleTestCase {
+
+  // capacities of size classes
+  private static final int CAPACITY = 96;
+  private static final int OTHER_CAPACITY = 128;
+
+  private SlabByteBufferManager bufferManager = new SlabByteBufferManager();
+
+  @After
+  public void after() {
+    bufferManager.dispose();
+  }
+
+  @Test
+  public void directBuffers() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    assertThat(buffer.isDirect(), is(true));
+    assertThat(buffer.capacity(), is(CAPACITY));
+    assertThat(buffer.remaining(), is(CAPACITY));
+  }
+
+  @Test
+  public void recycling() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    buffer.put((byte) 1);
+    bufferManager.deallocate(buffer);
+
+    ByteBuffer newBuffer = bufferManager.allocate(CAPACITY);
+    assertThat(buffer, is(sameInstance(newBuffer)));
+    assertThat(newBuffer.position(), is(0));
+  }
+
+  @Test
+  public void grow() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    ByteBuffer newBuffer = bufferManager.allocate(CAPACITY);
+
+    assertThat(buffer, not(sameInstance(newBuffer)));
+  }
+
+  @Test
+  public void differentSizeClassesPerCapacity() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    bufferManager.deallocate(buffer);
+
+    ByteBuffer otherBuffer = bufferManager.allocate(OTHER_CAPACITY);
+    assertThat(otherBuffer.capacity(), is(OTHER_CAPACITY));
+    assertThat(buffer, not(sameInstance(otherBuffer)));
+  }
+
+  @Test
+  public void capacityRoundedUpToSizeClass() throws Exception {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY - 1);
+    assertThat(buffer.capacity(), is(CAPACITY));
+    assertThat(buffer.remaining(), is(CAPACITY - 1));
+    bufferManager.deallocate(buffer);
+
+    ByteBuffer newBuffer = bufferManager.allocate(CAPACITY);
+    assertThat(newBuffer, is(sameInstance(buffer)));
+    assertThat(newBuffer.remaining(), is(CAPACITY));
+  }
+
+  @Test
+  public void sizeClasses() {
+    assertThat(SlabByteBufferManager.sizeClassCapacity(8), is(8));
+    assertThat(SlabByteBufferManager.sizeClassCapacity(9), is(10));
+    assertThat(SlabByteBufferManager.sizeClassCapacity(100), is(112));
+    assertThat(SlabByteBufferManager.sizeClassCapacity(1024), is(1024));
+    assertThat(SlabByteBufferManager.sizeClassCapacity(1025), is(1280));
+  }
+
+  @Test
+  public void buffersOfFinishedThreadsRecycled() throws Exception {
+    // room for a single buffer, so that it has to be recycled
+    bufferManager = new SlabByteBufferManager(maxMemory(2L * CAPACITY), 100);
+
+    Reference<ByteBuffer> deallocated = new Reference<>();
+    Thread thread = new Thread(() -> {
+      deallocated.set(bufferManager.allocate(CAPACITY));
+      bufferManager.deallocate(deallocated.get());
+    });
+    thread.start();
+    thread.join();
+
+    assertThat(bufferManager.allocate(CAPACITY), is(sameInstance(deallocated.get())));
+    assertThat(bufferManager.getStreamingMemory(), is((long) CAPACITY));
+  }
+
+  @Test
+  public void buffersRecycledAcrossThreads() throws Exception {
+    // room for a single buffer, so that it has to be recycled
+    bufferManager = new SlabByteBufferManager(maxMemory(2L * CAPACITY), 100);
+
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    bufferManager.deallocate(buffer);
+
+    Reference<ByteBuffer> allocated = new Reference<>();
+    Thread thread = new Thread(() -> allocated.set(bufferManager.allocate(CAPACITY)));
+    thread.start();
+    thread.join();
+
+    assertThat(allocated.get(), is(sameInstance(buffer)));
+  }
+
+  @Test
+  public void limitTotalMemory() throws Exception {
+    final long maxMemory = 40L;
+    final int bufferCapacity = toIntExact(maxMemory / 4);
+    final long waitTimeoutMillis = SECONDS.toMillis(2);
+
+    bufferManager = new SlabByteBufferManager(maxMemory(maxMemory), waitTimeoutMillis);
+
+    ByteBuffer buffer1 = bufferManager.allocate(bufferCapacity);
+    bufferManager.allocate(bufferCapacity);
+    assertThat(bufferManager.getStreamingMemory(), is(maxMemory / 2));
+
+    Latch latch = new Latch();
+    Reference<Boolean> maxMemoryExhausted = new Reference<>(false);
+
+    new Thread(() -> {
+      try {
+        bufferManager.allocate(bufferCapacity);
+        latch.release();
+      } catch (MaxStreamingMemoryExceededException e) {
+        maxMemoryExhausted.set(true);
+      }
+    }).start();
+
+    assertThat(latch.await(waitTimeoutMillis * 2, MILLISECONDS), is(false));
+    assertThat(maxMemoryExhausted.get(), is(true));
+
+    bufferManager.deallocate(buffer1);
+
+    Latch secondLatch = new Latch();
+    new Thread(() -> {
+      try {
+        bufferManager.allocate(bufferCapacity);
+        maxMemoryExhausted.set(false);
+      } finally {
+        secondLatch.release();
+      }
+    }).start();
+
+    assertThat(secondLatch.await(waitTimeoutMillis, MILLISECONDS), is(true));
+    assertThat(maxMemoryExhausted.get(), is(false));
+  }
+
+  @Test
+  public void idleSizeClassesReleasedWhenMemoryIsExhausted() throws Exception {
+    bufferManager = new SlabByteBufferManager(maxMemory(2L * OTHER_CAPACITY), 100);
+
+    bufferManager.deallocate(bufferManager.allocate(CAPACITY));
+    ByteBuffer buffer = bufferManager.allocate(OTHER_CAPACITY);
+
+    assertThat(buffer.capacity(), is(OTHER_CAPACITY));
+    assertThat(bufferManager.getStreamingMemory(), is((long) OTHER_CAPACITY));
+  }
+
+  private MemoryManager maxMemory(long maxMemory) {
+    MemoryManager memoryManager = mock(MemoryManager.class);
+    when(memoryManager.getMaxMemory()).thenReturn(maxMemory);
+    return memoryManager;
+  }
+}
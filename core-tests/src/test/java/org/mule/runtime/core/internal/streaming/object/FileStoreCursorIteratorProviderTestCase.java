@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertThat;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.StreamingStory.OBJECT_STREAMING;
+
+import org.mule.runtime.api.streaming.object.CursorIterator;
+import org.mule.runtime.api.streaming.object.CursorIteratorProvider;
+import org.mule.runtime.core.api.streaming.object.FileStoreCursorIteratorConfig;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@SmallTest
+@Feature(STREAMING)
+@Story(OBJECT_STREAMING)
+public class FileStoreCursorIteratorProviderTestCase extends AbstractObjectStreamingTestCase {
+
+  private static final int DATA_SIZE = 500;
+  private static final int BUCKET_SIZE = 20;
+  private static final int MAX_IN_MEMORY_BUCKETS = 2;
+
+  private final FileStoreCursorIteratorConfig config = new FileStoreCursorIteratorConfig(BUCKET_SIZE, MAX_IN_MEMORY_BUCKETS);
+  private CursorIteratorProvider streamProvider;
+
+  public FileStoreCursorIteratorProviderTestCase() {
+    super(DATA_SIZE);
+  }
+
+  @Before
+  public void before() {
+    streamProvider = new FileStoreCursorIteratorProvider(toStreamingIterator(data), config, muleContext.getObjectSerializer());
+  }
+
+  @After
+  public void after() {
+    streamProvider.close();
+  }
+
+  @Test
+  @Description("fully consume a stream which doesn't fit in the in memory window")
+  public void readFully() throws Exception {
+    try (CursorIterator<Object> cursor = streamProvider.openCursor()) {
+      checkEquals(data, cursor);
+    }
+  }
+
+  @Test
+  @Description("Consume the stream and go back to positions which were evicted from memory")
+  public void seekToSpilledBuckets() throws Exception {
+    try (CursorIterator<Object> cursor = streamProvider.openCursor()) {
+      checkEquals(data, cursor);
+
+      for (int position : new int[] {0, BUCKET_SIZE * 3 + 7, BUCKET_SIZE - 1, DATA_SIZE - 1}) {
+        cursor.seek(position);
+        assertThat(cursor.next(), equalTo(data.get(position)));
+      }
+
+      cursor.seek(0);
+      checkEquals(read(cursor, DATA_SIZE), data);
+    }
+  }
+
+  @Test
+  @Description("Two cursors reading opposite ends of the stream")
+  public void twoCursorsReadingOppositeEnds() throws Exception {
+    try (CursorIterator<Object> first = streamProvider.openCursor();
+        CursorIterator<Object> second = streamProvider.openCursor()) {
+      second.seek(DATA_SIZE - BUCKET_SIZE);
+      checkEquals(read(second, BUCKET_SIZE), data.subList(DATA_SIZE - BUCKET_SIZE, DATA_SIZE));
+      checkEquals(read(first, DATA_SIZE), data);
+    }
+  }
+
+  @Test
+  @Description("The temporal file is deleted when the buffer is closed")
+  public void fileDeletedOnClose() throws Exception {
+    FileStoreObjectStreamBuffer<Object> buffer =
+        new FileStoreObjectStreamBuffer<>(toStreamingIterator(data), config, muleContext.getObjectSerializer());
+    buffer.initialise();
+    assertThat(buffer.getBucketFor(buffer.toPosition(DATA_SIZE - 1)).isPresent(), is(true));
+
+    File bufferFile = buffer.getBufferFile();
+    assertThat(bufferFile, is(notNullValue()));
+    assertThat(bufferFile.exists(), is(true));
+
+    buffer.close();
+    assertThat(bufferFile.exists(), is(false));
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.core.internal.util.PersistentHashTrieMap.empty;
+import static org.mule.runtime.core.internal.util.PersistentHashTrieMap.emptyCaseInsensitive;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Test;
+
+@SmallTest
+public class PersistentHashTrieMapTestCase extends AbstractMuleTestCase {
+
+  @Test
+  public void plusDoesNotModifyOriginal() {
+    PersistentHashTrieMap<String> original = PersistentHashTrieMap.<String>empty().plus("a", "1");
+    PersistentHashTrieMap<String> derived = original.plus("b", "2").plus("a", "3");
+
+    assertThat(original.size(), is(1));
+    assertThat(original.get("a"), is("1"));
+    assertThat(original.containsKey("b"), is(false));
+    assertThat(derived.size(), is(2));
+    assertThat(derived.get("a"), is("3"));
+    assertThat(derived.get("b"), is("2"));
+  }
+
+  @Test
+  public void minus() {
+    PersistentHashTrieMap<String> map = PersistentHashTrieMap.<String>empty().plus("a", "1").plus("b", "2");
+
+    assertThat(map.minus("c"), sameInstance(map));
+    assertThat(map.minus("a").keySet(), containsInAnyOrder("b"));
+    assertThat(map.minus("a").minus("b"), sameInstance(empty()));
+    assertThat(map.keySet(), containsInAnyOrder("a", "b"));
+  }
+
+  @Test
+  public void nullValues() {
+    PersistentHashTrieMap<String> map = PersistentHashTrieMap.<String>empty().plus("a", null);
+
+    assertThat(map.containsKey("a"), is(true));
+    assertThat(map.get("a"), is(nullValue()));
+    assertThat(map.containsKey("b"), is(false));
+  }
+
+  @Test
+  public void caseInsensitive() {
+    PersistentHashTrieMap<String> map = PersistentHashTrieMap.<String>emptyCaseInsensitive().plus("FOO", "1").plus("doo", "2");
+
+    assertThat(map.get("foo"), is("1"));
+    assertThat(map.get("DOO"), is("2"));
+    assertThat(map.keySet(), containsInAnyOrder("FOO", "doo"));
+
+    map = map.plus("Foo", "3");
+    assertThat(map.size(), is(2));
+    assertThat(map.keySet(), containsInAnyOrder("Foo", "doo"));
+    assertThat(map.minus("fOO").keySet(), containsInAnyOrder("doo"));
+  }
+
+  @Test
+  public void collidingKeys() {
+    // "Aa" and "BB" have the same hash code
+    PersistentHashTrieMap<String> map = PersistentHashTrieMap.<String>empty().plus("Aa", "1").plus("BB", "2");
+
+    assertThat(map.size(), is(2));
+    assertThat(map.get("Aa"), is("1"));
+    assertThat(map.get("BB"), is("2"));
+    assertThat(map.minus("Aa").keySet(), containsInAnyOrder("BB"));
+  }
+
+  @Test
+  public void behavesLikeHashMap() {
+    Random random = new Random(42);
+    Map<String, Integer> expected = new HashMap<>();
+    PersistentHashTrieMap<Integer> map = empty();
+
+    for (int i = 0; i < 20000; i++) {
+      String key = "key" + random.nextInt(2000);
+      if (random.nextInt(3) == 0) {
+        expected.remove(key);
+        map = map.minus(key);
+      } else {
+        expected.put(key, i);
+        map = map.plus(key, i);
+      }
+    }
+
+    assertThat(map.size(), is(expected.size()));
+    assertThat(map, equalTo(expected));
+    assertThat(new HashMap<>(map), equalTo(expected));
+  }
+
+  @Test
+  public void serialization() {
+    PersistentHashTrieMap<String> map = PersistentHashTrieMap.<String>emptyCaseInsensitive().plus("FOO", "1").plus("doo", "2");
+
+    PersistentHashTrieMap<String> deserialized = SerializationUtils.deserialize(SerializationUtils.serialize(map));
+
+    assertThat(deserialized, equalTo(map));
+    assertThat(deserialized.get("foo"), is("1"));
+    assertThat(SerializationUtils.deserialize(SerializationUtils.serialize(emptyCaseInsensitive())),
+               sameInstance(emptyCaseInsensitive()));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void immutable() {
+    PersistentHashTrieMap.<String>empty().plus("a", "1").put("b", "2");
+  }
+}
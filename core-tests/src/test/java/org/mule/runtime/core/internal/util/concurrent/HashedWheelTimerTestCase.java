@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.concurrent;
+
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.core.api.scheduler.SchedulerConfig.config;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.util.concurrent.Latch;
+import org.mule.runtime.core.internal.util.concurrent.HashedWheelTimer.Timeout;
+import org.mule.tck.SimpleUnitTestSupportSchedulerService;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class HashedWheelTimerTestCase extends AbstractMuleTestCase {
+
+  private HashedWheelTimer timer;
+  private SimpleUnitTestSupportSchedulerService schedulerService;
+
+  @Before
+  public void before() {
+    schedulerService = new SimpleUnitTestSupportSchedulerService();
+    // a small wheel, so that timeouts take several rounds
+    timer = new HashedWheelTimer("test.timer", 1, MILLISECONDS, 8,
+                                 schedulerService.customScheduler(config().withName("test.timer").withMaxConcurrentTasks(1)));
+  }
+
+  @After
+  public void after() throws Exception {
+    timer.stop();
+    schedulerService.stop();
+  }
+
+  @Test
+  public void expiresAfterDelay() throws Exception {
+    Latch latch = new Latch();
+    long start = nanoTime();
+    Timeout timeout = timer.newTimeout(latch::release, 50, MILLISECONDS);
+
+    assertThat(latch.await(5, SECONDS), is(true));
+    assertThat(NANOSECONDS.toMillis(nanoTime() - start), greaterThanOrEqualTo(50L));
+    assertThat(timeout.isExpired(), is(true));
+    assertThat(timeout.cancel(), is(false));
+  }
+
+  @Test
+  public void expiresInOrder() throws Exception {
+    CountDownLatch latch = new CountDownLatch(3);
+    AtomicInteger expired = new AtomicInteger();
+    int[] order = new int[3];
+    timer.newTimeout(() -> {
+      order[2] = expired.incrementAndGet();
+      latch.countDown();
+    }, 60, MILLISECONDS);
+    timer.newTimeout(() -> {
+      order[0] = expired.incrementAndGet();
+      latch.countDown();
+    }, 0, MILLISECONDS);
+    timer.newTimeout(() -> {
+      order[1] = expired.incrementAndGet();
+      latch.countDown();
+    }, 30, MILLISECONDS);
+
+    assertThat(latch.await(5, SECONDS), is(true));
+    assertThat(order[0], is(1));
+    assertThat(order[1], is(2));
+    assertThat(order[2], is(3));
+  }
+
+  @Test
+  public void cancelledDoesNotExpire() throws Exception {
+    AtomicInteger expired = new AtomicInteger();
+    Timeout cancelled = timer.newTimeout(expired::incrementAndGet, 20, MILLISECONDS);
+    Latch latch = new Latch();
+    timer.newTimeout(latch::release, 40, MILLISECONDS);
+
+    assertThat(cancelled.cancel(), is(true));
+    assertThat(cancelled.isCancelled(), is(true));
+    assertThat(latch.await(5, SECONDS), is(true));
+    assertThat(expired.get(), is(0));
+  }
+
+  @Test
+  public void neverExpiresWithMaxDelay() throws Exception {
+    AtomicInteger expired = new AtomicInteger();
+    Timeout timeout = timer.newTimeout(expired::incrementAndGet, Long.MAX_VALUE, MILLISECONDS);
+    Latch latch = new Latch();
+    timer.newTimeout(latch::release, 50, MILLISECONDS);
+
+    assertThat(latch.await(5, SECONDS), is(true));
+    assertThat(expired.get(), is(0));
+    assertThat(timeout.getDelay(MILLISECONDS), greaterThan(0L));
+    assertThat(timeout.cancel(), is(true));
+  }
+
+  @Test(expected = RejectedExecutionException.class)
+  public void rejectedWhenStopped() {
+    timer.stop();
+    timer.newTimeout(() -> {
+    }, 1, MILLISECONDS);
+  }
+
+  @Test(expected = RejectedExecutionException.class)
+  public void stoppedWithWorkerScheduler() throws Exception {
+    Latch latch = new Latch();
+    timer.newTimeout(latch::release, 0, MILLISECONDS);
+    assertThat(latch.await(5, SECONDS), is(true));
+
+    schedulerService.stop();
+    // the thread of the timer exits once interrupted
+    while (true) {
+      timer.newTimeout(() -> {
+      }, 1, MILLISECONDS);
+      Thread.sleep(10);
+    }
+  }
+
+  @Test
+  public void schedulerRunsDelayedTasksInDecorated() throws Exception {
+    Scheduler scheduler = new TimerSchedulerDecorator(timer, schedulerService.cpuLightScheduler());
+    Latch latch = new Latch();
+    Thread[] runner = new Thread[1];
+    scheduler.schedule(() -> {
+      runner[0] = Thread.currentThread();
+      latch.release();
+    }, 10, MILLISECONDS);
+
+    assertThat(latch.await(5, SECONDS), is(true));
+    assertThat(runner[0].getName().startsWith("test.timer"), is(false));
+  }
+
+  @Test
+  public void schedulerRunsWithFixedDelayUntilCancelled() throws Exception {
+    Scheduler scheduler = new TimerSchedulerDecorator(timer, schedulerService.cpuLightScheduler());
+    CountDownLatch latch = new CountDownLatch(3);
+    ScheduledFuture<?> future = scheduler.scheduleWithFixedDelay(latch::countDown, 0, 5, MILLISECONDS);
+
+    assertThat(latch.await(5, SECONDS), is(true));
+    assertThat(future.cancel(false), is(true));
+    assertThat(future.isCancelled(), is(true));
+  }
+
+  @Test
+  public void schedulerNeverRunsTasksWithMaxDelay() throws Exception {
+    Scheduler scheduler = new TimerSchedulerDecorator(timer, schedulerService.cpuLightScheduler());
+    AtomicInteger runs = new AtomicInteger();
+    ScheduledFuture<?> future = scheduler.schedule(runs::incrementAndGet, Long.MAX_VALUE, MILLISECONDS);
+    Latch latch = new Latch();
+    scheduler.schedule(latch::release, 50, MILLISECONDS);
+
+    assertThat(latch.await(5, SECONDS), is(true));
+    assertThat(runs.get(), is(0));
+    assertThat(future.isDone(), is(false));
+    assertThat(future.getDelay(MILLISECONDS), greaterThan(0L));
+  }
+
+  @Test
+  public void stoppingSchedulerCancelsPendingTasks() throws Exception {
+    Scheduler scheduler = new TimerSchedulerDecorator(timer, schedulerService.cpuLightScheduler());
+    ScheduledFuture<?> delayed = scheduler.schedule(() -> {
+    }, 1, SECONDS);
+    ScheduledFuture<?> periodic = scheduler.scheduleAtFixedRate(() -> {
+    }, 1, 1, SECONDS);
+
+    scheduler.stop();
+    assertThat(delayed.isCancelled(), is(true));
+    assertThat(periodic.isCancelled(), is(true));
+  }
+}
@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.core.internal.util.journal;
 
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
@@ -16,7 +18,11 @@ import org.mule.tck.junit4.AbstractMuleContextTestCase;
 
 import java.io.File;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.Rule;
@@ -51,11 +57,51 @@ public class TransactionJournalFileTestCase extends AbstractMuleContextTestCase
     assertThat(entry.getValue(), equalTo(payload));
   }
 
+  @Test
+  public void groupCommitKeepsEntriesOfConcurrentTransactions() throws Exception {
+    final int transactions = 8;
+    final int entriesPerTransaction = 50;
+
+    TransactionJournalFile<Integer, LocalQueueTxJournalEntry> journal = openJournal(true);
+    ExecutorService executor = newFixedThreadPool(transactions);
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      for (int i = 0; i < transactions; i++) {
+        final int txId = i;
+        results.add(executor.submit(() -> {
+          for (int j = 0; j < entriesPerTransaction; j++) {
+            journal.logOperation(new LocalQueueTxJournalEntry(txId, (byte) 6, "queue", j));
+          }
+        }));
+      }
+      for (Future<?> result : results) {
+        result.get(10, SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    journal.close();
+
+    journal = openJournal();
+    for (int i = 0; i < transactions; i++) {
+      Collection<LocalQueueTxJournalEntry> entries = journal.getLogEntries(i);
+      assertThat(entries.size(), equalTo(entriesPerTransaction));
+      int expectedValue = 0;
+      for (LocalQueueTxJournalEntry entry : entries) {
+        assertThat(entry.getValue(), equalTo(expectedValue++));
+      }
+    }
+  }
+
   private TransactionJournalFile<Integer, LocalQueueTxJournalEntry> openJournal() {
+    return openJournal(false);
+  }
+
+  private TransactionJournalFile<Integer, LocalQueueTxJournalEntry> openJournal(boolean groupCommit) {
     File journalFile = new File(temporaryFolder.getRoot(), "journal");
     JournalEntrySerializer serializer = LocalTxQueueTransactionJournal.createLocalTxQueueJournalEntrySerializer(muleContext);
 
-    return new TransactionJournalFile(journalFile, serializer, journalEntry -> false, KB_500);
+    return new TransactionJournalFile(journalFile, serializer, journalEntry -> false, KB_500, groupCommit);
   }
 
 }
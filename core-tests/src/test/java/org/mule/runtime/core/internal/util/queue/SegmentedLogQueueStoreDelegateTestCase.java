@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static java.util.Arrays.sort;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.scheduler.SchedulerService;
+import org.mule.tck.SimpleUnitTestSupportSchedulerService;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class SegmentedLogQueueStoreDelegateTestCase extends AbstractMuleTestCase {
+
+  private static final String TEST_QUEUE_NAME = "test-queue";
+  private static final int NUMBER_OF_ITEMS = 100;
+
+  @Rule
+  public TemporaryFolder workingDirectory = new TemporaryFolder();
+
+  private MuleContext mockMuleContext;
+  private SimpleUnitTestSupportSchedulerService schedulerService;
+
+  @Before
+  public void before() {
+    schedulerService = new SimpleUnitTestSupportSchedulerService();
+    mockMuleContext = mock(MuleContext.class);
+    when(mockMuleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    when(mockMuleContext.getSchedulerService()).thenReturn(schedulerService);
+    addJavaSerializerToMockMuleContext(mockMuleContext);
+  }
+
+  @After
+  public void after() throws Exception {
+    schedulerService.stop();
+  }
+
+  @Test
+  public void nameWithInvalidCharacters() {
+    String[] testNames = new String[] {"test-test", "test:/test", "test?test", "test:\\test", "test&test", "test|test",
+        "seda.queue(post:\\Customer:ApiTest-config.1)"};
+
+    for (String testName : testNames) {
+      SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore(testName);
+      queueStore.putNow(testName);
+      queueStore.dispose();
+    }
+  }
+
+  @Test
+  public void orderRecoveredAfterRestart() throws Exception {
+    SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore(TEST_QUEUE_NAME);
+    for (int i = 0; i < NUMBER_OF_ITEMS; i++) {
+      queueStore.putNow(createTestDataForIndex(i));
+    }
+    for (int i = 0; i < NUMBER_OF_ITEMS / 2; i++) {
+      assertThat(queueStore.poll(0), is(createTestDataForIndex(i)));
+    }
+    queueStore.untake("untaken");
+    queueStore.close();
+
+    queueStore = createTestQueueStore(TEST_QUEUE_NAME);
+    assertThat(queueStore.getSize(), is(NUMBER_OF_ITEMS / 2 + 1));
+    assertThat(queueStore.poll(0), is("untaken"));
+    for (int i = NUMBER_OF_ITEMS / 2; i < NUMBER_OF_ITEMS; i++) {
+      assertThat(queueStore.poll(0), is(createTestDataForIndex(i)));
+    }
+    assertThat(queueStore.poll(0), is(nullValue()));
+    queueStore.dispose();
+  }
+
+  @Test
+  public void removeAndContains() throws Exception {
+    SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore(TEST_QUEUE_NAME);
+    for (int i = 0; i < 3; i++) {
+      queueStore.putNow(createTestDataForIndex(i));
+    }
+    queueStore.remove(createTestDataForIndex(1));
+    assertThat(queueStore.contains(createTestDataForIndex(1)), is(false));
+    assertThat(queueStore.contains(createTestDataForIndex(2)), is(true));
+    queueStore.close();
+
+    queueStore = createTestQueueStore(TEST_QUEUE_NAME);
+    assertThat(queueStore.poll(0), is(createTestDataForIndex(0)));
+    assertThat(queueStore.poll(0), is(createTestDataForIndex(2)));
+    queueStore.dispose();
+  }
+
+  @Test
+  public void incompleteRecordDiscardedOnRecovery() throws Exception {
+    SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore(TEST_QUEUE_NAME);
+    queueStore.putNow("item");
+    queueStore.close();
+
+    File[] segments = getLogDirectory().listFiles();
+    sort(segments);
+    try (FileOutputStream segment = new FileOutputStream(segments[segments.length - 1], true)) {
+      segment.write(new byte[] {1, 0, 0});
+    }
+
+    queueStore = createTestQueueStore(TEST_QUEUE_NAME);
+    assertThat(queueStore.getSize(), is(1));
+    queueStore.putNow("other");
+    queueStore.close();
+
+    queueStore = createTestQueueStore(TEST_QUEUE_NAME);
+    assertThat(queueStore.poll(0), is("item"));
+    assertThat(queueStore.poll(0), is("other"));
+    queueStore.dispose();
+  }
+
+  @Test
+  public void clearSurvivesRestart() throws Exception {
+    SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore(TEST_QUEUE_NAME);
+    queueStore.putNow("item");
+    queueStore.clear();
+    queueStore.close();
+
+    queueStore = createTestQueueStore(TEST_QUEUE_NAME);
+    assertThat(queueStore.getSize(), is(0));
+    queueStore.dispose();
+  }
+
+  @Test
+  public void allFilesDeletedAfterDispose() {
+    SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore(TEST_QUEUE_NAME);
+    queueStore.putNow("item");
+    assertThat(getLogDirectory().exists(), is(true));
+
+    queueStore.dispose();
+    assertThat(getLogDirectory().exists(), is(false));
+  }
+
+  @Test
+  public void itemKeptWhenRemovalFails() throws Exception {
+    Scheduler ioScheduler = schedulerService.ioScheduler();
+    Scheduler syncScheduler = mock(Scheduler.class);
+    doAnswer(invocation -> {
+      ioScheduler.execute(invocation.getArgumentAt(0, Runnable.class));
+      return null;
+    }).when(syncScheduler).execute(any(Runnable.class));
+    SchedulerService failingSchedulerService = mock(SchedulerService.class);
+    when(failingSchedulerService.ioScheduler()).thenReturn(syncScheduler);
+    when(mockMuleContext.getSchedulerService()).thenReturn(failingSchedulerService);
+
+    SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore(TEST_QUEUE_NAME);
+    queueStore.putNow("item");
+
+    doThrow(RejectedExecutionException.class).when(syncScheduler).execute(any(Runnable.class));
+    try {
+      queueStore.poll(0);
+      fail("removal should not be taken when it can't be synced");
+    } catch (MuleRuntimeException e) {
+      assertThat(queueStore.getSize(), is(1));
+      assertThat(queueStore.peek(), is("item"));
+    }
+    queueStore.close();
+
+    when(mockMuleContext.getSchedulerService()).thenReturn(schedulerService);
+    queueStore = createTestQueueStore(TEST_QUEUE_NAME);
+    assertThat(queueStore.getSize(), is(1));
+    assertThat(queueStore.poll(0), is("item"));
+    queueStore.dispose();
+  }
+
+  @Test
+  public void syncSchedulerStoppedOnClose() {
+    SegmentedLogQueueStoreDelegate queueStore = createTestQueueStore(TEST_QUEUE_NAME);
+    queueStore.putNow("item");
+    queueStore.close();
+
+    assertThat(schedulerService.getSchedulers(), is(empty()));
+  }
+
+  private File getLogDirectory() {
+    return SegmentedLogQueueStoreDelegate.getLogDirectory(TEST_QUEUE_NAME, workingDirectory.getRoot().getAbsolutePath());
+  }
+
+  private String createTestDataForIndex(int index) {
+    return "some value " + index;
+  }
+
+  private SegmentedLogQueueStoreDelegate createTestQueueStore(String queueName) {
+    return new SegmentedLogQueueStoreDelegate(queueName, workingDirectory.getRoot().getAbsolutePath(), mockMuleContext, 0);
+  }
+}
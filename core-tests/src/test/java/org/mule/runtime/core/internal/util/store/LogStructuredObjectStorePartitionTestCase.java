@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition.COMPACTION_THRESHOLD;
+import static org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition.LOG_FILE;
+import static org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition.SNAPSHOT_FILE;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@SmallTest
+@RunWith(MockitoJUnitRunner.class)
+public class LogStructuredObjectStorePartitionTestCase extends AbstractMuleTestCase {
+
+  @Rule
+  public TemporaryFolder objectStoreFolder = new TemporaryFolder();
+
+  @Mock
+  private MuleContext muleContext;
+
+  private LogStructuredObjectStorePartition<String> partition;
+
+  @Before
+  public void setUp() throws Exception {
+    addJavaSerializerToMockMuleContext(muleContext);
+    partition = new LogStructuredObjectStorePartition<>(muleContext, "test", objectStoreFolder.getRoot());
+    partition.open();
+  }
+
+  @Test
+  public void storeRetrieveAndRemove() throws ObjectStoreException {
+    partition.store("key1", "value1");
+    partition.store("key2", "value2");
+
+    assertThat(partition.retrieve("key1"), is("value1"));
+    assertThat(partition.allKeys(), containsInAnyOrder("key1", "key2"));
+    assertThat(partition.remove("key1"), is("value1"));
+    assertThat(partition.contains("key1"), is(false));
+    assertThat(partition.contains("key2"), is(true));
+  }
+
+  @Test(expected = ObjectAlreadyExistsException.class)
+  public void storeExistingKey() throws ObjectStoreException {
+    partition.store("key", "value");
+    partition.store("key", "other");
+  }
+
+  @Test
+  public void indicatesUnexistentKeyOnRetrieveError() throws ObjectStoreException {
+    try {
+      partition.retrieve("nonExistentKey");
+      fail("Supposed to thrown an exception as key is not valid");
+    } catch (ObjectDoesNotExistException e) {
+      assertTrue(e.getMessage().contains("nonExistentKey"));
+    }
+  }
+
+  @Test
+  public void restoresFromLogWithoutSnapshot() throws ObjectStoreException {
+    partition.store("key1", "value1");
+    partition.store("key2", "value2");
+    partition.remove("key1");
+
+    LogStructuredObjectStorePartition<String> reopened = reopen();
+    assertThat(reopened.getPartitionName(), is("test"));
+    assertThat(reopened.allKeys(), containsInAnyOrder("key2"));
+    assertThat(reopened.retrieve("key2"), is("value2"));
+  }
+
+  @Test
+  public void restoresFromSnapshotAndLogTail() throws ObjectStoreException {
+    partition.store("key1", "value1");
+    partition.close();
+    assertThat(new File(objectStoreFolder.getRoot(), SNAPSHOT_FILE).exists(), is(true));
+
+    partition.store("key2", "value2");
+    partition.remove("key1");
+
+    LogStructuredObjectStorePartition<String> reopened = reopen();
+    assertThat(reopened.allKeys(), containsInAnyOrder("key2"));
+    assertThat(reopened.retrieve("key2"), is("value2"));
+  }
+
+  @Test
+  public void discardsIncompleteRecordOnRestore() throws Exception {
+    partition.store("key1", "value1");
+    partition.store("key2", "value2");
+
+    File logFile = new File(objectStoreFolder.getRoot(), LOG_FILE);
+    try (RandomAccessFile file = new RandomAccessFile(logFile, "rw")) {
+      file.setLength(file.length() - 3);
+    }
+
+    LogStructuredObjectStorePartition<String> reopened = reopen();
+    assertThat(reopened.allKeys(), containsInAnyOrder("key1"));
+    reopened.store("key3", "value3");
+    assertThat(reopen().allKeys(), containsInAnyOrder("key1", "key3"));
+  }
+
+  @Test
+  public void clear() throws ObjectStoreException {
+    partition.store("key1", "value1");
+    partition.close();
+    partition.clear();
+    partition.store("key2", "value2");
+
+    assertThat(reopen().allKeys(), containsInAnyOrder("key2"));
+  }
+
+  @Test
+  public void expireByMaxEntries() throws ObjectStoreException {
+    for (int i = 0; i < 5; i++) {
+      partition.store("key" + i, "value" + i);
+    }
+    partition.expire(UNBOUNDED, 2);
+
+    assertThat(partition.allKeys(), containsInAnyOrder("key3", "key4"));
+    assertThat(reopen().allKeys(), containsInAnyOrder("key3", "key4"));
+  }
+
+  @Test
+  public void expireByMaxEntriesInStoreOrderAfterRestore() throws ObjectStoreException {
+    for (int i = 0; i < 5; i++) {
+      partition.store("key" + i, "value" + i);
+    }
+    partition.close();
+    partition.store("key5", "value5");
+    partition.remove("key0");
+
+    LogStructuredObjectStorePartition<String> reopened = reopen();
+    reopened.expire(UNBOUNDED, 2);
+    assertThat(reopened.allKeys(), containsInAnyOrder("key4", "key5"));
+  }
+
+  @Test
+  public void usableAfterClose() throws ObjectStoreException {
+    partition.store("key1", "value1");
+    partition.close();
+
+    assertThat(partition.retrieve("key1"), is("value1"));
+    partition.store("key2", "value2");
+    partition.close();
+    assertThat(reopen().allKeys(), containsInAnyOrder("key1", "key2"));
+  }
+
+  @Test
+  public void restoresKeysLongerThan64KB() throws ObjectStoreException {
+    String largeKey = new String(new char[70 * 1024]).replace('\0', 'k');
+    partition.store(largeKey, "value");
+    partition.close();
+
+    assertThat(reopen().retrieve(largeKey), is("value"));
+  }
+
+  @Test
+  public void expireByTtl() throws Exception {
+    partition.store("key1", "value1");
+    Thread.sleep(50);
+    partition.store("key2", "value2");
+    partition.expire(40, UNBOUNDED);
+
+    assertThat(partition.allKeys(), containsInAnyOrder("key2"));
+  }
+
+  @Test
+  public void compactsRemovedEntries() throws ObjectStoreException {
+    String largeValue = new String(new char[64 * 1024]).replace('\0', 'x');
+    int entries = 2 * COMPACTION_THRESHOLD / largeValue.length();
+    for (int i = 0; i < entries; i++) {
+      partition.store("key" + i, largeValue);
+    }
+    for (int i = 1; i < entries; i++) {
+      partition.remove("key" + i);
+    }
+
+    assertThat(new File(objectStoreFolder.getRoot(), LOG_FILE).length(), lessThan((long) COMPACTION_THRESHOLD));
+    assertThat(partition.retrieve("key0"), is(largeValue));
+
+    LogStructuredObjectStorePartition<String> reopened = reopen();
+    assertThat(reopened.allKeys(), containsInAnyOrder("key0"));
+    assertThat(reopened.retrieve("key0"), is(largeValue));
+  }
+
+  private LogStructuredObjectStorePartition<String> reopen() throws ObjectStoreException {
+    LogStructuredObjectStorePartition<String> reopened =
+        new LogStructuredObjectStorePartition<>(muleContext, objectStoreFolder.getRoot());
+    reopened.open();
+    return reopened;
+  }
+}
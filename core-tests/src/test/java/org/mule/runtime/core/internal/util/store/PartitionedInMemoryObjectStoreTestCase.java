@@ -88,5 +88,57 @@ public class PartitionedInMemoryObjectStoreTestCase extends AbstractMuleTestCase
     assertThat(store.retrieve(TEST_KEY3, TEST_PARTITION), equalTo(TEST_VALUE));
   }
 
+  @Test
+  public void expireByNumberOfEntriesIgnoresRemovedEntries() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY2, TEST_VALUE, TEST_PARTITION);
+    store.store(TEST_KEY3, TEST_VALUE, TEST_PARTITION);
+
+    store.remove(TEST_KEY1, TEST_PARTITION);
+    store.expire(10, 2, TEST_PARTITION);
+
+    assertThat(store.retrieve(TEST_KEY2, TEST_PARTITION), equalTo(TEST_VALUE));
+    assertThat(store.retrieve(TEST_KEY3, TEST_PARTITION), equalTo(TEST_VALUE));
+  }
+
+  @Test
+  public void expireAfterManyRemovals() throws ObjectStoreException {
+    for (int i = 0; i < 1000; i++) {
+      store.store(TEST_KEY1 + i, TEST_VALUE, TEST_PARTITION);
+    }
+    for (int i = 0; i < 1000; i += 2) {
+      store.remove(TEST_KEY1 + i, TEST_PARTITION);
+    }
+
+    store.expire(10, 100, TEST_PARTITION);
+
+    assertThat(store.allKeys(TEST_PARTITION).size(), is(100));
+    assertThat(store.contains(TEST_KEY1 + 899, TEST_PARTITION), is(true));
+    assertThat(store.contains(TEST_KEY1 + 901, TEST_PARTITION), is(true));
+    assertThat(store.contains(TEST_KEY1 + 799, TEST_PARTITION), is(false));
+  }
+
+  @Test
+  public void keyStoredAgainAfterRemovalExpiresByItsOwnTime() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.remove(TEST_KEY1, TEST_PARTITION);
+
+    currentNanoTime = MILLISECONDS.toNanos(2);
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.expire(1, 100, TEST_PARTITION);
+
+    assertThat(store.retrieve(TEST_KEY1, TEST_PARTITION), equalTo(TEST_VALUE));
+  }
 
+  @Test
+  public void keyStoredAgainAfterClearExpiresByItsOwnTime() throws ObjectStoreException {
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.clear(TEST_PARTITION);
+
+    currentNanoTime = MILLISECONDS.toNanos(2);
+    store.store(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+    store.expire(1, 100, TEST_PARTITION);
+
+    assertThat(store.retrieve(TEST_KEY1, TEST_PARTITION), equalTo(TEST_VALUE));
+  }
 }
@@ -11,10 +11,12 @@ import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static java.util.Optional.empty;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.stream.Collectors.toList;
 import static org.apache.commons.lang3.RandomStringUtils.randomNumeric;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -23,12 +25,14 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
 import static org.mule.runtime.api.message.Message.of;
 import static org.mule.runtime.api.meta.AbstractAnnotatedObject.LOCATION_KEY;
+import static org.mule.runtime.api.meta.AbstractAnnotatedObject.ROOT_CONTAINER_NAME_KEY;
 import static org.mule.runtime.core.api.construct.Flow.builder;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
@@ -36,6 +40,7 @@ import static org.mule.runtime.core.api.processor.MessageProcessors.newChain;
 import static org.mule.runtime.core.api.processor.MessageProcessors.processToApply;
 import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_INTENSIVE;
 import static org.mule.tck.junit4.AbstractReactiveProcessorTestCase.Mode.BLOCKING;
+import static org.mule.runtime.dsl.api.component.config.DefaultComponentLocation.fromSingleComponent;
 import static org.mule.tck.junit4.AbstractReactiveProcessorTestCase.Mode.NON_BLOCKING;
 import static reactor.core.publisher.Flux.from;
 
@@ -44,6 +49,8 @@ import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.lifecycle.Lifecycle;
 import org.mule.runtime.api.message.ErrorType;
 import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.meta.AbstractAnnotatedObject;
+import org.mule.runtime.api.meta.AnnotatedObject;
 import org.mule.runtime.core.DefaultEventContext;
 import org.mule.runtime.core.api.InternalEvent;
 import org.mule.runtime.core.api.InternalEventContext;
@@ -51,9 +58,11 @@ import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.MuleSession;
 import org.mule.runtime.core.api.config.MuleConfiguration;
 import org.mule.runtime.core.api.construct.Flow;
+import org.mule.runtime.core.api.construct.FlowConstruct;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.exception.ErrorTypeLocator;
 import org.mule.runtime.core.api.execution.ExceptionContextProvider;
+import org.mule.runtime.core.api.management.stats.ProcessorStatistics;
 import org.mule.runtime.core.api.processor.InternalProcessor;
 import org.mule.runtime.core.api.processor.MessageProcessorBuilder;
 import org.mule.runtime.core.api.processor.MessageProcessorChain;
@@ -63,6 +72,7 @@ import org.mule.runtime.core.api.processor.strategy.ProcessingStrategyFactory;
 import org.mule.runtime.core.api.scheduler.SchedulerService;
 import org.mule.runtime.core.api.util.ObjectUtils;
 import org.mule.runtime.core.internal.context.notification.DefaultFlowCallStack;
+import org.mule.runtime.core.internal.management.stats.DefaultFlowConstructStatistics;
 import org.mule.runtime.core.internal.processor.ResponseMessageProcessorAdapter;
 import org.mule.runtime.core.internal.processor.strategy.BlockingProcessingStrategyFactory;
 import org.mule.runtime.core.internal.processor.strategy.ProactorStreamProcessingStrategyFactory;
@@ -94,6 +104,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 @SuppressWarnings("deprecation")
 public class DefaultMessageProcessorChainTestCase extends AbstractReactiveProcessorTestCase {
 
+  private static final long SLEEP_MILLIS = 5;
+
   protected MuleContext muleContext;
 
   private AtomicInteger nonBlockingProcessorsExecuted = new AtomicInteger(0);
@@ -749,6 +761,43 @@ public class DefaultMessageProcessorChainTestCase extends AbstractReactiveProces
     process(builder.build(), getTestEventUsingFlow("0"));
   }
 
+  @Test
+  public void testProcessorStatistics() throws Exception {
+    DefaultFlowConstructStatistics statistics = new DefaultFlowConstructStatistics("Flow", "statsFlow");
+    statistics.setEnabled(true);
+    FlowConstruct statsFlow = mock(FlowConstruct.class);
+    when(statsFlow.getName()).thenReturn("statsFlow");
+    when(statsFlow.getStatistics()).thenReturn(statistics);
+    muleContext.getRegistry().registerFlowConstruct(statsFlow);
+
+    DefaultMessageProcessorChainBuilder builder = new DefaultMessageProcessorChainBuilder();
+    builder.chain(new SleepingMessageProcessor("statsFlow/processors/0", false),
+                  new SleepingMessageProcessor("statsFlow/processors/1", true));
+    MessageProcessorChain chain = builder.build();
+    ((AnnotatedObject) chain).setAnnotations(singletonMap(ROOT_CONTAINER_NAME_KEY, "statsFlow"));
+
+    for (int i = 0; i < 2; ++i) {
+      try {
+        process(chain, getTestEventUsingFlow("0"));
+        fail("Processing should have failed");
+      } catch (IllegalStateException e) {
+        // expected
+      }
+    }
+
+    ProcessorStatistics succeeding = statistics.getProcessorStatistics().get("statsFlow/processors/0");
+    assertThat(succeeding.getProcessedEvents(), is(2L));
+    assertThat(succeeding.getExecutionErrors(), is(0L));
+    assertThat(succeeding.getTotalProcessingTime(), greaterThanOrEqualTo(2 * MILLISECONDS.toNanos(SLEEP_MILLIS)));
+    assertThat(succeeding.getMaxProcessingTime(), greaterThanOrEqualTo(MILLISECONDS.toNanos(SLEEP_MILLIS)));
+
+    ProcessorStatistics failing = statistics.getProcessorStatistics().get("statsFlow/processors/1");
+    assertThat(failing.getProcessedEvents(), is(2L));
+    assertThat(failing.getExecutionErrors(), is(2L));
+    assertThat(failing.getTotalProcessingTime(), greaterThanOrEqualTo(2 * MILLISECONDS.toNanos(SLEEP_MILLIS)));
+    assertThat(failing.getMaxProcessingTime(), greaterThanOrEqualTo(MILLISECONDS.toNanos(SLEEP_MILLIS)));
+  }
+
   @Override
   protected InternalEvent process(Processor messageProcessor, InternalEvent event) throws Exception {
     if (messageProcessor instanceof MuleContextAware) {
@@ -1016,4 +1065,27 @@ public class DefaultMessageProcessorChainTestCase extends AbstractReactiveProces
     }
   }
 
+  private static class SleepingMessageProcessor extends AbstractAnnotatedObject implements Processor {
+
+    private final boolean fail;
+
+    public SleepingMessageProcessor(String location, boolean fail) {
+      this.fail = fail;
+      setAnnotations(singletonMap(LOCATION_KEY, fromSingleComponent(location)));
+    }
+
+    @Override
+    public InternalEvent process(InternalEvent event) throws MuleException {
+      try {
+        Thread.sleep(SLEEP_MILLIS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      if (fail) {
+        throw new IllegalStateException();
+      }
+      return event;
+    }
+  }
+
 }
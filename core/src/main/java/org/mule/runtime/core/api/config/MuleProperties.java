@@ -195,11 +195,21 @@ public class MuleProperties {
   public static final String MULE_SECURITY_PROVIDER_PROPERTY = SYSTEM_PROPERTY_PREFIX + "security.provider";
   public static final String MULE_STREAMING_BUFFER_SIZE = SYSTEM_PROPERTY_PREFIX + "streaming.bufferSize";
   public static final String MULE_STREAMING_MAX_MEMORY = SYSTEM_PROPERTY_PREFIX + "max.streaming.memory";
+  public static final String MULE_STREAMING_DIRECT_MEMORY = SYSTEM_PROPERTY_PREFIX + "streaming.directMemory";
+  public static final String MULE_QUEUE_SEGMENTED_LOG = SYSTEM_PROPERTY_PREFIX + "queue.segmentedLog";
+  public static final String MULE_TX_JOURNAL_GROUP_COMMIT = SYSTEM_PROPERTY_PREFIX + "transaction.journal.groupCommit";
+  public static final String MULE_OBJECT_STORE_LOG_STRUCTURED = SYSTEM_PROPERTY_PREFIX + "objectstore.logStructured";
+  public static final String MULE_SERIALIZATION_COMPACT_INTERNAL_PROTOCOL =
+      SYSTEM_PROPERTY_PREFIX + "serialization.compactInternalProtocol";
+  public static final String MULE_NOTIFICATIONS_BATCHED = SYSTEM_PROPERTY_PREFIX + "notifications.batched";
+  public static final String MULE_NOTIFICATIONS_BUFFER_SIZE = SYSTEM_PROPERTY_PREFIX + "notifications.bufferSize";
+  public static final String MULE_NOTIFICATIONS_DROP_ON_OVERFLOW = SYSTEM_PROPERTY_PREFIX + "notifications.dropOnOverflow";
   public static final String MULE_SIMPLE_LOG = SYSTEM_PROPERTY_PREFIX + "simpleLog";
   public static final String MULE_FORCE_CONSOLE_LOG = SYSTEM_PROPERTY_PREFIX + "forceConsoleLog";
   public static final String MULE_LOG_CONTEXT_DISPOSE_DELAY_MILLIS = SYSTEM_PROPERTY_PREFIX + "log.context.dispose.delay.millis";
   public static final String MULE_FLOW_TRACE = SYSTEM_PROPERTY_PREFIX + "flowTrace";
   public static final String MULE_LOG_VERBOSE_CLASSLOADING = SYSTEM_PROPERTY_PREFIX + "classloading.verbose";
+  public static final String MULE_DISABLE_CLASS_LOOKUP_CACHE = SYSTEM_PROPERTY_PREFIX + "classloading.disableLookupCache";
   public static final String MULE_MEL_AS_DEFAULT = SYSTEM_PROPERTY_PREFIX + "test.mel.default";
   public static final String MULE_DISABLE_RESPONSE_TIMEOUT = SYSTEM_PROPERTY_PREFIX + "timeout.disable";
 }
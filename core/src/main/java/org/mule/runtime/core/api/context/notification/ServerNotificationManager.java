@@ -6,8 +6,13 @@
  */
 package org.mule.runtime.core.api.context.notification;
 
+import static java.lang.Boolean.getBoolean;
+import static java.lang.Integer.getInteger;
 import static java.util.Collections.unmodifiableMap;
 import static java.util.Collections.unmodifiableSet;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_NOTIFICATIONS_BATCHED;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_NOTIFICATIONS_BUFFER_SIZE;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_NOTIFICATIONS_DROP_ON_OVERFLOW;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import org.mule.runtime.api.lifecycle.InitialisationException;
@@ -15,6 +20,7 @@ import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.util.ClassUtils;
+import org.mule.runtime.core.internal.context.notification.BatchedNotificationDelivery;
 import org.mule.runtime.core.internal.context.notification.Configuration;
 import org.mule.runtime.core.internal.context.notification.Policy;
 import org.mule.runtime.core.privileged.context.notification.OptimisedNotificationHandler;
@@ -53,11 +59,19 @@ import org.slf4j.Logger;
  * <li>Disabling an event or interface disables all uses of that class or any subclass.</li>
  * <li>Enquiring whether an event is enabled returns true if any subclass is enabled.</li>
  * </ul>
+ *
+ * <p>
+ * Asynchronous notifications are delivered by submitting a task per listener to a scheduler. When the
+ * {@link org.mule.runtime.core.api.config.MuleProperties#MULE_NOTIFICATIONS_BATCHED} system property is set, they are published
+ * into a {@link BatchedNotificationDelivery} instead, which delivers them to the non blocking listeners from a dedicated
+ * thread.
  */
 public class ServerNotificationManager implements ServerNotificationHandler, MuleContextAware {
 
   private static final Logger logger = getLogger(ServerNotificationManager.class);
 
+  private static final int DEFAULT_NOTIFICATIONS_BUFFER_SIZE = 8 * 1024;
+
   private boolean dynamic = false;
   private Configuration configuration = new Configuration();
   private ReentrantReadWriteLock disposeLock = new ReentrantReadWriteLock();
@@ -65,6 +79,8 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
   private MuleContext muleContext;
   private Scheduler notificationsLiteScheduler;
   private Scheduler notificationsIoScheduler;
+  private Scheduler notificationsDeliveryScheduler;
+  private BatchedNotificationDelivery batchedDelivery;
 
   @Override
   public boolean isNotificationDynamic() {
@@ -87,6 +103,16 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
   public void initialise() throws InitialisationException {
     notificationsLiteScheduler = muleContext.getSchedulerService().cpuLightScheduler();
     notificationsIoScheduler = muleContext.getSchedulerService().ioScheduler();
+
+    if (getBoolean(MULE_NOTIFICATIONS_BATCHED)) {
+      notificationsDeliveryScheduler = muleContext.getSchedulerService()
+          .customScheduler(muleContext.getSchedulerBaseConfig().withName("notifications.delivery").withMaxConcurrentTasks(1));
+      batchedDelivery =
+          new BatchedNotificationDelivery(getInteger(MULE_NOTIFICATIONS_BUFFER_SIZE, DEFAULT_NOTIFICATIONS_BUFFER_SIZE),
+                                          getBoolean(MULE_NOTIFICATIONS_DROP_ON_OVERFLOW),
+                                          nfn -> notifyListeners(nfn, this::deliverBatched));
+      batchedDelivery.start(notificationsDeliveryScheduler);
+    }
   }
 
   public void addInterfaceToType(Class<? extends NotificationListener> iface,
@@ -156,6 +182,8 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
       }
       if (notification.isSynchronous()) {
         notifyListeners(notification, (listener, nfn) -> listener.onNotification(nfn));
+      } else if (batchedDelivery != null) {
+        batchedDelivery.publish(notification);
       } else {
         notifyListeners(notification, (listener, nfn) -> {
           if (listener.isBlocking()) {
@@ -170,6 +198,14 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
     }
   }
 
+  private void deliverBatched(NotificationListener listener, Notification notification) {
+    if (listener.isBlocking()) {
+      notificationsIoScheduler.submit(() -> listener.onNotification(notification));
+    } else {
+      listener.onNotification(notification);
+    }
+  }
+
   protected void notifyListeners(Notification notification, NotifierCallback notifier) {
     configuration.getPolicy().dispatch(notification, notifier);
   }
@@ -191,6 +227,16 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
    * died
    */
   public void dispose() {
+    // The batched consumer is drained before taking the lock, since a listener it notifies may fire a notification itself and
+    // would wait for the lock while the lock holder waits for the consumer to finish.
+    if (batchedDelivery != null) {
+      batchedDelivery.stop();
+    }
+    if (notificationsDeliveryScheduler != null) {
+      notificationsDeliveryScheduler.stop();
+      notificationsDeliveryScheduler = null;
+    }
+
     disposeLock.writeLock().lock();
     try {
       if (notificationsLiteScheduler != null) {
@@ -242,4 +288,12 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
   public boolean isDisposed() {
     return disposed.get();
   }
+
+  /**
+   * @return the number of asynchronous notifications dropped because they couldn't be delivered in time, or {@code 0} if
+   *         notifications are not batched.
+   */
+  public long getDroppedNotificationsCount() {
+    return batchedDelivery != null ? batchedDelivery.getDroppedNotifications() : 0;
+  }
 }
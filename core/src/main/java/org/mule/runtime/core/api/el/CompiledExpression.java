@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.el;
+
+import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.api.el.BindingContext;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.core.api.InternalEvent;
+import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
+
+/**
+ * An expression that has been compiled by {@link ExtendedExpressionManager#compile(String)}, so that it can be evaluated many
+ * times without parsing it again.
+ * <p>
+ * Each method is equivalent to the {@link ExpressionManager} method with the same parameters plus the expression.
+ *
+ * @since 4.0
+ */
+public interface CompiledExpression {
+
+  /**
+   * @return the expression that was compiled
+   */
+  String getExpression();
+
+  /**
+   * Evaluates the expression against the given event.
+   *
+   * @param event the current event being processed
+   * @return the result of the evaluation
+   * @throws ExpressionRuntimeException if a problem occurs evaluating the expression
+   * @see ExpressionManager#evaluate(String, InternalEvent)
+   */
+  TypedValue evaluate(InternalEvent event) throws ExpressionRuntimeException;
+
+  /**
+   * Evaluates the expression against the given event, location and bindings.
+   *
+   * @param event the current event being processed
+   * @param componentLocation the location of the component where the event is being processed
+   * @param context the bindings to consider
+   * @return the result of the evaluation
+   * @throws ExpressionRuntimeException if a problem occurs evaluating the expression
+   * @see ExpressionManager#evaluate(String, InternalEvent, ComponentLocation, BindingContext)
+   */
+  TypedValue evaluate(InternalEvent event, ComponentLocation componentLocation, BindingContext context)
+      throws ExpressionRuntimeException;
+
+  /**
+   * Evaluates the expression against the given event and bindings, transforming the result to the expected output type.
+   *
+   * @param outputType the expected output type
+   * @param context the bindings to consider
+   * @param event the current event being processed
+   * @return the result of the evaluation
+   * @throws ExpressionRuntimeException if a problem occurs evaluating the expression
+   * @see ExpressionManager#evaluate(String, DataType, BindingContext, InternalEvent)
+   */
+  TypedValue evaluate(DataType outputType, BindingContext context, InternalEvent event) throws ExpressionRuntimeException;
+
+  /**
+   * Evaluates the expression against the given event, location and bindings, transforming the result to the expected output
+   * type.
+   *
+   * @param outputType the expected output type
+   * @param context the bindings to consider
+   * @param event the current event being processed
+   * @param componentLocation the location of the component where the event is being processed
+   * @param failOnNull indicates if should fail if the evaluation result is {@code null}
+   * @return the result of the evaluation
+   * @throws ExpressionRuntimeException if a problem occurs evaluating the expression
+   * @see ExpressionManager#evaluate(String, DataType, BindingContext, InternalEvent, ComponentLocation, boolean)
+   */
+  TypedValue evaluate(DataType outputType, BindingContext context, InternalEvent event, ComponentLocation componentLocation,
+                      boolean failOnNull)
+      throws ExpressionRuntimeException;
+}
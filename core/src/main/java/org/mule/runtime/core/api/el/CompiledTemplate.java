@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.el;
+
+import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.core.api.InternalEvent;
+import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
+
+/**
+ * A template that has been compiled by {@link ExtendedExpressionManager#compileTemplate(String)}, so that the expressions
+ * embedded in it can be resolved many times without parsing it again.
+ *
+ * @since 4.0
+ */
+public interface CompiledTemplate {
+
+  /**
+   * @return the template that was compiled
+   */
+  String getTemplate();
+
+  /**
+   * Evaluates the expressions in the template, the same way {@link ExtendedExpressionManager#parse(String, InternalEvent,
+   * ComponentLocation)} does.
+   *
+   * @param event the current event being processed
+   * @param componentLocation the location of the component where the event is being processed
+   * @return the result of the evaluation
+   * @throws ExpressionRuntimeException if a problem occurs evaluating any of the expressions
+   * @deprecated Parsing of expressions is deprecated. Use standard evaluation instead.
+   */
+  @Deprecated
+  String parse(InternalEvent event, ComponentLocation componentLocation) throws ExpressionRuntimeException;
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.el;
+
+import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.api.el.BindingContext;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.core.api.InternalEvent;
+
+/**
+ * {@link CompiledExpression} which evaluates the expression through the string based methods of an
+ * {@link ExtendedExpressionManager}.
+ *
+ * @since 4.0
+ */
+class DelegatingCompiledExpression implements CompiledExpression {
+
+  private final ExtendedExpressionManager expressionManager;
+  private final String expression;
+
+  DelegatingCompiledExpression(ExtendedExpressionManager expressionManager, String expression) {
+    this.expressionManager = expressionManager;
+    this.expression = expression;
+  }
+
+  @Override
+  public String getExpression() {
+    return expression;
+  }
+
+  @Override
+  public TypedValue evaluate(InternalEvent event) {
+    return expressionManager.evaluate(expression, event);
+  }
+
+  @Override
+  public TypedValue evaluate(InternalEvent event, ComponentLocation componentLocation, BindingContext context) {
+    return expressionManager.evaluate(expression, event, componentLocation, context);
+  }
+
+  @Override
+  public TypedValue evaluate(DataType outputType, BindingContext context, InternalEvent event) {
+    return expressionManager.evaluate(expression, outputType, context, event);
+  }
+
+  @Override
+  public TypedValue evaluate(DataType outputType, BindingContext context, InternalEvent event,
+                             ComponentLocation componentLocation, boolean failOnNull) {
+    return expressionManager.evaluate(expression, outputType, context, event, componentLocation, failOnNull);
+  }
+
+  @Override
+  public String toString() {
+    return expression;
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.el;
+
+import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.core.api.InternalEvent;
+
+/**
+ * {@link CompiledTemplate} which resolves the template through
+ * {@link ExtendedExpressionManager#parse(String, InternalEvent, ComponentLocation)}.
+ *
+ * @since 4.0
+ */
+class DelegatingCompiledTemplate implements CompiledTemplate {
+
+  private final ExtendedExpressionManager expressionManager;
+  private final String template;
+
+  DelegatingCompiledTemplate(ExtendedExpressionManager expressionManager, String template) {
+    this.expressionManager = expressionManager;
+    this.template = template;
+  }
+
+  @Override
+  public String getTemplate() {
+    return template;
+  }
+
+  @Override
+  public String parse(InternalEvent event, ComponentLocation componentLocation) {
+    return expressionManager.parse(template, event, componentLocation);
+  }
+
+  @Override
+  public String toString() {
+    return template;
+  }
+}
@@ -81,4 +81,32 @@ public interface ExtendedExpressionManager extends ExpressionManager {
   @Deprecated
   String parse(String expression, InternalEvent event, ComponentLocation componentLocation) throws ExpressionRuntimeException;
 
+  /**
+   * Compiles the given expression, so that it can be evaluated many times without parsing it again. The work that doesn't
+   * depend on the evaluation, like selecting the expression language or removing the expression delimiters, is done only once.
+   * <p>
+   * The default implementation doesn't do any work upfront, the returned expression is evaluated through the methods of this
+   * manager that receive the expression.
+   *
+   * @param expression the expression to compile
+   * @return the compiled expression
+   */
+  default CompiledExpression compile(String expression) {
+    return new DelegatingCompiledExpression(this, expression);
+  }
+
+  /**
+   * Compiles the given template, so that the expressions embedded in it can be resolved many times without parsing it again.
+   * <p>
+   * The default implementation doesn't do any work upfront, the returned template is resolved through
+   * {@link #parse(String, InternalEvent, ComponentLocation)}.
+   *
+   * @param template one or more expressions embedded in a literal string, as accepted by
+   *        {@link #parse(String, InternalEvent, ComponentLocation)}
+   * @return the compiled template
+   */
+  default CompiledTemplate compileTemplate(String template) {
+    return new DelegatingCompiledTemplate(this, template);
+  }
+
 }
@@ -7,6 +7,12 @@
 
 package org.mule.runtime.core.api.management.stats;
 
+import static java.util.Collections.emptyMap;
+
+import org.mule.runtime.api.component.location.ComponentLocation;
+
+import java.util.Map;
+
 /**
  * Maintains different statistics for {@link org.mule.runtime.core.api.construct.FlowConstruct} instances
  */
@@ -42,6 +48,33 @@ public interface FlowConstructStatistics extends Statistics {
    */
   void addFlowExecutionBranchTime(long time, long total);
 
+  /**
+   * Adds the execution time of a single processor of the flow for a processed event
+   *
+   * @param location the location of the processor
+   * @param timeNanos time in nanoseconds spent by the event in the processor
+   */
+  default void addProcessorExecutionTime(ComponentLocation location, long timeNanos) {
+    // Nothing to do by default
+  }
+
+  /**
+   * Adds the execution time of a single processor of the flow for an event that failed in it
+   *
+   * @param location the location of the processor
+   * @param timeNanos time in nanoseconds spent by the event in the processor until it failed
+   */
+  default void addProcessorExecutionError(ComponentLocation location, long timeNanos) {
+    // Nothing to do by default
+  }
+
+  /**
+   * @return the statistics of each processor that executed within the flow, keyed by processor location path.
+   */
+  default Map<String, ProcessorStatistics> getProcessorStatistics() {
+    return emptyMap();
+  }
+
   long getAverageProcessingTime();
 
   long getProcessedEvents();
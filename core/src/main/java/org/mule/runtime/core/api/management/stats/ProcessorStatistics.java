@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.management.stats;
+
+/**
+ * Maintains latency and throughput statistics for a single message processor within a
+ * {@link org.mule.runtime.core.api.construct.FlowConstruct}.
+ * <p>
+ * All times are expressed in nanoseconds and are measured from the thread the processor runs on, so they don't include the time
+ * the event spent waiting to be scheduled nor the notifications fired for the processor. Events that failed in the processor
+ * are included along with the ones it completed.
+ *
+ * @since 4.0
+ */
+public interface ProcessorStatistics extends Statistics {
+
+  /**
+   * @return the location path of the processor these statistics belong to.
+   */
+  String getLocation();
+
+  /**
+   * @return the number of events the processor has completed, including the ones that failed.
+   */
+  long getProcessedEvents();
+
+  /**
+   * @return the number of events that failed in the processor.
+   */
+  long getExecutionErrors();
+
+  /**
+   * @return the time consumed by the processor to process all the completed events, including the ones that failed.
+   */
+  long getTotalProcessingTime();
+
+  /**
+   * @return the maximum time required by the processor to process an event.
+   */
+  long getMaxProcessingTime();
+
+  /**
+   * @return the average time required by the processor to process an event.
+   */
+  long getAverageProcessingTime();
+
+  /**
+   * Obtains the processing time below which the given percentage of the recorded events fall, i.e.: {@code 50.0} for the
+   * median, {@code 99.0} or {@code 99.9} for tail latencies.
+   *
+   * @param percentile a value between {@code 0.0} and {@code 100.0}.
+   * @return the processing time at the given percentile.
+   */
+  long getProcessingTimeAtPercentile(double percentile);
+
+  /**
+   * Resets all the statistic state
+   */
+  void clear();
+}
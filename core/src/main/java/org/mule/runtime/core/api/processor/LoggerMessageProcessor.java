@@ -15,6 +15,7 @@ import org.mule.runtime.api.meta.AbstractAnnotatedObject;
 import org.mule.runtime.core.api.InternalEvent;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.context.MuleContextAware;
+import org.mule.runtime.core.api.el.CompiledTemplate;
 import org.mule.runtime.core.api.el.ExtendedExpressionManager;
 import org.mule.runtime.core.api.util.StringUtils;
 
@@ -38,11 +39,16 @@ public class LoggerMessageProcessor extends AbstractAnnotatedObject implements P
 
   protected MuleContext muleContext;
   protected ExtendedExpressionManager expressionManager;
+  // compiled on initialisation, null if the message is changed afterwards
+  private CompiledTemplate compiledMessage;
 
   @Override
   public void initialise() throws InitialisationException {
     initLogger();
     expressionManager = muleContext.getExpressionManager();
+    if (message != null) {
+      compiledMessage = expressionManager.compileTemplate(message);
+    }
   }
 
   protected void initLogger() {
@@ -70,7 +76,9 @@ public class LoggerMessageProcessor extends AbstractAnnotatedObject implements P
       } else {
         LogLevel logLevel = LogLevel.valueOf(level);
         if (LogLevel.valueOf(level).isEnabled(logger)) {
-          logLevel.log(logger, expressionManager.parse(message, event, getLocation()));
+          logLevel.log(logger, compiledMessage != null
+              ? compiledMessage.parse(event, getLocation())
+              : expressionManager.parse(message, event, getLocation()));
         }
       }
     }
@@ -90,6 +98,7 @@ public class LoggerMessageProcessor extends AbstractAnnotatedObject implements P
 
   public void setMessage(String message) {
     this.message = message;
+    this.compiledMessage = null;
   }
 
   public void setCategory(String category) {
@@ -19,20 +19,27 @@ import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
-
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In memory {@link PartitionableExpirableObjectStore}.
+ * <p>
+ * Each partition keeps a queue with its entries in insertion order, which is also the order in which they expire. Removed
+ * entries are only flagged and skipped once they reach the head of the queue, so none of the operations needs to traverse
+ * it: removals are constant time and expiring or evicting entries only touches the ones being discarded.
+ */
 public class PartitionedInMemoryObjectStore<T extends Serializable> extends AbstractPartitionableObjectStore<T>
     implements PartitionableExpirableObjectStore<T>, InternalComponent {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PartitionedInMemoryObjectStore.class);
 
-  private ConcurrentMap<String, ConcurrentMap<String, T>> partitions = new ConcurrentHashMap<>();
-  private ConcurrentMap<String, ConcurrentLinkedQueue<ExpiryEntry>> expiryInfoPartition = new ConcurrentHashMap<>();
+  private ConcurrentMap<String, ConcurrentMap<String, ExpiryEntry<T>>> partitions = new ConcurrentHashMap<>();
+  private ConcurrentMap<String, ExpiryQueue<T>> expiryInfoPartition = new ConcurrentHashMap<>();
 
   @Override
   public boolean isPersistent() {
@@ -50,39 +57,32 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
 
   @Override
   protected void doStore(String key, T value, String partitionName) throws ObjectStoreException {
-    T oldValue = getPartition(partitionName).putIfAbsent(key, value);
-    if (oldValue != null) {
+    ExpiryEntry<T> entry = new ExpiryEntry<>(getCurrentNanoTime(), key, value);
+    ExpiryEntry<T> oldEntry = getPartition(partitionName).putIfAbsent(key, entry);
+    if (oldEntry != null) {
       throw new ObjectAlreadyExistsException();
     }
-    getExpiryInfoPartition(partitionName).add(new ExpiryEntry(getCurrentNanoTime(), key));
+    getExpiryInfoPartition(partitionName).add(entry);
   }
 
   @Override
   protected T doRetrieve(String key, String partitionName) throws ObjectStoreException {
-    T value = getPartition(partitionName).get(key);
-    if (value == null) {
+    ExpiryEntry<T> entry = getPartition(partitionName).get(key);
+    if (entry == null) {
       throw new ObjectDoesNotExistException();
     }
-    return value;
+    return entry.getValue();
   }
 
   @Override
   protected T doRemove(String key, String partitionName) throws ObjectStoreException {
-    T removedValue = getPartition(partitionName).remove(key);
-    if (removedValue == null) {
+    ExpiryEntry<T> removedEntry = getPartition(partitionName).remove(key);
+    if (removedEntry == null) {
       throw new ObjectDoesNotExistException();
     }
 
-    Iterator<ExpiryEntry> iterator = getExpiryInfoPartition(partitionName).iterator();
-    while (iterator.hasNext()) {
-      ExpiryEntry entry = iterator.next();
-      if (key.equals(entry.getKey())) {
-        iterator.remove();
-        break;
-      }
-    }
-
-    return removedValue;
+    getExpiryInfoPartition(partitionName).removed(removedEntry);
+    return removedEntry.getValue();
   }
 
   @Override
@@ -92,6 +92,7 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
 
   @Override
   public void clear(String partitionName) throws ObjectStoreException {
+    getExpiryInfoPartition(partitionName).clear();
     getPartition(partitionName).clear();
   }
 
@@ -100,11 +101,11 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     return new ArrayList<>(partitions.keySet());
   }
 
-  private ConcurrentMap<String, T> getPartition(String partitionName) {
-    ConcurrentMap<String, T> partition = partitions.get(partitionName);
+  private ConcurrentMap<String, ExpiryEntry<T>> getPartition(String partitionName) {
+    ConcurrentMap<String, ExpiryEntry<T>> partition = partitions.get(partitionName);
     if (partition == null) {
       partition = new ConcurrentHashMap<>();
-      ConcurrentMap<String, T> previous = partitions.putIfAbsent(partitionName, partition);
+      ConcurrentMap<String, ExpiryEntry<T>> previous = partitions.putIfAbsent(partitionName, partition);
       if (previous != null) {
         partition = previous;
       }
@@ -112,11 +113,11 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     return partition;
   }
 
-  private ConcurrentLinkedQueue<ExpiryEntry> getExpiryInfoPartition(String partitionName) {
-    ConcurrentLinkedQueue<ExpiryEntry> partition = expiryInfoPartition.get(partitionName);
+  private ExpiryQueue<T> getExpiryInfoPartition(String partitionName) {
+    ExpiryQueue<T> partition = expiryInfoPartition.get(partitionName);
     if (partition == null) {
-      partition = new ConcurrentLinkedQueue<>();
-      ConcurrentLinkedQueue<ExpiryEntry> previous = expiryInfoPartition.putIfAbsent(partitionName, partition);
+      partition = new ExpiryQueue<>();
+      ExpiryQueue<T> previous = expiryInfoPartition.putIfAbsent(partitionName, partition);
       if (previous != null) {
         partition = previous;
       }
@@ -143,9 +144,9 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
   public void expire(long entryTTL, int maxEntries, String partitionName) throws ObjectStoreException {
     final long now = getCurrentNanoTime();
     int expiredEntries = 0;
-    ExpiryEntry oldestEntry;
-    ConcurrentLinkedQueue<ExpiryEntry> store = getExpiryInfoPartition(partitionName);
-    ConcurrentMap<String, T> partition = getPartition(partitionName);
+    ExpiryEntry<T> oldestEntry;
+    ExpiryQueue<T> store = getExpiryInfoPartition(partitionName);
+    ConcurrentMap<String, ExpiryEntry<T>> partition = getPartition(partitionName);
 
     trimToMaxSize(store, maxEntries, partition);
 
@@ -155,9 +156,9 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
 
     while ((oldestEntry = store.peek()) != null) {
       if (NANOSECONDS.toMillis(now - oldestEntry.getTime()) >= entryTTL) {
-        oldestEntry = store.remove();
-        partition.remove(oldestEntry.getKey());
-        expiredEntries++;
+        if (store.expire(oldestEntry, partition)) {
+          expiredEntries++;
+        }
       } else {
         break;
       }
@@ -168,18 +169,19 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     }
   }
 
-  private void trimToMaxSize(ConcurrentLinkedQueue<ExpiryEntry> store, int maxEntries, ConcurrentMap<String, T> partition) {
+  private void trimToMaxSize(ExpiryQueue<T> store, int maxEntries, ConcurrentMap<String, ExpiryEntry<T>> partition) {
     if (maxEntries == UNBOUNDED) {
       return;
     }
 
-    int currentSize = store.size();
-    int excess = (currentSize - maxEntries);
+    int excess = partition.size() - maxEntries;
     if (excess > 0) {
-      while (currentSize > maxEntries) {
-        ExpiryEntry toRemove = store.remove();
-        partition.remove(toRemove.getKey());
-        currentSize--;
+      int currentSize = partition.size();
+      ExpiryEntry<T> toRemove;
+      while (currentSize > maxEntries && (toRemove = store.peek()) != null) {
+        if (store.expire(toRemove, partition)) {
+          currentSize--;
+        }
       }
 
       if (LOGGER.isDebugEnabled()) {
@@ -195,7 +197,7 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
       partition.clear();
     }
 
-    ConcurrentLinkedQueue<ExpiryEntry> entries = expiryInfoPartition.remove(partitionName);
+    ExpiryQueue<T> entries = expiryInfoPartition.remove(partitionName);
     if (entries != null) {
       entries.clear();
     }
@@ -205,22 +207,111 @@ public class PartitionedInMemoryObjectStore<T extends Serializable> extends Abst
     return System.nanoTime();
   }
 
-  private static class ExpiryEntry {
+  /**
+   * Entries of a partition in insertion order. Entries removed from the partition stay in the queue until they reach its head
+   * or until they outnumber the live ones, in which case they are purged in a single pass. The counters are only used to decide
+   * when to purge, so they don't need to be exact under concurrent modifications.
+   */
+  private static class ExpiryQueue<T> {
+
+    private final ConcurrentLinkedQueue<ExpiryEntry<T>> entries = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedEntries = new AtomicInteger();
+    private final AtomicInteger removedEntries = new AtomicInteger();
+
+    public void add(ExpiryEntry<T> entry) {
+      entries.add(entry);
+      queuedEntries.incrementAndGet();
+    }
+
+    /**
+     * @return the oldest entry still in the partition, discarding the removed ones found on the way
+     */
+    public ExpiryEntry<T> peek() {
+      ExpiryEntry<T> oldestEntry;
+      while ((oldestEntry = entries.peek()) != null && oldestEntry.isRemoved()) {
+        if (entries.remove(oldestEntry)) {
+          queuedEntries.decrementAndGet();
+          removedEntries.decrementAndGet();
+        }
+      }
+      return oldestEntry;
+    }
+
+    /**
+     * Removes the given entry, which was returned by {@link #peek()}, from both the queue and the partition.
+     *
+     * @return whether the entry was still in the partition
+     */
+    public boolean expire(ExpiryEntry<T> entry, ConcurrentMap<String, ExpiryEntry<T>> partition) {
+      if (!entries.remove(entry)) {
+        return false;
+      }
+      queuedEntries.decrementAndGet();
+
+      if (partition.remove(entry.getKey(), entry)) {
+        return true;
+      }
+      // concurrently removed from the partition, which accounts for it in removedEntries
+      removedEntries.decrementAndGet();
+      return false;
+    }
+
+    public void removed(ExpiryEntry<T> entry) {
+      entry.markRemoved();
+      if (removedEntries.incrementAndGet() > queuedEntries.get() / 2 + 1) {
+        purge();
+      }
+    }
+
+    private synchronized void purge() {
+      entries.removeIf(entry -> {
+        if (entry.isRemoved()) {
+          queuedEntries.decrementAndGet();
+          removedEntries.decrementAndGet();
+          return true;
+        }
+        return false;
+      });
+    }
+
+    public void clear() {
+      entries.clear();
+      queuedEntries.set(0);
+      removedEntries.set(0);
+    }
+  }
+
+  private static class ExpiryEntry<T> {
 
     private final long time;
-    private final Serializable key;
+    private final String key;
+    private final T value;
+    private volatile boolean removed = false;
 
-    public ExpiryEntry(long time, Serializable key) {
+    public ExpiryEntry(long time, String key, T value) {
       this.time = time;
       this.key = key;
+      this.value = value;
     }
 
     public long getTime() {
       return time;
     }
 
-    public Serializable getKey() {
+    public String getKey() {
       return key;
     }
+
+    public T getValue() {
+      return value;
+    }
+
+    public boolean isRemoved() {
+      return removed;
+    }
+
+    public void markRemoved() {
+      removed = true;
+    }
   }
 }
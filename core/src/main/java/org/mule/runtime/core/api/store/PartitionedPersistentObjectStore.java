@@ -6,6 +6,9 @@
  */
 package org.mule.runtime.core.api.store;
 
+import static java.lang.Boolean.getBoolean;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_OBJECT_STORE_LOG_STRUCTURED;
+import static org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition.isLogStructuredPartition;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import org.mule.runtime.api.exception.MuleRuntimeException;
@@ -17,6 +20,7 @@ import org.mule.runtime.core.api.config.i18n.CoreMessages;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.util.FileUtils;
 import org.mule.runtime.core.api.util.UUID;
+import org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition;
 import org.mule.runtime.core.internal.util.store.PersistentObjectStorePartition;
 
 import org.slf4j.Logger;
@@ -37,7 +41,7 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
 
   private MuleContext muleContext;
   private File storeDirectory;
-  private Map<String, PersistentObjectStorePartition> partitionsByName = new HashMap<>();
+  private Map<String, ExpirableObjectStore<T>> partitionsByName = new HashMap<>();
   private boolean initialized = false;
 
   public PartitionedPersistentObjectStore() {
@@ -74,13 +78,21 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
   }
 
   @Override
-  public void close(String partitionName) throws ObjectStoreException {}
+  public void close(String partitionName) throws ObjectStoreException {
+    if (partitionsByName.containsKey(partitionName)) {
+      partitionsByName.get(partitionName).close();
+    }
+  }
 
   private void createPartition(String partitionName) throws ObjectStoreException {
-    PersistentObjectStorePartition persistentObjectStorePartition =
-        new PersistentObjectStorePartition(muleContext, partitionName, getNewPartitionDirectory());
-    persistentObjectStorePartition.open();
-    partitionsByName.put(partitionName, persistentObjectStorePartition);
+    final ExpirableObjectStore<T> partition;
+    if (getBoolean(MULE_OBJECT_STORE_LOG_STRUCTURED)) {
+      partition = new LogStructuredObjectStorePartition<>(muleContext, partitionName, getNewPartitionDirectory());
+    } else {
+      partition = new PersistentObjectStorePartition<>(muleContext, partitionName, getNewPartitionDirectory());
+    }
+    partition.open();
+    partitionsByName.put(partitionName, partition);
   }
 
   private File getNewPartitionDirectory() {
@@ -122,7 +134,7 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
     getPartitionObjectStore(partitionName).clear();
   }
 
-  private PersistentObjectStorePartition<T> getPartitionObjectStore(String partitionName) throws ObjectStoreException {
+  private ExpirableObjectStore<T> getPartitionObjectStore(String partitionName) throws ObjectStoreException {
     if (!partitionsByName.containsKey(partitionName)) {
       throw new ObjectStoreException(CoreMessages.createStaticMessage("No partition named: " + partitionName));
     }
@@ -177,10 +189,18 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
     }
     for (File partitionDirectory : directories) {
       try {
-        PersistentObjectStorePartition persistentObjectStorePartition =
-            new PersistentObjectStorePartition(muleContext, partitionDirectory);
-        persistentObjectStorePartition.open();
-        partitionsByName.put(persistentObjectStorePartition.getPartitionName(), persistentObjectStorePartition);
+        // partitions keep the format they were created with, regardless of the current configuration
+        if (isLogStructuredPartition(partitionDirectory)) {
+          LogStructuredObjectStorePartition<T> partition =
+              new LogStructuredObjectStorePartition<>(muleContext, partitionDirectory);
+          partition.open();
+          partitionsByName.put(partition.getPartitionName(), partition);
+        } else {
+          PersistentObjectStorePartition<T> partition =
+              new PersistentObjectStorePartition<>(muleContext, partitionDirectory);
+          partition.open();
+          partitionsByName.put(partition.getPartitionName(), partition);
+        }
       } catch (Exception e) {
         LOGGER.error("Could not restore partition under directory " + partitionDirectory.getAbsolutePath());
       }
@@ -200,6 +220,7 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
   @Override
   public void disposePartition(String partitionName) throws ObjectStoreException {
     clear(partitionName);
+    close(partitionName);
   }
 
   @Override
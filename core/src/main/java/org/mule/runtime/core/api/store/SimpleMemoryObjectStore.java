@@ -8,18 +8,19 @@ package org.mule.runtime.core.api.store;
 
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.objectIsNull;
 import org.mule.runtime.api.store.TemplateObjectStore;
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
 import org.mule.runtime.api.store.ObjectStore;
 import org.mule.runtime.api.store.ObjectStoreException;
 
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class SimpleMemoryObjectStore<T extends Serializable> extends TemplateObjectStore<T> implements ObjectStore<T> {
 
-  private Map<String, T> map = new ConcurrentHashMap<>();
+  private ConcurrentMap<String, T> map = new ConcurrentHashMap<>();
 
   @Override
   public boolean isPersistent() {
@@ -37,7 +38,10 @@ public class SimpleMemoryObjectStore<T extends Serializable> extends TemplateObj
       throw new ObjectStoreException(objectIsNull("value"));
     }
 
-    map.put(key, value);
+    // the check of TemplateObjectStore before storing is not atomic with it
+    if (map.putIfAbsent(key, value) != null) {
+      throw new ObjectAlreadyExistsException();
+    }
   }
 
   @Override
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.streaming.object;
+
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.extension.api.ExtensionConstants.DEFAULT_OBJECT_STREAMING_BUFFER_SIZE;
+import org.mule.runtime.api.streaming.object.CursorIterator;
+
+/**
+ * Configuration for a {@link CursorIterator} which uses memory and a local file for buffering
+ *
+ * @since 4.0
+ */
+public final class FileStoreCursorIteratorConfig {
+
+  /**
+   * The maximum amount of buckets held in memory by default
+   */
+  public static final int DEFAULT_MAX_IN_MEMORY_BUCKETS = 10;
+
+  private final int bucketSize;
+  private final int maxInMemoryBuckets;
+
+  /**
+   * @return A new instance configured with default settings
+   */
+  public static FileStoreCursorIteratorConfig getDefault() {
+    return new FileStoreCursorIteratorConfig(DEFAULT_OBJECT_STREAMING_BUFFER_SIZE, DEFAULT_MAX_IN_MEMORY_BUCKETS);
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param bucketSize         the amount of instances grouped in each bucket
+   * @param maxInMemoryBuckets the maximum amount of buckets to be held in memory
+   */
+  public FileStoreCursorIteratorConfig(int bucketSize, int maxInMemoryBuckets) {
+    checkArgument(bucketSize > 0, "bucketSize must be greater than zero");
+    checkArgument(maxInMemoryBuckets > 0, "maxInMemoryBuckets must be greater than zero");
+
+    this.bucketSize = bucketSize;
+    this.maxInMemoryBuckets = maxInMemoryBuckets;
+  }
+
+  /**
+   * @return The amount of instances grouped in each bucket
+   */
+  public int getBucketSize() {
+    return bucketSize;
+  }
+
+  /**
+   * @return The maximum amount of buckets to be held in memory
+   */
+  public int getMaxInMemoryBuckets() {
+    return maxInMemoryBuckets;
+  }
+}
@@ -18,6 +18,8 @@ import static org.mule.runtime.core.api.el.ExpressionManager.DEFAULT_EXPRESSION_
 import org.mule.runtime.api.metadata.DataType;
 import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.core.api.InternalEvent;
+import org.mule.runtime.core.api.el.CompiledExpression;
+import org.mule.runtime.core.api.el.CompiledTemplate;
 import org.mule.runtime.core.api.el.ExtendedExpressionManager;
 
 import java.io.InputStream;
@@ -38,7 +40,11 @@ public class AttributeEvaluator {
       asList(Object.class, InputStream.class, Iterator.class, Serializable.class);
 
   private String attributeValue;
+  private final AttributeType attributeType;
   private ExtendedExpressionManager expressionManager;
+  // null if the expression manager doesn't provide a compiled form, the value is evaluated through the manager then
+  private CompiledExpression compiledExpression;
+  private CompiledTemplate compiledTemplate;
   private Function<InternalEvent, TypedValue> expressionResolver;
 
   /**
@@ -61,26 +67,44 @@ public class AttributeEvaluator {
    */
   public AttributeEvaluator(String attributeValue, DataType expectedDataType) {
     this.attributeValue = sanitize(attributeValue);
+    this.attributeType = resolveAttributeType();
 
-    switch (resolveAttributeType()) {
+    switch (attributeType) {
       case EXPRESSION:
         if (!(expectedDataType == null || BLACK_LIST_TYPES.contains(expectedDataType.getType()))) {
-          expressionResolver =
-              event -> expressionManager.evaluate(this.attributeValue, expectedDataType, NULL_BINDING_CONTEXT, event);
+          expressionResolver = event -> compiledExpression != null
+              ? compiledExpression.evaluate(expectedDataType, NULL_BINDING_CONTEXT, event)
+              : expressionManager.evaluate(this.attributeValue, expectedDataType, NULL_BINDING_CONTEXT, event);
         } else {
-          expressionResolver = event -> expressionManager.evaluate(this.attributeValue, event);
+          expressionResolver = event -> compiledExpression != null
+              ? compiledExpression.evaluate(event)
+              : expressionManager.evaluate(this.attributeValue, event);
         }
         break;
       case PARSE_EXPRESSION:
-        expressionResolver = event -> new TypedValue<>(expressionManager.parse(this.attributeValue, event, null), STRING);
+        expressionResolver = event -> new TypedValue<>(compiledTemplate != null
+            ? compiledTemplate.parse(event, null)
+            : expressionManager.parse(this.attributeValue, event, null), STRING);
         break;
       case STATIC_VALUE:
         expressionResolver = event -> new TypedValue<>(this.attributeValue, this.attributeValue == null ? OBJECT : STRING);
     }
   }
 
+  /**
+   * Compiles the attribute value with the given {@link ExtendedExpressionManager}, if it's an expression or a template, so that
+   * resolving it doesn't need to parse it again.
+   *
+   * @param expressionManager the manager to evaluate the attribute value with
+   * @return this evaluator
+   */
   public AttributeEvaluator initialize(final ExtendedExpressionManager expressionManager) {
     this.expressionManager = expressionManager;
+    if (attributeType == AttributeType.EXPRESSION) {
+      compiledExpression = expressionManager.compile(attributeValue);
+    } else if (attributeType == AttributeType.PARSE_EXPRESSION) {
+      compiledTemplate = expressionManager.compileTemplate(attributeValue);
+    }
     return this;
   }
 
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.util;
+
+import java.util.List;
+
+/**
+ * A template already split by a {@link TemplateParser} into its literal parts and its place holders, so that it can be rendered
+ * many times without matching it again.
+ * <p>
+ * Rendering only appends the literal parts and the values of the place holders to a buffer, which is reused by the calling
+ * thread between renders.
+ *
+ * @since 4.0
+ */
+public final class ParsedTemplate {
+
+  private static final String NULL_AS_STRING = "null";
+  private static final int ESTIMATED_VALUE_LENGTH = 16;
+  private static final int MAX_REUSED_BUFFER_CAPACITY = 8 * 1024;
+
+  private static final ThreadLocal<StringBuilder> BUFFER = new ThreadLocal<>();
+
+  private final String template;
+  private final String[] literals;
+  private final String[] tokens;
+  private final String[] placeHolders;
+  private final int estimatedLength;
+
+  /**
+   * Creates a new instance from the parts of a template.
+   *
+   * @param template the whole template
+   * @param literals the literal parts of the template, one more than the place holders
+   * @param tokens the names of the place holders
+   * @param placeHolders the place holders, as they appear in the template
+   */
+  ParsedTemplate(String template, List<String> literals, List<String> tokens, List<String> placeHolders) {
+    this.template = template;
+    this.literals = literals.toArray(new String[literals.size()]);
+    this.tokens = tokens.toArray(new String[tokens.size()]);
+    this.placeHolders = placeHolders.toArray(new String[placeHolders.size()]);
+
+    int literalsLength = 0;
+    for (String literal : this.literals) {
+      literalsLength += literal.length();
+    }
+    this.estimatedLength = literalsLength + ESTIMATED_VALUE_LENGTH * this.tokens.length;
+  }
+
+  /**
+   * @return the template that was parsed
+   */
+  public String getTemplate() {
+    return template;
+  }
+
+  /**
+   * @return the number of place holders in the template
+   */
+  public int getTokenCount() {
+    return tokens.length;
+  }
+
+  /**
+   * @param index the position of the place holder in the template
+   * @return the name of the place holder, without the delimiters of the template style
+   */
+  public String getToken(int index) {
+    return tokens[index];
+  }
+
+  /**
+   * Renders the template replacing each place holder with the value returned by the given resolver. A {@code null} value is
+   * rendered as {@code "null"}.
+   *
+   * @param resolver provides the value for each place holder
+   * @return the rendered template
+   */
+  public String render(PlaceHolderResolver resolver) {
+    return render(resolver, false);
+  }
+
+  /**
+   * Renders the template into the given buffer, replacing each place holder with the value returned by the given resolver. A
+   * {@code null} value is rendered as {@code "null"}.
+   *
+   * @param resolver provides the value for each place holder
+   * @param buffer where to append the rendered template
+   */
+  public void renderTo(PlaceHolderResolver resolver, StringBuilder buffer) {
+    renderTo(resolver, false, buffer);
+  }
+
+  /**
+   * @param keepUnresolved whether a place holder whose value is {@code null} should be kept as is in the result
+   */
+  String render(PlaceHolderResolver resolver, boolean keepUnresolved) {
+    if (tokens.length == 0) {
+      return literals[0];
+    }
+
+    StringBuilder buffer = BUFFER.get();
+    if (buffer == null) {
+      buffer = new StringBuilder(estimatedLength);
+    } else {
+      // the buffer is taken while rendering in case a place holder renders another template
+      BUFFER.set(null);
+      buffer.setLength(0);
+    }
+
+    try {
+      renderTo(resolver, keepUnresolved, buffer);
+      return buffer.toString();
+    } finally {
+      if (buffer.capacity() <= MAX_REUSED_BUFFER_CAPACITY) {
+        BUFFER.set(buffer);
+      }
+    }
+  }
+
+  private void renderTo(PlaceHolderResolver resolver, boolean keepUnresolved, StringBuilder buffer) {
+    buffer.append(literals[0]);
+    for (int i = 0; i < tokens.length; ++i) {
+      Object value = resolver.resolve(i);
+      if (value != null) {
+        buffer.append(value);
+      } else {
+        buffer.append(keepUnresolved ? placeHolders[i] : NULL_AS_STRING);
+      }
+      buffer.append(literals[i + 1]);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return template;
+  }
+
+  /**
+   * Provides the values of the place holders of a {@link ParsedTemplate} when it's rendered.
+   */
+  @FunctionalInterface
+  public interface PlaceHolderResolver {
+
+    /**
+     * @param index the position of the place holder in the template, as in {@link ParsedTemplate#getToken(int)}
+     * @return the value to render in place of the place holder
+     */
+    Object resolve(int index);
+  }
+}
@@ -25,7 +25,6 @@ public final class TemplateParser {
   public static final String SQUARE_TEMPLATE_STYLE = "square";
   public static final String CURLY_TEMPLATE_STYLE = "curly";
   public static final String WIGGLY_MULE_TEMPLATE_STYLE = "mule";
-  private static final String NULL_AS_STRING = "null";
 
   private static final Map<String, PatternInfo> patterns = new HashMap<>();
 
@@ -103,58 +102,53 @@ public final class TemplateParser {
   }
 
   protected String parse(Map<?, ?> props, String template, TemplateCallback callback) {
-    String result = template;
-    Map<?, ?> newProps = props;
-    if (props != null && !(props instanceof CaseInsensitiveHashMap)) {
-      newProps = new CaseInsensitiveHashMap(props);
+    ParsedTemplate parsedTemplate = tokenize(template);
+    if (parsedTemplate.getTokenCount() == 0) {
+      return template;
     }
 
-    Matcher m = pattern.matcher(result);
-
-    while (m.find()) {
-      Object value = null;
-
-      String match = m.group();
-      String propname = match.substring(pre, match.length() - post);
-
-      if (callback != null) {
-        value = callback.match(propname);
-        if (value == null) {
-          value = NULL_AS_STRING;
-        }
-      } else if (newProps != null) {
-        value = newProps.get(propname);
-      }
-
-      if (value == null) {
-        if (logger.isDebugEnabled()) {
-          logger.debug("Value " + propname + " not found in context");
-        }
-      } else {
-        String matchRegex = Pattern.quote(match);
-        String valueString = value.toString();
-        valueString = replaceBackSlash(valueString);
-        valueString = replaceDollarSign(valueString);
-
-        result = result.replaceAll(matchRegex, valueString);
-      }
+    if (callback != null) {
+      return parsedTemplate.render(index -> callback.match(parsedTemplate.getToken(index)));
     }
-    return result;
-  }
 
-  private String replaceDollarSign(String valueString) {
-    if (valueString.indexOf('$') != -1) {
-      valueString = valueString.replace("$", "\\$");
+    Map<?, ?> newProps = props;
+    if (props != null && !(props instanceof CaseInsensitiveHashMap)) {
+      newProps = new CaseInsensitiveHashMap(props);
     }
-    return valueString;
+    final Map<?, ?> values = newProps;
+    return parsedTemplate.render(index -> {
+      String propname = parsedTemplate.getToken(index);
+      Object value = values != null ? values.get(propname) : null;
+      if (value == null && logger.isDebugEnabled()) {
+        logger.debug("Value " + propname + " not found in context");
+      }
+      return value;
+    }, true);
   }
 
-  private String replaceBackSlash(String valueString) {
+  /**
+   * Splits a template into its literal parts and its place holders, so that it can be rendered many times without matching it
+   * again.
+   *
+   * @param template the string containing the template place holders i.e. My name is ${name}
+   * @return the parsed template
+   */
+  public ParsedTemplate tokenize(String template) {
+    List<String> literals = new ArrayList<>();
+    List<String> tokens = new ArrayList<>();
+    List<String> placeHolders = new ArrayList<>();
+    Matcher m = pattern.matcher(template);
+    int literalStart = 0;
 
-    if (valueString.indexOf("\\") != -1) {
-      valueString = valueString.replace("\\", "\\\\");
+    while (m.find()) {
+      String match = m.group();
+      literals.add(template.substring(literalStart, m.start()));
+      tokens.add(match.substring(pre, match.length() - post));
+      placeHolders.add(match);
+      literalStart = m.end();
     }
-    return valueString;
+    literals.add(template.substring(literalStart));
+    return new ParsedTemplate(template, literals, tokens, placeHolders);
   }
 
   /**
@@ -6,7 +6,9 @@
  */
 package org.mule.runtime.core.api.util.compression;
 
-import static org.apache.commons.io.IOUtils.copy;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static org.apache.commons.io.IOUtils.copyLarge;
 import static org.mule.runtime.core.api.util.IOUtils.closeQuietly;
 
 import org.mule.runtime.core.internal.transformer.compression.GZIPCompressorInputStream;
@@ -28,6 +30,14 @@ public class GZipCompression implements CompressionStrategy {
 
   public static final int DEFAULT_BUFFER_SIZE = 32768;
 
+  // GZIP header and trailer lengths.
+  private static final int GZIP_MIN_LENGTH = 18;
+  // Deflate can't compress data by a factor greater than this.
+  private static final int MAX_DEFLATE_RATIO = 1032;
+  // Bounds the memory allocated upfront from the size in the trailer, larger data grows the buffer as it's uncompressed.
+  private static final int MAX_PREALLOCATION_RATIO = 8;
+  private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
   /**
    * The logger for this class
    */
@@ -99,7 +109,7 @@ public class GZipCompression implements CompressionStrategy {
   }
 
   public InputStream compressInputStream(InputStream is) throws IOException {
-    return new GZIPCompressorInputStream(is);
+    return new GZIPCompressorInputStream(is, DEFAULT_BUFFER_SIZE);
   }
 
   /**
@@ -125,19 +135,18 @@ public class GZipCompression implements CompressionStrategy {
 
     ByteArrayInputStream bais = null;
     GZIPInputStream gzis = null;
-    ByteArrayOutputStream baos = null;
+    UncompressedByteArrayOutputStream baos = null;
 
     try {
       bais = new ByteArrayInputStream(bytes);
-      gzis = new GZIPInputStream(bais);
-      baos = new ByteArrayOutputStream(DEFAULT_BUFFER_SIZE);
+      gzis = new GZIPInputStream(bais, DEFAULT_BUFFER_SIZE);
+      baos = new UncompressedByteArrayOutputStream(getUncompressedSizeHint(bytes));
 
-      copy(gzis, baos);
+      copyLarge(gzis, baos, new byte[DEFAULT_BUFFER_SIZE]);
       gzis.close();
       bais.close();
 
-      byte[] uncompressedByteArray = baos.toByteArray();
-      baos.close();
+      byte[] uncompressedByteArray = baos.getBytes();
 
       if (logger.isDebugEnabled()) {
         logger.debug("Uncompressed message to size: " + uncompressedByteArray.length);
@@ -149,12 +158,48 @@ public class GZipCompression implements CompressionStrategy {
     } finally {
       closeQuietly(gzis);
       closeQuietly(bais);
-      closeQuietly(baos);
     }
   }
 
+  /**
+   * Reads the size of the uncompressed data from the trailer of the last GZIP member, so that it can be uncompressed into an
+   * array of the right size. The trailer only holds the size modulo 2^32, and doesn't account for previous members, so the
+   * value is only used if it's possible for the given data. Even then, it's capped to a few times the size of the data, as the
+   * trailer may have been crafted.
+   *
+   * @param bytes a GZIP compressed byte array
+   * @return the size to allocate for the uncompressed data, or {@link #DEFAULT_BUFFER_SIZE} if it can't be trusted
+   */
+  private int getUncompressedSizeHint(byte[] bytes) {
+    if (bytes.length < GZIP_MIN_LENGTH) {
+      return DEFAULT_BUFFER_SIZE;
+    }
+
+    int end = bytes.length;
+    long size = (bytes[end - 4] & 0xFFL) | (bytes[end - 3] & 0xFFL) << 8 | (bytes[end - 2] & 0xFFL) << 16
+        | (bytes[end - 1] & 0xFFL) << 24;
+    if (size == 0 || size > (long) MAX_DEFLATE_RATIO * bytes.length || size > MAX_ARRAY_SIZE) {
+      return DEFAULT_BUFFER_SIZE;
+    }
+    return (int) min(size, max((long) MAX_PREALLOCATION_RATIO * bytes.length, DEFAULT_BUFFER_SIZE));
+  }
+
   public InputStream uncompressInputStream(InputStream is) throws IOException {
-    return new GZIPInputStream(is);
+    return new GZIPInputStream(is, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * A {@link java.io.ByteArrayOutputStream} that hands out its buffer without copying it when it was sized exactly.
+   */
+  private static final class UncompressedByteArrayOutputStream extends java.io.ByteArrayOutputStream {
+
+    UncompressedByteArrayOutputStream(int size) {
+      super(size);
+    }
+
+    byte[] getBytes() {
+      return count == buf.length ? buf : toByteArray();
+    }
   }
 
 }
@@ -6,19 +6,18 @@
  */
 package org.mule.runtime.core.el;
 
-import static org.mule.runtime.api.el.BindingContextUtils.FLOW;
+import static java.lang.Integer.getInteger;
 import static org.mule.runtime.api.el.BindingContextUtils.PAYLOAD;
-import static org.mule.runtime.api.el.BindingContextUtils.addEventBindings;
 import static org.mule.runtime.api.metadata.DataType.fromType;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.expressionEvaluationFailed;
 import static org.mule.runtime.core.api.el.ExpressionManager.DEFAULT_EXPRESSION_POSTFIX;
 import static org.mule.runtime.core.api.el.ExpressionManager.DEFAULT_EXPRESSION_PREFIX;
 import static org.mule.runtime.core.el.DefaultExpressionManager.DW_PREFIX;
 import static org.mule.runtime.core.el.DefaultExpressionManager.PREFIX_EXPR_SEPARATOR;
+import static org.mule.runtime.core.el.LazyEventBindingContext.referencedEventBindings;
 
 import org.mule.runtime.api.component.location.ComponentLocation;
 import org.mule.runtime.api.el.BindingContext;
-import org.mule.runtime.api.el.BindingContext.Builder;
 import org.mule.runtime.api.el.DefaultExpressionLanguageFactoryService;
 import org.mule.runtime.api.el.ExpressionExecutionException;
 import org.mule.runtime.api.el.ExpressionLanguage;
@@ -37,18 +36,28 @@ import org.mule.runtime.core.el.context.MuleInstanceContext;
 import org.mule.runtime.core.el.context.ServerContext;
 
 import java.util.Iterator;
+import java.util.Set;
 import java.util.function.Function;
 
 import javax.inject.Inject;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
 public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLanguageAdaptor {
 
   public static final String SERVER = "server";
   public static final String MULE = "mule";
   public static final String APP = "app";
 
+  private static final int PREPARED_EXPRESSIONS_CACHE_SIZE =
+      getInteger(DataWeaveExpressionLanguageAdaptor.class.getName() + ".PREPARED_EXPRESSIONS_CACHE_SIZE", 1000);
+
   private ExpressionLanguage expressionExecutor;
   private MuleContext muleContext;
+  private final LoadingCache<String, DataWeavePreparedExpression> preparedExpressions = CacheBuilder.newBuilder()
+      .maximumSize(PREPARED_EXPRESSIONS_CACHE_SIZE).build(CacheLoader.from(DataWeavePreparedExpression::new));
 
   public static DataWeaveExpressionLanguageAdaptor create(MuleContext muleContext) {
     try {
@@ -89,24 +98,13 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
 
   @Override
   public TypedValue evaluate(String expression, InternalEvent event, BindingContext context) {
-    String sanitized = sanitize(expression);
-    if (isPayloadExpression(sanitized)) {
-      return event.getMessage().getPayload();
-    } else {
-      BindingContext.Builder contextBuilder = bindingContextBuilderFor(null, event, context);
-      return evaluate(sanitized, exp -> expressionExecutor.evaluate(exp, contextBuilder.build()));
-    }
-  }
-
-  private boolean isPayloadExpression(String sanitized) {
-    return sanitized.equals(PAYLOAD);
+    return preparedExpressions.getUnchecked(expression).evaluate(event, null, null, context);
   }
 
   @Override
   public TypedValue evaluate(String expression, DataType expectedOutputType, InternalEvent event, BindingContext context)
       throws ExpressionRuntimeException {
-    BindingContext.Builder contextBuilder = bindingContextBuilderFor(null, event, context);
-    return sanitizeAndEvaluate(expression, exp -> expressionExecutor.evaluate(exp, expectedOutputType, contextBuilder.build()));
+    return preparedExpressions.getUnchecked(expression).evaluate(expectedOutputType, event, null, context, false);
   }
 
   @Override
@@ -114,8 +112,8 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
                              ComponentLocation componentLocation,
                              BindingContext context, boolean failOnNull)
       throws ExpressionRuntimeException {
-    BindingContext.Builder contextBuilder = bindingContextBuilderFor(componentLocation, event, context);
-    return sanitizeAndEvaluate(expression, exp -> expressionExecutor.evaluate(exp, expectedOutputType, contextBuilder.build()));
+    return preparedExpressions.getUnchecked(expression).evaluate(expectedOutputType, event, componentLocation, context,
+                                                                 failOnNull);
   }
 
   @Override
@@ -128,14 +126,18 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
   public TypedValue evaluate(String expression, InternalEvent event, InternalEvent.Builder eventBuilder,
                              ComponentLocation componentLocation,
                              BindingContext context) {
-    String sanitized = sanitize(expression);
-    if (isPayloadExpression(sanitized)) {
-      return event != null ? event.getMessage().getPayload()
-          : context != null ? context.lookup(PAYLOAD).orElse(null) : null;
-    } else {
-      BindingContext.Builder contextBuilder = bindingContextBuilderFor(componentLocation, event, context);
-      return evaluate(sanitized, exp -> expressionExecutor.evaluate(exp, contextBuilder.build()));
-    }
+    return preparedExpressions.getUnchecked(expression).evaluate(event, eventBuilder, componentLocation, context);
+  }
+
+  /**
+   * Prepares the given expression to be evaluated many times. Unlike the evaluation methods, the result is not cached, so it's
+   * meant to be kept by the caller.
+   *
+   * @param expression the expression to prepare
+   * @return the prepared expression
+   */
+  PreparedExpression prepare(String expression) {
+    return new DataWeavePreparedExpression(expression);
   }
 
   @Override
@@ -147,15 +149,15 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
   public Iterator<TypedValue<?>> split(String expression, InternalEvent event, ComponentLocation componentLocation,
                                        BindingContext bindingContext)
       throws ExpressionRuntimeException {
-    BindingContext.Builder contextBuilder = bindingContextBuilderFor(componentLocation, event, bindingContext);
-    return sanitizeAndEvaluate(expression, exp -> expressionExecutor.split(exp, contextBuilder.build()));
+    DataWeavePreparedExpression prepared = preparedExpressions.getUnchecked(expression);
+    return evaluate(prepared.expression, exp -> expressionExecutor
+        .split(exp, prepared.bindingContextFor(componentLocation, event, bindingContext)));
   }
 
   @Override
   public Iterator<TypedValue<?>> split(String expression, InternalEvent event, BindingContext bindingContext)
       throws ExpressionRuntimeException {
-    BindingContext.Builder contextBuilder = bindingContextBuilderFor(null, event, bindingContext);
-    return sanitizeAndEvaluate(expression, exp -> expressionExecutor.split(exp, contextBuilder.build()));
+    return split(expression, event, null, bindingContext);
   }
 
   @Override
@@ -173,18 +175,13 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
   }
 
   /**
-   * Sanitizes the expression by removing the expression brackets and then evaluates it, handling any exceptions accordingly. All
-   * evaluations should be done in this way.
+   * Evaluates the sanitized expression, handling any exceptions accordingly. All evaluations should be done in this way.
    *
-   * @param expression the expression to sanitize before running
+   * @param expression the expression, without the expression brackets
    * @param evaluation the function to evaluate the expression with
    * @param <T> the type that the function returns
    * @return the result of the evaluation
    */
-  private <T> T sanitizeAndEvaluate(String expression, Function<String, T> evaluation) {
-    return evaluate(sanitize(expression), evaluation);
-  }
-
   private <T> T evaluate(String expression, Function<String, T> evaluation) {
     try {
       return evaluation.apply(expression);
@@ -193,21 +190,6 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
     }
   }
 
-  private BindingContext.Builder bindingContextBuilderFor(ComponentLocation componentLocation, InternalEvent event,
-                                                          BindingContext context) {
-    Builder contextBuilder;
-    if (event != null) {
-      contextBuilder = BindingContext.builder(addEventBindings(event, context));
-    } else {
-      contextBuilder = BindingContext.builder(context);
-    }
-    if (componentLocation != null) {
-      contextBuilder.addBinding(FLOW, new TypedValue<>(new FlowVariablesAccessor(componentLocation.getRootContainerName()),
-                                                       fromType(FlowVariablesAccessor.class)));
-    }
-    return contextBuilder;
-  }
-
   private String sanitize(String expression) {
     String sanitizedExpression = expression.startsWith(DEFAULT_EXPRESSION_PREFIX)
         ? expression.substring(DEFAULT_EXPRESSION_PREFIX.length(), expression.length() - DEFAULT_EXPRESSION_POSTFIX.length())
@@ -219,6 +201,55 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
     return sanitizedExpression;
   }
 
+  /**
+   * An expression already sanitized, along with the event bindings it references.
+   */
+  private class DataWeavePreparedExpression implements PreparedExpression {
+
+    private final String expression;
+    private final boolean payloadExpression;
+    private final Set<String> eventBindings;
+
+    DataWeavePreparedExpression(String expression) {
+      this.expression = sanitize(expression);
+      this.payloadExpression = this.expression.equals(PAYLOAD);
+      this.eventBindings = referencedEventBindings(this.expression);
+    }
+
+    @Override
+    public TypedValue evaluate(InternalEvent event, InternalEvent.Builder eventBuilder, ComponentLocation componentLocation,
+                               BindingContext context) {
+      if (payloadExpression) {
+        return event != null ? event.getMessage().getPayload()
+            : context != null ? context.lookup(PAYLOAD).orElse(null) : null;
+      } else {
+        return DataWeaveExpressionLanguageAdaptor.this
+            .evaluate(expression, exp -> expressionExecutor.evaluate(exp, bindingContextFor(componentLocation, event, context)));
+      }
+    }
+
+    @Override
+    public TypedValue evaluate(DataType expectedOutputType, InternalEvent event, ComponentLocation componentLocation,
+                               BindingContext context, boolean failOnNull) {
+      return DataWeaveExpressionLanguageAdaptor.this
+          .evaluate(expression, exp -> expressionExecutor
+              .evaluate(exp, expectedOutputType, bindingContextFor(componentLocation, event, context)));
+    }
+
+    /**
+     * Creates the context to evaluate the expression with. Only the event bindings that the expression references are exposed,
+     * and they are resolved when the expression looks them up.
+     */
+    private BindingContext bindingContextFor(ComponentLocation componentLocation, InternalEvent event, BindingContext context) {
+      TypedValue flowBinding = null;
+      if (componentLocation != null) {
+        flowBinding = new TypedValue<>(new FlowVariablesAccessor(componentLocation.getRootContainerName()),
+                                       fromType(FlowVariablesAccessor.class));
+      }
+      return new LazyEventBindingContext(event, context, flowBinding, eventBindings);
+    }
+  }
+
   private class FlowVariablesAccessor {
 
     private String name;
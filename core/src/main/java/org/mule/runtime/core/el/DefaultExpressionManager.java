@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.el;
 
+import static java.lang.Integer.getInteger;
 import static java.lang.String.format;
 import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
 import static org.mule.runtime.api.el.ValidationResult.failure;
@@ -29,11 +30,13 @@ import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.core.api.InternalEvent;
 import org.mule.runtime.core.api.InternalEvent.Builder;
 import org.mule.runtime.core.api.MuleContext;
-import org.mule.runtime.core.api.el.ExtendedExpressionLanguageAdaptor;
+import org.mule.runtime.core.api.el.CompiledExpression;
+import org.mule.runtime.core.api.el.CompiledTemplate;
 import org.mule.runtime.core.api.el.ExtendedExpressionManager;
 import org.mule.runtime.core.api.el.GlobalBindingContextProvider;
 import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
 import org.mule.runtime.core.api.transformer.TransformerException;
+import org.mule.runtime.core.api.util.ParsedTemplate;
 import org.mule.runtime.core.api.util.TemplateParser;
 import org.mule.runtime.core.el.mvel.MVELExpressionLanguage;
 import org.mule.runtime.core.internal.util.OneTimeWarning;
@@ -42,27 +45,36 @@ import org.mule.runtime.core.api.streaming.StreamingManager;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
 
 import javax.inject.Inject;
 
 import org.slf4j.Logger;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
 public class DefaultExpressionManager implements ExtendedExpressionManager, Initialisable {
 
   public static final String DW_PREFIX = "dw";
   public static final String MEL_PREFIX = "mel";
   public static final String PREFIX_EXPR_SEPARATOR = ":";
   private static final Logger LOGGER = getLogger(DefaultExpressionManager.class);
+  private static final int COMPILED_TEMPLATES_CACHE_SIZE =
+      getInteger(DefaultExpressionManager.class.getName() + ".COMPILED_TEMPLATES_CACHE_SIZE", 1000);
 
   private final OneTimeWarning parseWarning = new OneTimeWarning(LOGGER,
                                                                  "Expression parsing is deprecated, regular evaluations should be used instead.");
 
   private final MuleContext muleContext;
   private final StreamingManager streamingManager;
-  private final ExtendedExpressionLanguageAdaptor expressionLanguage;
+  private final ExpressionLanguageAdaptorHandler expressionLanguage;
   // Default style parser
   private final TemplateParser parser = TemplateParser.createMuleStyleParser();
   private final boolean melDefault;
+  private final LoadingCache<String, CompiledTemplate> compiledTemplates = CacheBuilder.newBuilder()
+      .maximumSize(COMPILED_TEMPLATES_CACHE_SIZE).build(CacheLoader.from(this::doCompileTemplate));
 
 
   @Inject
@@ -72,7 +84,7 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
     final DataWeaveExpressionLanguageAdaptor dwExpressionLanguage = DataWeaveExpressionLanguageAdaptor.create(muleContext);
     final MVELExpressionLanguage mvelExpressionLanguage = muleContext.getRegistry().lookupObject(OBJECT_EXPRESSION_LANGUAGE);
     this.expressionLanguage = new ExpressionLanguageAdaptorHandler(dwExpressionLanguage, mvelExpressionLanguage);
-    this.melDefault = ((ExpressionLanguageAdaptorHandler) expressionLanguage).isMelDefault();
+    this.melDefault = expressionLanguage.isMelDefault();
   }
 
   @Override
@@ -219,62 +231,71 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
   @Override
   public String parse(String expression, InternalEvent event, ComponentLocation componentLocation)
       throws ExpressionRuntimeException {
-    Builder eventBuilder = InternalEvent.builder(event);
-    parseWarning.warn();
-    if (hasMelExpression(expression) || melDefault) {
-      return parser.parse(token -> {
-        Object result = evaluate(token, event, eventBuilder, componentLocation).getValue();
-        if (result instanceof Message) {
-          return ((Message) result).getPayload().getValue();
-        } else {
-          return result;
+    return compiledTemplates.getUnchecked(expression).parse(event, componentLocation);
+  }
+
+  @Override
+  public CompiledExpression compile(String expression) {
+    return new DefaultCompiledExpression(expression, expressionLanguage.prepare(expression));
+  }
+
+  /**
+   * Parses the template once, so that resolving it only evaluates its expressions. The compiled templates are cached by
+   * {@link #parse(String, InternalEvent, ComponentLocation)}, so {@link #compileTemplate(String)} is left to delegate to it.
+   */
+  private CompiledTemplate doCompileTemplate(String template) {
+    BiFunction<InternalEvent, ComponentLocation, String> resolver;
+    if (hasMelExpression(template) || melDefault) {
+      resolver = compileTemplateTokens(template);
+    } else if (isExpression(template)) {
+      PreparedExpression expression = expressionLanguage.prepare(template);
+      resolver = (event, componentLocation) -> {
+        TypedValue evaluation = updateTypedValueForStreaming(expression.evaluate(event, InternalEvent.builder(event),
+                                                                                 componentLocation, NULL_BINDING_CONTEXT),
+                                                             event, streamingManager);
+        try {
+          return (String) transform(evaluation, evaluation.getDataType(), STRING).getValue();
+        } catch (TransformerException e) {
+          throw new ExpressionRuntimeException(createStaticMessage(format("Failed to transform %s to %s.",
+                                                                          evaluation.getDataType(), STRING)),
+                                               e);
         }
-      }, expression);
-    } else if (isExpression(expression)) {
-      TypedValue evaluation = evaluate(expression, event, eventBuilder, componentLocation);
-      try {
-        return (String) transform(evaluation, evaluation.getDataType(), STRING).getValue();
-      } catch (TransformerException e) {
-        throw new ExpressionRuntimeException(createStaticMessage(format("Failed to transform %s to %s.", evaluation.getDataType(),
-                                                                        STRING)),
-                                             e);
-      }
+      };
     } else {
-      if (LOGGER.isDebugEnabled()) {
-        LOGGER.debug(String.format("No expression marker found in expression '%s'. Parsing as plain String.", expression));
-      }
-      return expression;
+      resolver = (event, componentLocation) -> {
+        if (LOGGER.isDebugEnabled()) {
+          LOGGER.debug(String.format("No expression marker found in expression '%s'. Parsing as plain String.", template));
+        }
+        return template;
+      };
     }
+    return new DefaultCompiledTemplate(template, resolver);
   }
 
-  private String parse(String expression, InternalEvent event, InternalEvent.Builder eventBuilder,
-                       ComponentLocation componentLocation)
-      throws ExpressionRuntimeException {
-    parseWarning.warn();
-    if (hasMelExpression(expression) || melDefault) {
-      return parser.parse(token -> {
-        Object result = evaluate(token, event, eventBuilder, componentLocation).getValue();
-        if (result instanceof Message) {
-          return ((Message) result).getPayload().getValue();
+  /**
+   * Parses the template once, so that resolving it only evaluates each of its expressions and renders the results along with
+   * the literal parts.
+   */
+  private BiFunction<InternalEvent, ComponentLocation, String> compileTemplateTokens(String template) {
+    ParsedTemplate parsedTemplate = parser.tokenize(template);
+    PreparedExpression[] tokens = new PreparedExpression[parsedTemplate.getTokenCount()];
+    for (int i = 0; i < tokens.length; ++i) {
+      tokens[i] = expressionLanguage.prepare(parsedTemplate.getToken(i));
+    }
+
+    return (event, componentLocation) -> {
+      Builder eventBuilder = InternalEvent.builder(event);
+      return parsedTemplate.render(index -> {
+        Object value = updateTypedValueForStreaming(tokens[index].evaluate(event, eventBuilder, componentLocation,
+                                                                           NULL_BINDING_CONTEXT),
+                                                    event, streamingManager).getValue();
+        if (value instanceof Message) {
+          return ((Message) value).getPayload().getValue();
         } else {
-          return result;
+          return value;
         }
-      }, expression);
-    } else if (isExpression(expression)) {
-      TypedValue evaluation = evaluate(expression, event, eventBuilder, componentLocation);
-      try {
-        return (String) transform(evaluation, evaluation.getDataType(), STRING).getValue();
-      } catch (TransformerException e) {
-        throw new ExpressionRuntimeException(createStaticMessage(format("Failed to transform %s to %s.", evaluation.getDataType(),
-                                                                        STRING)),
-                                             e);
-      }
-    } else {
-      if (LOGGER.isDebugEnabled()) {
-        LOGGER.debug(String.format("No expression marker found in expression '%s'. Parsing as plain String.", expression));
-      }
-      return expression;
-    }
+      });
+    };
   }
 
   @Override
@@ -342,6 +363,78 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
     return expressionLanguage.split(expression, null, context);
   }
 
+  private class DefaultCompiledExpression implements CompiledExpression {
+
+    private final String expression;
+    private final PreparedExpression preparedExpression;
+
+    DefaultCompiledExpression(String expression, PreparedExpression preparedExpression) {
+      this.expression = expression;
+      this.preparedExpression = preparedExpression;
+    }
+
+    @Override
+    public String getExpression() {
+      return expression;
+    }
+
+    @Override
+    public TypedValue evaluate(InternalEvent event) {
+      return evaluate(event, null, NULL_BINDING_CONTEXT);
+    }
+
+    @Override
+    public TypedValue evaluate(InternalEvent event, ComponentLocation componentLocation, BindingContext context) {
+      return updateTypedValueForStreaming(preparedExpression.evaluate(event, InternalEvent.builder(event), componentLocation,
+                                                                      context),
+                                          event, streamingManager);
+    }
+
+    @Override
+    public TypedValue evaluate(DataType outputType, BindingContext context, InternalEvent event) {
+      return evaluate(outputType, context, event, null, false);
+    }
+
+    @Override
+    public TypedValue evaluate(DataType outputType, BindingContext context, InternalEvent event,
+                               ComponentLocation componentLocation, boolean failOnNull) {
+      return updateTypedValueForStreaming(preparedExpression.evaluate(outputType, event, componentLocation, context, failOnNull),
+                                          event, streamingManager);
+    }
+
+    @Override
+    public String toString() {
+      return expression;
+    }
+  }
+
+  private class DefaultCompiledTemplate implements CompiledTemplate {
+
+    private final String template;
+    private final BiFunction<InternalEvent, ComponentLocation, String> resolver;
+
+    DefaultCompiledTemplate(String template, BiFunction<InternalEvent, ComponentLocation, String> resolver) {
+      this.template = template;
+      this.resolver = resolver;
+    }
+
+    @Override
+    public String getTemplate() {
+      return template;
+    }
+
+    @Override
+    public String parse(InternalEvent event, ComponentLocation componentLocation) {
+      parseWarning.warn();
+      return resolver.apply(event, componentLocation);
+    }
+
+    @Override
+    public String toString() {
+      return template;
+    }
+  }
+
   /**
    * Checks if an expression has MEL prefix.
    * 
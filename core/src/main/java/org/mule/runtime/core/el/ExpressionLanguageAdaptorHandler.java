@@ -136,6 +136,35 @@ public class ExpressionLanguageAdaptorHandler implements ExtendedExpressionLangu
     return selectExpressionLanguage(expression).split(expression, event, bindingContext);
   }
 
+  /**
+   * Selects the expression language for the given expression once, and prepares the expression to be evaluated by it many
+   * times.
+   *
+   * @param expression the expression to prepare
+   * @return the prepared expression
+   */
+  PreparedExpression prepare(String expression) {
+    ExtendedExpressionLanguageAdaptor expressionLanguage = selectExpressionLanguage(expression);
+    if (expressionLanguage instanceof DataWeaveExpressionLanguageAdaptor) {
+      return ((DataWeaveExpressionLanguageAdaptor) expressionLanguage).prepare(expression);
+    }
+
+    return new PreparedExpression() {
+
+      @Override
+      public TypedValue evaluate(InternalEvent event, InternalEvent.Builder eventBuilder, ComponentLocation componentLocation,
+                                 BindingContext context) {
+        return expressionLanguage.evaluate(expression, event, eventBuilder, componentLocation, context);
+      }
+
+      @Override
+      public TypedValue evaluate(DataType expectedOutputType, InternalEvent event, ComponentLocation componentLocation,
+                                 BindingContext context, boolean failOnNull) {
+        return expressionLanguage.evaluate(expression, expectedOutputType, event, componentLocation, context, failOnNull);
+      }
+    };
+  }
+
   private ExtendedExpressionLanguageAdaptor selectExpressionLanguage(String expression) {
     final String languagePrefix = getLanguagePrefix(expression);
     if (isEmpty(languagePrefix)) {
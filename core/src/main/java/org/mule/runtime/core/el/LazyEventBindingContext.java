@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.el;
+
+import static java.lang.Character.isJavaIdentifierPart;
+import static java.lang.Character.isJavaIdentifierStart;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.unmodifiableSet;
+import static java.util.Optional.of;
+import static java.util.stream.Collectors.toList;
+import static org.mule.runtime.api.el.BindingContextUtils.ATTRIBUTES;
+import static org.mule.runtime.api.el.BindingContextUtils.AUTHENTICATION;
+import static org.mule.runtime.api.el.BindingContextUtils.CORRELATION_ID;
+import static org.mule.runtime.api.el.BindingContextUtils.DATA_TYPE;
+import static org.mule.runtime.api.el.BindingContextUtils.ERROR;
+import static org.mule.runtime.api.el.BindingContextUtils.FLOW;
+import static org.mule.runtime.api.el.BindingContextUtils.MESSAGE;
+import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
+import static org.mule.runtime.api.el.BindingContextUtils.PARAMETERS;
+import static org.mule.runtime.api.el.BindingContextUtils.PAYLOAD;
+import static org.mule.runtime.api.el.BindingContextUtils.PROPERTIES;
+import static org.mule.runtime.api.el.BindingContextUtils.VARS;
+import static org.mule.runtime.api.el.BindingContextUtils.addEventBindings;
+
+import org.mule.runtime.api.el.Binding;
+import org.mule.runtime.api.el.BindingContext;
+import org.mule.runtime.api.el.ExpressionModule;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.core.api.InternalEvent;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * {@link BindingContext} with the same bindings as {@code addEventBindings(event, context)} plus the {@code flow} binding, but
+ * which only exposes the event bindings referenced by the expression to evaluate and resolves them when they are looked up.
+ * <p>
+ * {@code payload} and {@code attributes} are taken directly from the message. Any other event binding causes all of them to be
+ * built once, through {@link org.mule.runtime.api.el.BindingContextUtils#addEventBindings}, so their values are exactly the
+ * same as before.
+ *
+ * @since 4.0
+ */
+final class LazyEventBindingContext implements BindingContext {
+
+  private static final Set<String> EVENT_BINDINGS = unmodifiableSet(new HashSet<>(asList(PAYLOAD, ATTRIBUTES, DATA_TYPE,
+                                                                                         MESSAGE, VARS, PROPERTIES,
+                                                                                         PARAMETERS, ERROR, CORRELATION_ID,
+                                                                                         AUTHENTICATION)));
+
+  private final InternalEvent event;
+  private final BindingContext context;
+  private final TypedValue flowBinding;
+  private final Set<String> eventIdentifiers;
+  private BindingContext eventBindings;
+
+  /**
+   * @param event the event to take the bindings from, may be {@code null}
+   * @param context the bindings to expose along with the ones of the event
+   * @param flowBinding the value of the {@code flow} binding, or {@code null} if there's none
+   * @param eventIdentifiers the event bindings referenced by the expression, as returned by
+   *        {@link #referencedEventBindings(String)}
+   */
+  LazyEventBindingContext(InternalEvent event, BindingContext context, TypedValue flowBinding, Set<String> eventIdentifiers) {
+    this.event = event;
+    this.context = context != null ? context : NULL_BINDING_CONTEXT;
+    this.flowBinding = flowBinding;
+    this.eventIdentifiers = event != null ? eventIdentifiers : emptySet();
+  }
+
+  /**
+   * Finds the event bindings that the given expression may reference. Every token that looks like an identifier is taken into
+   * account, including the ones within strings or comments, so the result may contain bindings that are not actually used.
+   *
+   * @param expression a sanitized expression
+   * @return the names of the event bindings that appear in the expression
+   */
+  static Set<String> referencedEventBindings(String expression) {
+    Set<String> referenced = new HashSet<>();
+    int i = 0;
+    while (i < expression.length()) {
+      if (isJavaIdentifierStart(expression.charAt(i))) {
+        int start = i;
+        do {
+          i++;
+        } while (i < expression.length() && isJavaIdentifierPart(expression.charAt(i)));
+        String identifier = expression.substring(start, i);
+        if (EVENT_BINDINGS.contains(identifier)) {
+          referenced.add(identifier);
+        }
+      } else {
+        i++;
+      }
+    }
+    return referenced.isEmpty() ? emptySet() : unmodifiableSet(referenced);
+  }
+
+  @Override
+  public Collection<Binding> bindings() {
+    return identifiers().stream().map(identifier -> new Binding(identifier, lookup(identifier).get())).collect(toList());
+  }
+
+  @Override
+  public Collection<String> identifiers() {
+    Set<String> identifiers = new LinkedHashSet<>(context.identifiers());
+    for (String identifier : eventIdentifiers) {
+      if (lookupEventBinding(identifier).isPresent()) {
+        identifiers.add(identifier);
+      }
+    }
+    if (flowBinding != null) {
+      identifiers.add(FLOW);
+    }
+    return identifiers;
+  }
+
+  @Override
+  public Optional<TypedValue> lookup(String identifier) {
+    if (flowBinding != null && FLOW.equals(identifier)) {
+      return of(flowBinding);
+    }
+    if (eventIdentifiers.contains(identifier)) {
+      Optional<TypedValue> eventBinding = lookupEventBinding(identifier);
+      if (eventBinding.isPresent()) {
+        return eventBinding;
+      }
+    }
+    return context.lookup(identifier);
+  }
+
+  @Override
+  public Collection<ExpressionModule> modules() {
+    return context.modules();
+  }
+
+  private Optional<TypedValue> lookupEventBinding(String identifier) {
+    if (PAYLOAD.equals(identifier)) {
+      return of(event.getMessage().getPayload());
+    } else if (ATTRIBUTES.equals(identifier)) {
+      return of(event.getMessage().getAttributes());
+    }
+
+    if (eventBindings == null) {
+      eventBindings = addEventBindings(event, NULL_BINDING_CONTEXT);
+    }
+    return eventBindings.lookup(identifier);
+  }
+}
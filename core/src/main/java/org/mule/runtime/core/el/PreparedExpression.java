@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.el;
+
+import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.api.el.BindingContext;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.core.api.InternalEvent;
+import org.mule.runtime.core.api.el.ExtendedExpressionLanguageAdaptor;
+import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
+
+/**
+ * An expression bound to the {@link ExtendedExpressionLanguageAdaptor} that evaluates it, with the work that doesn't depend on
+ * the evaluation already done.
+ *
+ * @since 4.0
+ */
+interface PreparedExpression {
+
+  /**
+   * @see ExtendedExpressionLanguageAdaptor#evaluate(String, InternalEvent, InternalEvent.Builder, ComponentLocation,
+   *      BindingContext)
+   */
+  TypedValue evaluate(InternalEvent event, InternalEvent.Builder eventBuilder, ComponentLocation componentLocation,
+                      BindingContext context)
+      throws ExpressionRuntimeException;
+
+  /**
+   * @see ExtendedExpressionLanguageAdaptor#evaluate(String, DataType, InternalEvent, ComponentLocation, BindingContext,
+   *      boolean)
+   */
+  TypedValue evaluate(DataType expectedOutputType, InternalEvent event, ComponentLocation componentLocation,
+                      BindingContext context, boolean failOnNull)
+      throws ExpressionRuntimeException;
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+import static java.util.concurrent.locks.LockSupport.unpark;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.core.api.context.notification.Notification;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+
+/**
+ * Delivers asynchronous notifications from a single consumer thread, instead of submitting a task for each notification and
+ * listener.
+ * <p>
+ * Notifications are published into a {@link BoundedMpscRingBuffer} and the consumer delivers them in batches, only parking when
+ * the buffer is empty. When the buffer is full, publishers either wait for the consumer to make room or drop the notification,
+ * which is counted in {@link #getDroppedNotifications()}.
+ *
+ * @since 4.0
+ */
+public class BatchedNotificationDelivery implements Runnable {
+
+  private static final Logger LOGGER = getLogger(BatchedNotificationDelivery.class);
+
+  private static final int BATCH_SIZE = 256;
+  private static final long IDLE_PARK_NANOS = MILLISECONDS.toNanos(10);
+  private static final long FULL_BUFFER_PARK_NANOS = MICROSECONDS.toNanos(10);
+
+  private final BoundedMpscRingBuffer<Notification> buffer;
+  private final Consumer<Notification> deliverer;
+  private final boolean dropOnOverflow;
+  private final LongAdder droppedNotifications = new LongAdder();
+
+  private volatile Thread consumerThread;
+  private volatile boolean waiting;
+  private volatile boolean stopped;
+
+  /**
+   * @param bufferSize the maximum number of notifications pending delivery
+   * @param dropOnOverflow whether to drop the notifications published while the buffer is full, instead of waiting
+   * @param deliverer delivers a notification to its listeners
+   */
+  public BatchedNotificationDelivery(int bufferSize, boolean dropOnOverflow, Consumer<Notification> deliverer) {
+    this.buffer = new BoundedMpscRingBuffer<>(bufferSize);
+    this.dropOnOverflow = dropOnOverflow;
+    this.deliverer = deliverer;
+  }
+
+  /**
+   * Starts the consumer, which keeps running in the given executor until {@link #stop()} is called.
+   *
+   * @param executor where to run the consumer
+   */
+  public void start(Executor executor) {
+    executor.execute(this);
+  }
+
+  /**
+   * Makes the consumer finish once it has delivered the notifications already published. Notifications published after this
+   * are dropped, as are the ones published concurrently with it, even if the consumer still gets to deliver them.
+   */
+  public void stop() {
+    stopped = true;
+    Thread consumer = consumerThread;
+    if (consumer != null) {
+      unpark(consumer);
+    }
+  }
+
+  /**
+   * Publishes a notification to be delivered by the consumer. A notification published from the consumer itself, by a listener,
+   * is delivered right away, since the consumer can't wait for room in the buffer.
+   *
+   * @param notification the notification to deliver
+   */
+  public void publish(Notification notification) {
+    Thread consumer = consumerThread;
+    if (consumer == currentThread()) {
+      deliver(notification);
+      return;
+    }
+    if (stopped) {
+      droppedNotifications.increment();
+      return;
+    }
+
+    while (!buffer.offer(notification)) {
+      if (dropOnOverflow || stopped) {
+        droppedNotifications.increment();
+        return;
+      }
+      parkNanos(this, FULL_BUFFER_PARK_NANOS);
+    }
+    if (stopped) {
+      // the consumer may have already finished without seeing this notification
+      droppedNotifications.increment();
+      return;
+    }
+
+    if (waiting) {
+      consumer = consumerThread;
+      if (consumer != null) {
+        unpark(consumer);
+      }
+    }
+  }
+
+  @Override
+  public void run() {
+    consumerThread = currentThread();
+    try {
+      while (true) {
+        if (deliverBatch() > 0) {
+          continue;
+        }
+
+        if (stopped) {
+          if (buffer.isEmpty()) {
+            return;
+          }
+          continue;
+        }
+
+        waiting = true;
+        // checked again after flagging, so that a notification published in between is not left waiting for the timeout
+        if (buffer.isEmpty() && !stopped) {
+          parkNanos(this, IDLE_PARK_NANOS);
+        }
+        waiting = false;
+      }
+    } finally {
+      consumerThread = null;
+    }
+  }
+
+  private int deliverBatch() {
+    int delivered = 0;
+    Notification notification;
+    while (delivered < BATCH_SIZE && (notification = buffer.poll()) != null) {
+      deliver(notification);
+      ++delivered;
+    }
+    return delivered;
+  }
+
+  private void deliver(Notification notification) {
+    try {
+      deliverer.accept(notification);
+    } catch (RuntimeException e) {
+      LOGGER.warn("Could not deliver notification " + notification, e);
+    }
+  }
+
+  /**
+   * @return the number of notifications dropped because the buffer was full or the delivery was stopped
+   */
+  public long getDroppedNotifications() {
+    return droppedNotifications.sum();
+  }
+}
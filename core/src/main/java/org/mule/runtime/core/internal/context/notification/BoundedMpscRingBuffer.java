@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock free ring buffer that many threads may write to but only one thread may read from.
+ * <p>
+ * Each slot has a sequence number that tells whether it's ready to be written or read in the current lap around the ring, so
+ * producers only contend on the position of the tail and never wait for each other.
+ *
+ * @param <E> the type of the elements of the buffer
+ * @since 4.0
+ */
+final class BoundedMpscRingBuffer<E> {
+
+  private final int mask;
+  private final AtomicReferenceArray<E> elements;
+  private final AtomicLongArray sequences;
+  private final AtomicLong tail = new AtomicLong();
+
+  // only accessed by the consumer thread
+  private long head;
+
+  /**
+   * @param capacity the maximum number of elements of the buffer, rounded up to a power of two
+   */
+  BoundedMpscRingBuffer(int capacity) {
+    checkArgument(capacity > 0, "capacity must be positive");
+    int size = 1;
+    while (size < capacity) {
+      size <<= 1;
+    }
+    mask = size - 1;
+    elements = new AtomicReferenceArray<>(size);
+    sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; ++i) {
+      sequences.set(i, i);
+    }
+  }
+
+  /**
+   * Adds an element at the tail of the buffer. May be called from any thread.
+   *
+   * @param element the element to add
+   * @return {@code false} if the buffer is full
+   */
+  boolean offer(E element) {
+    while (true) {
+      long position = tail.get();
+      int index = (int) (position & mask);
+      long available = sequences.get(index) - position;
+
+      if (available == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          elements.lazySet(index, element);
+          // a volatile write, so that it's not reordered with the reads that producers do after offering
+          sequences.set(index, position + 1);
+          return true;
+        }
+      } else if (available < 0) {
+        // the slot still holds an element from the previous lap
+        return false;
+      }
+    }
+  }
+
+  /**
+   * Removes the element at the head of the buffer. May only be called from the consumer thread.
+   *
+   * @return the element removed, or {@code null} if the buffer is empty
+   */
+  E poll() {
+    int index = (int) (head & mask);
+    if (sequences.get(index) != head + 1) {
+      return null;
+    }
+
+    E element = elements.get(index);
+    elements.lazySet(index, null);
+    // leave the slot ready to be written in the next lap
+    sequences.lazySet(index, head + mask + 1);
+    ++head;
+    return element;
+  }
+
+  /**
+   * May only be called from the consumer thread.
+   *
+   * @return whether the buffer has no elements to read
+   */
+  boolean isEmpty() {
+    return sequences.get((int) (head & mask)) != head + 1;
+  }
+
+  /**
+   * @return the maximum number of elements of the buffer
+   */
+  int capacity() {
+    return mask + 1;
+  }
+}
@@ -6,82 +6,187 @@
  */
 package org.mule.runtime.core.internal.context.notification;
 
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.System.arraycopy;
+import static java.lang.System.lineSeparator;
+import static java.util.Arrays.fill;
+
 import org.mule.runtime.core.api.context.notification.FlowCallStack;
 import org.mule.runtime.core.api.context.notification.FlowStackElement;
 
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EmptyStackException;
 import java.util.List;
-import java.util.Stack;
 
 /**
  * Keeps context information about the executing flows and its callers in order to provide augmented troubleshooting information
  * for an application developer.
+ * <p>
+ * The stack is kept in an array of mutable frames, so that updating the current processor of a flow doesn't allocate anything.
+ * The frames are only copied into {@link FlowStackElement}s when the elements of the stack are requested. A stack and its clones
+ * share the array and the frames until any of them is modified, and then only the array and the modified frame are copied.
+ * <p>
+ * Instances of this class are not thread safe, as they belong to an event that is processed by one thread at a time.
  */
 public class DefaultFlowCallStack implements FlowCallStack {
 
-  private static final long serialVersionUID = -8683711977929802819L;
+  private static final long serialVersionUID = 2876307340447633463L;
+
+  private static final int INITIAL_CAPACITY = 4;
+
+  private Frame[] frames;
+  private int size;
 
-  private Stack<FlowStackElement> innerStack = new Stack<>();
+  // whether the array may be referenced by a clone of this stack, in which case it is copied before being modified
+  private boolean shared;
+  // the frames below this index may be referenced by a clone of this stack, so they are copied before being modified
+  private int sharedFrames;
+
+  public DefaultFlowCallStack() {
+    this(new Frame[INITIAL_CAPACITY], 0);
+  }
+
+  private DefaultFlowCallStack(Frame[] frames, int size) {
+    this.frames = frames;
+    this.size = size;
+  }
 
   /**
    * Adds an element to the top of this stack
-   * 
+   *
    * @param flowStackElement the element to add
    */
   public void push(FlowStackElement flowStackElement) {
-    innerStack.push(flowStackElement);
+    push(flowStackElement.getFlowName(), flowStackElement.getProcessorPath());
+  }
+
+  /**
+   * Adds an element for the given flow, which hasn't invoked any processor yet, to the top of this stack.
+   *
+   * @param flowName the name of the flow to add
+   */
+  public void push(String flowName) {
+    push(flowName, null);
+  }
+
+  private void push(String flowName, String processorPath) {
+    Frame frame = prepareForWrite(size);
+    frame.flowName = flowName;
+    frame.processorPath = processorPath;
+    ++size;
   }
 
   /**
    * Adds a message processor path to the list of processors that were invoked as part of the processing of this stack's event.
-   * 
+   *
    * @param processorPath the path to mark as invoked.
    * @throws EmptyStackException if this stack is empty.
    */
   public void setCurrentProcessorPath(String processorPath) {
-    FlowStackElement topElement = innerStack.pop();
-    innerStack.push(new FlowStackElement(topElement.getFlowName(), processorPath));
+    if (size == 0) {
+      throw new EmptyStackException();
+    }
+    prepareForWrite(size - 1).processorPath = processorPath;
   }
 
   /**
    * Removes the top-most element from this stack.
-   * 
-   * @return the top-most element of this stack.
+   *
    * @throws EmptyStackException if this stack is empty.
    */
-  public FlowStackElement pop() {
-    return innerStack.pop();
+  public void pop() {
+    if (size == 0) {
+      throw new EmptyStackException();
+    }
+    // the frame is kept to be reused by the next push
+    --size;
+  }
+
+  /**
+   * Makes sure that neither the array nor the frame at {@code index} are shared with any clone, leaving the frames below it
+   * shared.
+   *
+   * @return the frame at {@code index}, ready to be modified
+   */
+  private Frame prepareForWrite(int index) {
+    if (shared) {
+      Frame[] copy = new Frame[max(frames.length, index + 1)];
+      arraycopy(frames, 0, copy, 0, size);
+      frames = copy;
+      sharedFrames = min(sharedFrames, size);
+      shared = false;
+    } else if (index >= frames.length) {
+      frames = Arrays.copyOf(frames, frames.length * 2);
+    }
+
+    if (index < sharedFrames) {
+      // the frames above were left by a pop and may be referenced by a clone as well, so they are not reused
+      fill(frames, index + 1, sharedFrames, null);
+      frames[index] = new Frame(frames[index]);
+      sharedFrames = index;
+    } else if (frames[index] == null) {
+      frames[index] = new Frame();
+    }
+    return frames[index];
   }
 
   @Override
   public List<FlowStackElement> getElements() {
-    List<FlowStackElement> elementsCloned = new ArrayList<>();
-    for (int i = innerStack.size() - 1; i >= 0; --i) {
-      elementsCloned.add(innerStack.get(i));
+    List<FlowStackElement> elementsCloned = new ArrayList<>(size);
+    for (int i = size - 1; i >= 0; --i) {
+      elementsCloned.add(new FlowStackElement(frames[i].flowName, frames[i].processorPath));
     }
     return elementsCloned;
   }
 
   @Override
   public DefaultFlowCallStack clone() {
-    DefaultFlowCallStack cloned = new DefaultFlowCallStack();
-    for (int i = 0; i < innerStack.size(); ++i) {
-      cloned.innerStack.push(innerStack.get(i));
-    }
-
+    shared = true;
+    sharedFrames = size;
+    DefaultFlowCallStack cloned = new DefaultFlowCallStack(frames, size);
+    cloned.shared = true;
+    cloned.sharedFrames = size;
     return cloned;
   }
 
   @Override
   public String toString() {
     StringBuilder stackString = new StringBuilder();
-    for (int i = innerStack.size() - 1; i >= 0; --i) {
-      stackString.append("at ").append(innerStack.get(i).toString());
+    for (int i = size - 1; i >= 0; --i) {
+      stackString.append("at ");
+      frames[i].appendTo(stackString);
       if (i != 0) {
-        stackString.append(System.lineSeparator());
+        stackString.append(lineSeparator());
       }
     }
     return stackString.toString();
   }
+
+  /**
+   * The mutable counterpart of a {@link FlowStackElement}.
+   */
+  private static final class Frame implements Serializable {
+
+    private static final long serialVersionUID = -4620226218862420547L;
+
+    private String flowName;
+    private String processorPath;
+
+    Frame() {}
+
+    Frame(Frame other) {
+      this.flowName = other.flowName;
+      this.processorPath = other.processorPath;
+    }
+
+    void appendTo(StringBuilder builder) {
+      builder.append(flowName);
+      if (processorPath != null) {
+        builder.append('(').append(processorPath).append(')');
+      }
+    }
+  }
 }
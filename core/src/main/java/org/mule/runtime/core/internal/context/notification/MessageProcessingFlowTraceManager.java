@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.internal.context.notification;
 
+import static com.google.common.cache.CacheBuilder.newBuilder;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonMap;
 import static org.mule.runtime.core.api.config.DefaultMuleConfiguration.isFlowTrace;
@@ -20,7 +21,6 @@ import org.mule.runtime.core.api.config.DefaultMuleConfiguration;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.context.notification.EnrichedNotificationInfo;
 import org.mule.runtime.core.api.context.notification.FlowCallStack;
-import org.mule.runtime.core.api.context.notification.FlowStackElement;
 import org.mule.runtime.core.api.context.notification.FlowTraceManager;
 import org.mule.runtime.core.api.context.notification.MessageProcessorNotification;
 import org.mule.runtime.core.api.context.notification.PipelineMessageNotification;
@@ -34,6 +34,9 @@ import org.apache.logging.log4j.spi.LoggerContext;
 import java.beans.PropertyChangeListener;
 import java.util.Map;
 
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
 /**
  * Manager for handling message processing troubleshooting data.
  */
@@ -47,6 +50,18 @@ public class MessageProcessingFlowTraceManager extends LocationExecutionContextP
 
   private MuleContext muleContext;
 
+  // the representation of a processor doesn't change, so it's resolved only once instead of on every invocation
+  private final LoadingCache<AnnotatedObject, String> processorRepresentations =
+      newBuilder().weakKeys().build(new CacheLoader<AnnotatedObject, String>() {
+
+        @Override
+        public String load(AnnotatedObject processor) throws Exception {
+          return resolveProcessorRepresentation(muleContext.getConfiguration().getId(),
+                                                processor.getLocation() != null ? processor.getLocation().getLocation() : null,
+                                                processor);
+        }
+      });
+
   private PropertyChangeListener logConfigChangeListener = evt -> handleNotificationListeners();
 
   public MessageProcessingFlowTraceManager() {
@@ -108,12 +123,7 @@ public class MessageProcessingFlowTraceManager extends LocationExecutionContextP
    * @param notification the notification that contains the event and the processor that is about to be invoked.
    */
   public void onMessageProcessorNotificationPreInvoke(MessageProcessorNotification notification) {
-    String resolveProcessorRepresentation =
-        resolveProcessorRepresentation(muleContext.getConfiguration().getId(),
-                                       notification.getComponent().getLocation() != null
-                                           ? notification.getComponent().getLocation().getLocation()
-                                           : null,
-                                       notification.getProcessor());
+    String resolveProcessorRepresentation = processorRepresentations.getUnchecked(notification.getComponent());
     InternalEventContext eventContext = notification.getEventContext();
     if (eventContext != null) {
       ((DefaultProcessorsTrace) eventContext.getProcessorsTrace())
@@ -146,7 +156,7 @@ public class MessageProcessingFlowTraceManager extends LocationExecutionContextP
   @Override
   public void onFlowStart(EnrichedNotificationInfo notificationInfo, String flowName) {
     if (notificationInfo.getFlowCallStack() instanceof DefaultFlowCallStack) {
-      ((DefaultFlowCallStack) notificationInfo.getFlowCallStack()).push(new FlowStackElement(flowName, null));
+      ((DefaultFlowCallStack) notificationInfo.getFlowCallStack()).push(flowName);
     }
   }
 
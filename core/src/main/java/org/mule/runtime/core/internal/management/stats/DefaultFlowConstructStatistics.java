@@ -6,8 +6,14 @@
  */
 package org.mule.runtime.core.internal.management.stats;
 
+import static java.util.Collections.unmodifiableMap;
+
+import org.mule.runtime.api.component.location.ComponentLocation;
 import org.mule.runtime.core.api.management.stats.ComponentStatistics;
+import org.mule.runtime.core.api.management.stats.ProcessorStatistics;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class DefaultFlowConstructStatistics extends AbstractFlowConstructStatistics {
@@ -16,6 +22,7 @@ public class DefaultFlowConstructStatistics extends AbstractFlowConstructStatist
   private final AtomicLong executionError = new AtomicLong(0);
   private final AtomicLong fatalError = new AtomicLong(0);
   protected final ComponentStatistics flowStatistics = new ComponentStatistics();
+  private final Map<String, DefaultProcessorStatistics> processorStatistics = new ConcurrentHashMap<>();
 
   public DefaultFlowConstructStatistics(String flowConstructType, String name) {
     super(flowConstructType, name);
@@ -61,6 +68,9 @@ public class DefaultFlowConstructStatistics extends AbstractFlowConstructStatist
     if (flowStatistics != null) {
       flowStatistics.clear();
     }
+    if (processorStatistics != null) {
+      processorStatistics.values().forEach(DefaultProcessorStatistics::clear);
+    }
   }
 
   @Override
@@ -73,6 +83,33 @@ public class DefaultFlowConstructStatistics extends AbstractFlowConstructStatist
     flowStatistics.addExecutionBranchTime(time == total, time, total);
   }
 
+  @Override
+  public void addProcessorExecutionTime(ComponentLocation location, long timeNanos) {
+    if (enabled) {
+      getProcessorStatistics(location).addExecutionTime(timeNanos);
+    }
+  }
+
+  @Override
+  public void addProcessorExecutionError(ComponentLocation location, long timeNanos) {
+    if (enabled) {
+      getProcessorStatistics(location).addExecutionError(timeNanos);
+    }
+  }
+
+  private DefaultProcessorStatistics getProcessorStatistics(ComponentLocation location) {
+    DefaultProcessorStatistics statistics = processorStatistics.get(location.getLocation());
+    if (statistics == null) {
+      statistics = processorStatistics.computeIfAbsent(location.getLocation(), DefaultProcessorStatistics::new);
+    }
+    return statistics;
+  }
+
+  @Override
+  public Map<String, ProcessorStatistics> getProcessorStatistics() {
+    return unmodifiableMap(processorStatistics);
+  }
+
   @Override
   public long getAverageProcessingTime() {
     return flowStatistics.getAverageExecutionTime();
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import org.mule.runtime.core.api.management.stats.ProcessorStatistics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Default {@link ProcessorStatistics} implementation backed by a {@link LatencyHistogram}, so recording the time of an event does
+ * not allocate.
+ *
+ * @since 4.0
+ */
+public class DefaultProcessorStatistics implements ProcessorStatistics {
+
+  private static final long serialVersionUID = -6297465123447315720L;
+
+  private final String location;
+  private final LatencyHistogram histogram = new LatencyHistogram();
+  private final AtomicLong executionErrors = new AtomicLong();
+
+  public DefaultProcessorStatistics(String location) {
+    this.location = location;
+  }
+
+  /**
+   * Adds the execution time of an event processed by the processor.
+   *
+   * @param timeNanos the time in nanoseconds
+   */
+  public void addExecutionTime(long timeNanos) {
+    histogram.recordValue(timeNanos);
+  }
+
+  /**
+   * Adds the execution time of an event that failed in the processor.
+   *
+   * @param timeNanos the time in nanoseconds
+   */
+  public void addExecutionError(long timeNanos) {
+    executionErrors.incrementAndGet();
+    histogram.recordValue(timeNanos);
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return true;
+  }
+
+  @Override
+  public String getLocation() {
+    return location;
+  }
+
+  @Override
+  public long getProcessedEvents() {
+    return histogram.getTotalCount();
+  }
+
+  @Override
+  public long getExecutionErrors() {
+    return executionErrors.get();
+  }
+
+  @Override
+  public long getTotalProcessingTime() {
+    return histogram.getTotalValue();
+  }
+
+  @Override
+  public long getMaxProcessingTime() {
+    return histogram.getMaxValue();
+  }
+
+  @Override
+  public long getAverageProcessingTime() {
+    return histogram.getMean();
+  }
+
+  @Override
+  public long getProcessingTimeAtPercentile(double percentile) {
+    return histogram.getValueAtPercentile(percentile);
+  }
+
+  @Override
+  public void clear() {
+    executionErrors.set(0);
+    histogram.reset();
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.Math.ceil;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed size, allocation free, log-linear histogram of non negative {@code long} values, in the spirit of HdrHistogram.
+ * <p>
+ * Values are grouped in buckets of increasing powers of two, each one split in 32 linear sub-buckets, so that any value can be
+ * reported back with a relative error of at most about 3%. Values above {@link #MAX_TRACKABLE_VALUE} (about 18 minutes when
+ * recording nanoseconds) are recorded as {@link #MAX_TRACKABLE_VALUE}.
+ * <p>
+ * Recording is thread safe and lock free. Reads are not atomic with respect to concurrent recordings, which is acceptable for
+ * monitoring purposes.
+ *
+ * @since 4.0
+ */
+public final class LatencyHistogram implements Serializable {
+
+  private static final long serialVersionUID = -2404427716549337196L;
+
+  private static final int SUB_BUCKET_BITS = 6;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+
+  static final long MAX_TRACKABLE_VALUE = (1L << 40) - 1;
+
+  private final AtomicLongArray counts = new AtomicLongArray(indexFor(MAX_TRACKABLE_VALUE) + 1);
+  private final AtomicLong totalCount = new AtomicLong();
+  private final AtomicLong totalValue = new AtomicLong();
+  private final AtomicLong maxValue = new AtomicLong();
+
+  /**
+   * Records a value in the histogram.
+   *
+   * @param value the value to record, negative values are recorded as {@code 0}.
+   */
+  public void recordValue(long value) {
+    value = min(max(value, 0), MAX_TRACKABLE_VALUE);
+    counts.incrementAndGet(indexFor(value));
+    totalCount.incrementAndGet();
+    totalValue.addAndGet(value);
+
+    long currentMax;
+    while (value > (currentMax = maxValue.get())) {
+      if (maxValue.compareAndSet(currentMax, value)) {
+        break;
+      }
+    }
+  }
+
+  /**
+   * @return the number of recorded values.
+   */
+  public long getTotalCount() {
+    return totalCount.get();
+  }
+
+  /**
+   * @return the sum of all the recorded values.
+   */
+  public long getTotalValue() {
+    return totalValue.get();
+  }
+
+  /**
+   * @return the highest recorded value.
+   */
+  public long getMaxValue() {
+    return maxValue.get();
+  }
+
+  /**
+   * @return the mean of the recorded values, or {@code 0} if nothing was recorded.
+   */
+  public long getMean() {
+    long count = totalCount.get();
+    return count == 0 ? 0 : totalValue.get() / count;
+  }
+
+  /**
+   * Obtains the value below which the given percentage of recorded values fall.
+   *
+   * @param percentile a value between {@code 0.0} and {@code 100.0}.
+   * @return the highest value equivalent to the bucket holding the percentile, or {@code 0} if nothing was recorded.
+   */
+  public long getValueAtPercentile(double percentile) {
+    long count = totalCount.get();
+    if (count == 0) {
+      return 0;
+    }
+
+    long target = max(1, (long) ceil(min(max(percentile, 0.0), 100.0) / 100.0 * count));
+    long accumulated = 0;
+    for (int i = 0; i < counts.length(); ++i) {
+      accumulated += counts.get(i);
+      if (accumulated >= target) {
+        return min(highestEquivalentValue(i), maxValue.get());
+      }
+    }
+    return maxValue.get();
+  }
+
+  /**
+   * Discards all the recorded values.
+   */
+  public void reset() {
+    for (int i = 0; i < counts.length(); ++i) {
+      counts.set(i, 0);
+    }
+    totalCount.set(0);
+    totalValue.set(0);
+    maxValue.set(0);
+  }
+
+  static int indexFor(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+    int shift = (63 - numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+    int subBucket = (int) (value >>> shift);
+    return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF_COUNT + (subBucket - SUB_BUCKET_HALF_COUNT);
+  }
+
+  static long highestEquivalentValue(int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+    int relative = index - SUB_BUCKET_COUNT;
+    int shift = relative / SUB_BUCKET_HALF_COUNT + 1;
+    long subBucket = relative % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+    return ((subBucket + 1) << shift) - 1;
+  }
+}
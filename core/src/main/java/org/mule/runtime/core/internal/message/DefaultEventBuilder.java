@@ -8,13 +8,13 @@ package org.mule.runtime.core.internal.message;
 
 
 import static java.lang.System.lineSeparator;
-import static java.util.Collections.unmodifiableMap;
 import static java.util.Objects.requireNonNull;
 import static java.util.Optional.empty;
 import static java.util.Optional.ofNullable;
 import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
 import static org.mule.runtime.api.el.BindingContextUtils.addEventBindings;
 import static org.mule.runtime.core.api.util.SystemUtils.getDefaultEncoding;
+import static org.mule.runtime.core.internal.util.PersistentHashTrieMap.emptyCaseInsensitive;
 
 import org.mule.runtime.api.el.BindingContext;
 import org.mule.runtime.api.exception.MuleException;
@@ -41,7 +41,7 @@ import org.mule.runtime.core.api.session.DefaultMuleSession;
 import org.mule.runtime.core.api.store.DeserializationPostInitialisable;
 import org.mule.runtime.core.api.transformer.TransformerException;
 import org.mule.runtime.core.internal.context.notification.DefaultFlowCallStack;
-import org.mule.runtime.core.internal.util.CopyOnWriteCaseInsensitiveMap;
+import org.mule.runtime.core.internal.util.PersistentHashTrieMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -50,7 +50,6 @@ import java.io.IOException;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.nio.charset.Charset;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
@@ -60,24 +59,26 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   private InternalEventContext context;
   private Message message;
-  private Map<String, TypedValue<?>> flowVariables = new HashMap<>();
-  private Map<String, TypedValue<?>> moduleProperties = new HashMap<>();
-  private Map<String, TypedValue<?>> moduleParameters = new HashMap<>();
-  private Map<String, Object> internalParameters = new HashMap<>();
+  private PersistentHashTrieMap<TypedValue<?>> flowVariables = emptyCaseInsensitive();
+  private PersistentHashTrieMap<TypedValue<?>> moduleProperties = PersistentHashTrieMap.empty();
+  private PersistentHashTrieMap<TypedValue<?>> moduleParameters = PersistentHashTrieMap.empty();
+  private PersistentHashTrieMap<Object> internalParameters = PersistentHashTrieMap.empty();
   private Error error;
   private FlowConstruct flow;
   private Optional<GroupCorrelation> groupCorrelation = empty();
   private String legacyCorrelationId;
-  private FlowCallStack flowCallStack = new DefaultFlowCallStack();
+  private FlowCallStack flowCallStack;
   private ReplyToHandler replyToHandler;
   private Object replyToDestination;
-  private MuleSession session = new DefaultMuleSession();
+  private MuleSession session;
   private InternalEvent originalEvent;
   private boolean modified;
   private boolean notificationsEnabled = true;
 
   public DefaultEventBuilder(InternalEventContext messageContext) {
     this.context = messageContext;
+    this.flowCallStack = new DefaultFlowCallStack();
+    this.session = new DefaultMuleSession();
   }
 
   public DefaultEventBuilder(InternalEvent event) {
@@ -94,10 +95,19 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
     this.error = event.getError().orElse(null);
     this.notificationsEnabled = event.isNotificationsEnabled();
 
-    this.flowVariables.putAll(event.getVariables());
-    this.moduleProperties.putAll(event.getProperties());
-    this.moduleParameters.putAll(event.getParameters());
-    this.internalParameters.putAll(event.getInternalParameters());
+    if (event instanceof InternalEventImplementation) {
+      // the maps of the event are immutable, so they can be shared until they are modified
+      InternalEventImplementation eventImplementation = (InternalEventImplementation) event;
+      this.flowVariables = eventImplementation.variables;
+      this.moduleProperties = eventImplementation.properties;
+      this.moduleParameters = eventImplementation.parameters;
+      this.internalParameters = eventImplementation.internalParameters;
+    } else {
+      this.flowVariables = flowVariables.plusAll(event.getVariables());
+      this.moduleProperties = moduleProperties.plusAll(event.getProperties());
+      this.moduleParameters = moduleParameters.plusAll(event.getParameters());
+      this.internalParameters = internalParameters.plusAll(event.getInternalParameters());
+    }
   }
 
   public DefaultEventBuilder(InternalEventContext messageContext, InternalEvent event) {
@@ -116,13 +126,13 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   @Override
   public InternalEvent.Builder variables(Map<String, ?> flowVariables) {
-    copyFromTo(flowVariables, this.flowVariables);
+    this.flowVariables = toTypedValues(flowVariables, this.flowVariables.emptyOfSameKind());
     return this;
   }
 
   @Override
   public InternalEvent.Builder addVariable(String key, Object value) {
-    flowVariables.put(key, new TypedValue<>(value, DataType.fromObject(value)));
+    flowVariables = flowVariables.plus(key, new TypedValue<>(value, DataType.fromObject(value)));
     this.modified = true;
     return this;
 
@@ -130,32 +140,34 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   @Override
   public InternalEvent.Builder addVariable(String key, Object value, DataType dataType) {
-    flowVariables.put(key, new TypedValue<>(value, dataType));
+    flowVariables = flowVariables.plus(key, new TypedValue<>(value, dataType));
     this.modified = true;
     return this;
   }
 
   @Override
   public InternalEvent.Builder removeVariable(String key) {
-    this.modified = flowVariables.remove(key) != null || modified;
+    PersistentHashTrieMap<TypedValue<?>> newVariables = flowVariables.minus(key);
+    this.modified = newVariables != flowVariables || modified;
+    flowVariables = newVariables;
     return this;
   }
 
   @Override
   public Builder properties(Map<String, ?> properties) {
-    copyFromTo(properties, this.moduleProperties);
+    this.moduleProperties = toTypedValues(properties, this.moduleProperties.emptyOfSameKind());
     return this;
   }
 
   @Override
   public Builder parameters(Map<String, ?> parameters) {
-    copyFromTo(parameters, this.moduleParameters);
+    this.moduleParameters = toTypedValues(parameters, this.moduleParameters.emptyOfSameKind());
     return this;
   }
 
   @Override
   public InternalEvent.Builder addParameter(String key, Object value) {
-    moduleParameters.put(key, new TypedValue<>(value, DataType.fromObject(value)));
+    moduleParameters = moduleParameters.plus(key, new TypedValue<>(value, DataType.fromObject(value)));
     this.modified = true;
     return this;
 
@@ -163,35 +175,38 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   @Override
   public InternalEvent.Builder addParameter(String key, Object value, DataType dataType) {
-    moduleParameters.put(key, new TypedValue<>(value, dataType));
+    moduleParameters = moduleParameters.plus(key, new TypedValue<>(value, dataType));
     this.modified = true;
     return this;
   }
 
   @Override
   public Builder internalParameters(Map<String, ?> internalParameters) {
-    this.internalParameters.clear();
-    this.internalParameters.putAll(internalParameters);
+    this.internalParameters = this.internalParameters.emptyOfSameKind().plusAll(internalParameters);
     this.modified = true;
     return this;
   }
 
   @Override
   public InternalEvent.Builder addInternalParameter(String key, Object value) {
-    internalParameters.put(key, value);
+    internalParameters = internalParameters.plus(key, value);
     this.modified = true;
     return this;
   }
 
   @Override
   public Builder removeInternalParameter(String key) {
-    this.modified = internalParameters.remove(key) != null || modified;
+    PersistentHashTrieMap<Object> newInternalParameters = internalParameters.minus(key);
+    this.modified = newInternalParameters != internalParameters || modified;
+    internalParameters = newInternalParameters;
     return this;
   }
 
   @Override
   public InternalEvent.Builder removeParameter(String key) {
-    this.modified = moduleParameters.remove(key) != null || modified;
+    PersistentHashTrieMap<TypedValue<?>> newParameters = moduleParameters.minus(key);
+    this.modified = newParameters != moduleParameters || modified;
+    moduleParameters = newParameters;
     return this;
   }
 
@@ -265,11 +280,15 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
     }
   }
 
-  private void copyFromTo(Map<String, ?> source, Map<String, TypedValue<?>> target) {
-    target.clear();
-    source.forEach((s, o) -> target
-        .put(s, o instanceof TypedValue ? (TypedValue<Object>) o : new TypedValue<>(o, DataType.fromObject(o))));
+  private PersistentHashTrieMap<TypedValue<?>> toTypedValues(Map<String, ?> source,
+                                                             PersistentHashTrieMap<TypedValue<?>> target) {
+    for (Map.Entry<String, ?> entry : source.entrySet()) {
+      Object o = entry.getValue();
+      target = target.plus(entry.getKey(),
+                           o instanceof TypedValue ? (TypedValue<Object>) o : new TypedValue<>(o, DataType.fromObject(o)));
+    }
     this.modified = true;
+    return target;
   }
 
   /**
@@ -300,12 +319,12 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
     private final boolean notificationsEnabled;
 
-    private final CopyOnWriteCaseInsensitiveMap<String, TypedValue<?>> variables = new CopyOnWriteCaseInsensitiveMap<>();
-    private final Map<String, TypedValue<?>> properties;
-    private final Map<String, TypedValue<?>> parameters;
-    private final Map<String, ?> internalParameters;
+    private final PersistentHashTrieMap<TypedValue<?>> variables;
+    private final PersistentHashTrieMap<TypedValue<?>> properties;
+    private final PersistentHashTrieMap<TypedValue<?>> parameters;
+    private final PersistentHashTrieMap<Object> internalParameters;
 
-    private FlowCallStack flowCallStack = new DefaultFlowCallStack();
+    private FlowCallStack flowCallStack;
     private final String legacyCorrelationId;
     private final Error error;
 
@@ -313,9 +332,12 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
     private String flowName;
 
     // Use this constructor from the builder
-    private InternalEventImplementation(InternalEventContext context, Message message, Map<String, TypedValue<?>> variables,
-                                        Map<String, TypedValue<?>> properties, Map<String, TypedValue<?>> parameters,
-                                        Map<String, ?> internalParameters, FlowConstruct flowConstruct, MuleSession session,
+    private InternalEventImplementation(InternalEventContext context, Message message,
+                                        PersistentHashTrieMap<TypedValue<?>> variables,
+                                        PersistentHashTrieMap<TypedValue<?>> properties,
+                                        PersistentHashTrieMap<TypedValue<?>> parameters,
+                                        PersistentHashTrieMap<Object> internalParameters,
+                                        FlowConstruct flowConstruct, MuleSession session,
                                         Object replyToDestination, ReplyToHandler replyToHandler,
                                         FlowCallStack flowCallStack, Optional<GroupCorrelation> groupCorrelation, Error error,
                                         String legacyCorrelationId, boolean notificationsEnabled) {
@@ -326,7 +348,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
       }
       this.session = session;
       this.message = message;
-      variables.forEach((s, value) -> this.variables.put(s, new TypedValue<>(value.getValue(), value.getDataType())));
+      this.variables = variables;
       this.properties = properties;
       this.parameters = parameters;
       this.internalParameters = internalParameters;
@@ -538,17 +560,17 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
     @Override
     public Map<String, TypedValue<?>> getProperties() {
-      return unmodifiableMap(properties);
+      return properties;
     }
 
     @Override
     public Map<String, TypedValue<?>> getVariables() {
-      return unmodifiableMap(variables);
+      return variables;
     }
 
     @Override
     public Map<String, TypedValue<?>> getParameters() {
-      return unmodifiableMap(parameters);
+      return parameters;
     }
 
     @Override
@@ -570,7 +592,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
     @Override
     public Map<String, ?> getInternalParameters() {
-      return unmodifiableMap(internalParameters);
+      return internalParameters;
     }
 
     @Override
@@ -9,7 +9,6 @@ package org.mule.runtime.core.internal.processor.chain;
 import static java.util.Optional.empty;
 import static reactor.core.publisher.Flux.from;
 import org.mule.runtime.core.api.InternalEvent;
-import org.mule.runtime.core.api.context.notification.FlowStackElement;
 import org.mule.runtime.core.api.processor.MessageProcessorChain;
 import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.internal.context.notification.DefaultFlowCallStack;
@@ -46,7 +45,7 @@ public class SubflowMessageProcessorChainBuilder extends DefaultMessageProcessor
     }
 
     private Consumer<InternalEvent> pushSubFlowFlowStackElement() {
-      return event -> ((DefaultFlowCallStack) event.getFlowCallStack()).push(new FlowStackElement(subFlowName, null));
+      return event -> ((DefaultFlowCallStack) event.getFlowCallStack()).push(subFlowName);
     }
 
     private Consumer<InternalEvent> popSubFlowFlowStackElement() {
@@ -149,28 +149,36 @@ abstract class AbstractStreamProcessingStrategyFactory extends AbstractProcessin
     }
 
     protected enum WaitStrategy {
-      BLOCKING(blocking()),
+      BLOCKING(() -> blocking()),
 
-      LITE_BLOCKING(liteBlocking()),
+      LITE_BLOCKING(() -> liteBlocking()),
 
-      SLEEPING(sleeping()),
+      SLEEPING(() -> sleeping()),
 
-      BUSY_SPIN(busySpin()),
+      BUSY_SPIN(() -> busySpin()),
 
-      YIELDING(yielding()),
+      YIELDING(() -> yielding()),
 
-      PARKING(parking()),
+      PARKING(() -> parking()),
 
-      PHASED(phasedOffLiteLock(200, 100, MILLISECONDS));
+      PHASED(() -> phasedOffLiteLock(200, 100, MILLISECONDS)),
 
-      private reactor.util.concurrent.WaitStrategy reactorWaitStrategy;
+      /**
+       * Spins while events keep arriving and parks when the ring-buffer goes idle, see {@link AdaptiveWaitStrategy}.
+       */
+      ADAPTIVE(() -> new AdaptiveWaitStrategy());
 
-      WaitStrategy(reactor.util.concurrent.WaitStrategy reactorWaitStrategy) {
-        this.reactorWaitStrategy = reactorWaitStrategy;
+      private Supplier<reactor.util.concurrent.WaitStrategy> reactorWaitStrategySupplier;
+
+      WaitStrategy(Supplier<reactor.util.concurrent.WaitStrategy> reactorWaitStrategySupplier) {
+        this.reactorWaitStrategySupplier = reactorWaitStrategySupplier;
       }
 
+      /**
+       * @return a new reactor wait strategy instance, so that stateful strategies are not shared between ring-buffers.
+       */
       reactor.util.concurrent.WaitStrategy getReactorWaitStrategy() {
-        return reactorWaitStrategy;
+        return reactorWaitStrategySupplier.get();
       }
     }
 
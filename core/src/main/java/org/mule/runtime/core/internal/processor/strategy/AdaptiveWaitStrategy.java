@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import reactor.util.concurrent.WaitStrategy;
+
+/**
+ * {@link WaitStrategy} that spins for a bounded number of iterations before falling back to a lite-blocking wait, adapting the
+ * number of spin iterations to the observed traffic.
+ * <p>
+ * Each time a wait is satisfied while spinning the spin budget is doubled, and each time the budget is exhausted and the consumer
+ * has to block it is halved. Under sustained load consumers therefore keep spinning and avoid the wakeup latency of a blocking
+ * strategy, while on idle or bursty ring-buffers the budget quickly decays so that waiting consumers park instead of burning CPU.
+ *
+ * @since 4.0
+ */
+final class AdaptiveWaitStrategy extends WaitStrategy {
+
+  private static final String SYSTEM_PROPERTY_PREFIX = AdaptiveWaitStrategy.class.getName() + ".";
+
+  static final int MIN_SPIN_BUDGET = getInteger(SYSTEM_PROPERTY_PREFIX + "MIN_SPIN_BUDGET", 16);
+  static final int MAX_SPIN_BUDGET = getInteger(SYSTEM_PROPERTY_PREFIX + "MAX_SPIN_BUDGET", 1 << 16);
+
+  private final Lock lock = new ReentrantLock();
+  private final Condition processorNotifyCondition = lock.newCondition();
+  private final AtomicBoolean signalNeeded = new AtomicBoolean(false);
+
+  private volatile int spinBudget = MIN_SPIN_BUDGET;
+
+  @Override
+  public long waitFor(long sequence, LongSupplier cursor, Runnable spinObserver) throws InterruptedException {
+    long availableSequence;
+    final int budget = spinBudget;
+    for (int i = 0; i < budget; ++i) {
+      if ((availableSequence = cursor.getAsLong()) >= sequence) {
+        if (i > 0) {
+          spinBudget = min(MAX_SPIN_BUDGET, budget << 1);
+        }
+        return availableSequence;
+      }
+      spinObserver.run();
+    }
+
+    spinBudget = max(MIN_SPIN_BUDGET, budget >> 1);
+
+    if (cursor.getAsLong() < sequence) {
+      lock.lock();
+      try {
+        do {
+          signalNeeded.getAndSet(true);
+          if (cursor.getAsLong() >= sequence) {
+            break;
+          }
+          spinObserver.run();
+          processorNotifyCondition.await();
+        } while (cursor.getAsLong() < sequence);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    while ((availableSequence = cursor.getAsLong()) < sequence) {
+      spinObserver.run();
+    }
+    return availableSequence;
+  }
+
+  @Override
+  public void signalAllWhenBlocking() {
+    if (signalNeeded.getAndSet(false)) {
+      lock.lock();
+      try {
+        processorNotifyCondition.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * @return the number of iterations consumers will currently spin before blocking.
+   */
+  int getSpinBudget() {
+    return spinBudget;
+  }
+
+}
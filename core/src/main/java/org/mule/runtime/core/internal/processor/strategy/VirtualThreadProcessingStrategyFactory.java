@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.lang.Integer.MAX_VALUE;
+import static java.util.Objects.requireNonNull;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.BLOCKING;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_LITE_ASYNC;
+import static org.slf4j.LoggerFactory.getLogger;
+import static reactor.core.publisher.Flux.from;
+import static reactor.core.scheduler.Schedulers.fromExecutorService;
+
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.lifecycle.Startable;
+import org.mule.runtime.api.lifecycle.Stoppable;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.construct.FlowConstruct;
+import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType;
+import org.mule.runtime.core.api.processor.Sink;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+
+/**
+ * Creates {@link VirtualThreadProcessingStrategy} instances. This processing strategy dispatches each incoming event to its own
+ * virtual thread, so that {@link ProcessingType#BLOCKING} and {@link ProcessingType#IO_RW} processors park a cheap virtual thread
+ * rather than one of the platform threads of the IO {@link Scheduler} used by {@link WorkQueueProcessingStrategyFactory}.
+ * <p/>
+ * Virtual threads are only available when running on a JVM that supports them. On any other JVM this processing strategy falls
+ * back to the applications IO {@link Scheduler} and so behaves exactly like the {@link WorkQueueProcessingStrategyFactory}.
+ * <p/>
+ * This processing strategy is not suitable for transactional flows and will fail if used with an active transaction.
+ *
+ * @since 4.0
+ */
+public class VirtualThreadProcessingStrategyFactory extends AbstractProcessingStrategyFactory {
+
+  private static final Logger LOGGER = getLogger(VirtualThreadProcessingStrategyFactory.class);
+
+  @Override
+  public ProcessingStrategy create(MuleContext muleContext, String schedulersNamePrefix) {
+    final String threadNamePrefix = schedulersNamePrefix + "." + BLOCKING.name();
+    return new VirtualThreadProcessingStrategy(() -> {
+      if (isVirtualThreadSupported()) {
+        return new ConcurrencyLimitedExecutorService(createVirtualThreadPerTaskExecutor(threadNamePrefix), getMaxConcurrency());
+      } else {
+        LOGGER.debug("Virtual threads are not supported by the current JVM, using IO scheduler for '{}'",
+                     schedulersNamePrefix);
+        return muleContext.getSchedulerService()
+            .ioScheduler(createSchedulerConfig(muleContext, schedulersNamePrefix, BLOCKING));
+      }
+    });
+  }
+
+  @Override
+  public Class<? extends ProcessingStrategy> getProcessingStrategyType() {
+    return VirtualThreadProcessingStrategy.class;
+  }
+
+  /**
+   * @return {@code true} if the JVM in which Mule is running is able to create virtual threads.
+   */
+  static boolean isVirtualThreadSupported() {
+    try {
+      Thread.class.getMethod("ofVirtual");
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Creates an {@link ExecutorService} that starts a new named virtual thread for each submitted task. Reflection is used so that
+   * this class still compiles and loads on JVMs without virtual thread support.
+   *
+   * @param threadNamePrefix the prefix used to name the created threads.
+   * @return a new thread-per-task {@link ExecutorService}.
+   */
+  static ExecutorService createVirtualThreadPerTaskExecutor(String threadNamePrefix) {
+    try {
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix + "-", 0L);
+      ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+      Method newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+      return (ExecutorService) newThreadPerTaskExecutor.invoke(null, threadFactory);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Unable to create virtual thread executor for '" + threadNamePrefix + "'", e);
+    }
+  }
+
+  static class VirtualThreadProcessingStrategy extends AbstractProcessingStrategy implements Startable, Stoppable {
+
+    private final Supplier<ExecutorService> executorSupplier;
+    private ExecutorService executor;
+
+    public VirtualThreadProcessingStrategy(Supplier<ExecutorService> executorSupplier) {
+      this.executorSupplier = requireNonNull(executorSupplier);
+    }
+
+    @Override
+    public Sink createSink(FlowConstruct flowConstruct, ReactiveProcessor pipeline) {
+      return new StreamPerEventSink(pipeline, createOnEventConsumer());
+    }
+
+    @Override
+    public ReactiveProcessor onPipeline(ReactiveProcessor pipeline) {
+      return publisher -> from(publisher).publishOn(fromExecutorService(decorate(executor))).transform(pipeline);
+    }
+
+    @Override
+    public ReactiveProcessor onProcessor(ReactiveProcessor processor) {
+      if (processor.getProcessingType() == CPU_LITE_ASYNC) {
+        return publisher -> from(publisher).transform(processor).publishOn(fromExecutorService(decorate(executor)));
+      } else {
+        return super.onProcessor(processor);
+      }
+    }
+
+    private ExecutorService decorate(ExecutorService executor) {
+      return executor instanceof Scheduler ? decorateScheduler((Scheduler) executor) : executor;
+    }
+
+    @Override
+    public void start() throws MuleException {
+      this.executor = executorSupplier.get();
+    }
+
+    @Override
+    public void stop() throws MuleException {
+      if (executor instanceof Scheduler) {
+        ((Scheduler) executor).stop();
+      } else if (executor != null) {
+        executor.shutdownNow();
+      }
+    }
+
+  }
+
+  /**
+   * {@link ExecutorService} decorator that limits the number of tasks that may be running concurrently. As with the IO
+   * {@link Scheduler}, tasks that exceed the limit are rejected rather than queued so that the caller can signal back-pressure.
+   */
+  static final class ConcurrencyLimitedExecutorService extends AbstractExecutorService {
+
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+
+    ConcurrencyLimitedExecutorService(ExecutorService delegate, int maxConcurrency) {
+      this.delegate = requireNonNull(delegate);
+      this.permits = maxConcurrency == MAX_VALUE ? null : new Semaphore(maxConcurrency);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+      if (permits == null) {
+        delegate.execute(command);
+        return;
+      }
+      if (!permits.tryAcquire()) {
+        throw new RejectedExecutionException("Maximum concurrency reached, task rejected");
+      }
+      try {
+        delegate.execute(() -> {
+          try {
+            command.run();
+          } finally {
+            permits.release();
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        permits.release();
+        throw e;
+      }
+    }
+
+    @Override
+    public void shutdown() {
+      delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+      return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+      return delegate.awaitTermination(timeout, unit);
+    }
+  }
+
+}
@@ -33,6 +33,7 @@ import org.mule.runtime.core.api.routing.ForkJoinStrategy;
 import org.mule.runtime.core.api.routing.ForkJoinStrategy.RoutingPair;
 import org.mule.runtime.core.api.routing.ForkJoinStrategyFactory;
 import org.mule.runtime.core.api.scheduler.SchedulerService;
+import org.mule.runtime.core.internal.util.concurrent.TimerSchedulerDecorator;
 
 import java.util.function.Consumer;
 
@@ -114,7 +115,8 @@ public abstract class AbstractForkJoinRouter extends AbstractMuleObjectOwner<Mes
         .map(flow -> flow.getProcessingStrategy())
         .orElse(DIRECT_PROCESSING_STRATEGY_INSTANCE);
     expressionManager = muleContext.getExpressionManager();
-    timeoutScheduler = schedulerService.cpuLightScheduler();
+    // there's a timeout per route of each event, most of them cancelled, so these are kept in the shared timer
+    timeoutScheduler = new TimerSchedulerDecorator(muleContext, schedulerService.cpuLightScheduler());
     timeoutErrorType = muleContext.getErrorTypeRepository().getErrorType(TIMEOUT).get();
     maxConcurrency = maxConcurrency != null ? maxConcurrency : getDefaultMaxConcurrency();
     forkJoinStrategyFactory = forkJoinStrategyFactory != null ? forkJoinStrategyFactory : getDefaultForkJoinStrategyFactory();
@@ -161,10 +161,11 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
   @SuppressWarnings("unchecked")
   public Iterator<InternalEvent> iterator(boolean sortByArrival) throws ObjectStoreException {
     synchronized (this) {
-      if (eventsObjectStore.allKeys(eventsPartitionKey).isEmpty()) {
+      InternalEvent[] events = this.toArray(sortByArrival);
+      if (events.length == 0) {
         return IteratorUtils.emptyIterator();
       } else {
-        return IteratorUtils.arrayIterator(this.toArray(sortByArrival));
+        return IteratorUtils.arrayIterator(events);
       }
     }
   }
@@ -188,10 +189,10 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
    */
   public InternalEvent[] toArray(boolean sortByArrival) throws ObjectStoreException {
     synchronized (this) {
-      if (eventsObjectStore.allKeys(eventsPartitionKey).isEmpty()) {
+      List<String> keys = eventsObjectStore.allKeys(eventsPartitionKey);
+      if (keys.isEmpty()) {
         return EMPTY_EVENTS_ARRAY;
       }
-      List<String> keys = eventsObjectStore.allKeys(eventsPartitionKey);
       InternalEvent[] eventArray = new InternalEvent[keys.size()];
       for (int i = 0; i < keys.size(); i++) {
         eventArray[i] = eventsObjectStore.retrieve(keys.get(i), eventsPartitionKey);
@@ -284,15 +285,14 @@ public class EventGroup implements Comparable<EventGroup>, Serializable, Deseria
 
     try {
       synchronized (this) {
-        int currentSize;
-
-        currentSize = eventsObjectStore.allKeys(eventsPartitionKey).size();
+        List<String> keys = eventsObjectStore.allKeys(eventsPartitionKey);
+        int currentSize = keys.size();
 
         buf.append(", current events=").append(currentSize);
 
         if (currentSize > 0) {
           buf.append(" [");
-          Iterator<String> i = eventsObjectStore.allKeys(eventsPartitionKey).iterator();
+          Iterator<String> i = keys.iterator();
           while (i.hasNext()) {
             String id = i.next();
             buf.append(eventsObjectStore.retrieve(id, eventsPartitionKey).getCorrelationId());
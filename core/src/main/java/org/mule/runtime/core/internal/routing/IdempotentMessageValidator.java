@@ -117,51 +117,43 @@ public class IdempotentMessageValidator extends AbstractAnnotatedObject
     this.store = store;
   }
 
+  /**
+   * Checks and registers the id of the event in a single call to the object store, relying on it to reject an id that it already
+   * holds with an {@link ObjectAlreadyExistsException}. Concurrent duplicates are only told apart if the store makes that check
+   * atomically with the insert, as the object stores provided by Mule do.
+   */
   private boolean accept(InternalEvent event) {
-    if (event != null && isNewMessage(event)) {
-      try {
-        String id = getIdForEvent(event);
-        String value = getValueForEvent(event);
-        try {
-          store.store(id, value);
-          return true;
-        } catch (ObjectAlreadyExistsException ex) {
-          return false;
-        } catch (ObjectStoreNotAvailableException e) {
-          LOGGER.error("ObjectStore not available: " + e.getMessage());
-          return false;
-        } catch (ObjectStoreException e) {
-          LOGGER.warn("ObjectStore exception: " + e.getMessage());
-          return false;
-        }
-      } catch (MuleException e) {
-        LOGGER.warn("Could not retrieve Id or Value for event: " + e.getMessage());
-        return false;
-      }
-    } else {
+    if (event == null) {
       return false;
     }
-  }
 
-  @Override
-  public final InternalEvent process(InternalEvent event) throws MuleException {
-    if (accept(event)) {
-      return event;
-    } else {
-      throw new DuplicateMessageException();
+    String id;
+    String value;
+    try {
+      id = getIdForEvent(event);
+      value = getValueForEvent(event);
+    } catch (MuleException e) {
+      LOGGER.warn("Could not retrieve Id or Value for event: " + e.getMessage());
+      return false;
     }
-  }
 
-  protected boolean isNewMessage(InternalEvent event) {
     try {
-      String id = this.getIdForEvent(event);
       if (store == null) {
         synchronized (this) {
           initialise();
         }
       }
-      return !store.contains(id);
-    } catch (MuleException e) {
+      store.store(id, value);
+      return true;
+    } catch (ObjectAlreadyExistsException ex) {
+      return false;
+    } catch (ObjectStoreNotAvailableException e) {
+      LOGGER.error("ObjectStore not available: " + e.getMessage());
+      return false;
+    } catch (ObjectStoreException e) {
+      LOGGER.warn("ObjectStore exception: " + e.getMessage());
+      return false;
+    } catch (InitialisationException e) {
       LOGGER.error("Exception attempting to determine idempotency of incoming message for " + getLocation().getRootContainerName()
           + " from the connector "
           + event.getContext().getOriginatingLocation().getComponentIdentifier().getIdentifier().getNamespace(), e);
@@ -169,6 +161,15 @@ public class IdempotentMessageValidator extends AbstractAnnotatedObject
     }
   }
 
+  @Override
+  public final InternalEvent process(InternalEvent event) throws MuleException {
+    if (accept(event)) {
+      return event;
+    } else {
+      throw new DuplicateMessageException();
+    }
+  }
+
   public String getValueExpression() {
     return valueExpression;
   }
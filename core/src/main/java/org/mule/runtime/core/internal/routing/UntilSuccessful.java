@@ -32,6 +32,7 @@ import org.mule.runtime.core.api.processor.ReactiveProcessor;
 import org.mule.runtime.core.api.processor.Router;
 import org.mule.runtime.core.api.retry.policy.RetryPolicyExhaustedException;
 import org.mule.runtime.core.api.retry.policy.SimpleRetryPolicyTemplate;
+import org.mule.runtime.core.internal.util.concurrent.TimerSchedulerDecorator;
 
 import java.util.List;
 import java.util.function.Function;
@@ -78,7 +79,7 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Router {
     this.nestedChain =
         newChain(getProcessingStrategy(muleContext, getRootContainerName()), processors);
     super.initialise();
-    timer = muleContext.getSchedulerService().cpuLightScheduler();
+    timer = new TimerSchedulerDecorator(muleContext, muleContext.getSchedulerService().cpuLightScheduler());
     policyTemplate =
         new SimpleRetryPolicyTemplate(millisBetweenRetries, maxRetries, timer);
     shouldRetry = event -> event.getError().isPresent();
@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.internal.routing.correlation;
 
+import static java.lang.Integer.getInteger;
 import static java.lang.String.format;
 import static java.lang.System.currentTimeMillis;
 import static java.util.concurrent.TimeUnit.DAYS;
@@ -45,6 +46,7 @@ import org.mule.runtime.core.api.util.StringMessageUtils;
 import org.mule.runtime.core.api.util.monitor.Expirable;
 import org.mule.runtime.core.api.util.monitor.ExpiryMonitor;
 import org.mule.runtime.core.internal.routing.EventGroup;
+import org.mule.runtime.core.internal.util.concurrent.TimerSchedulerDecorator;
 
 import java.text.MessageFormat;
 import java.util.ArrayList;
@@ -64,9 +66,15 @@ public class EventCorrelator implements Startable, Stoppable {
 
   private static final long DELAY_TIME = 10;
 
-  protected final Object groupsLock = new Object();
+  /**
+   * The number of locks among which the event groups are spread, so that events for different groups can be correlated
+   * concurrently. Rounded up to a power of two.
+   */
+  private static final int GROUP_LOCKS = getInteger(EventCorrelator.class.getName() + ".GROUP_LOCKS", 64);
+
+  private final Object[] groupLocks = createGroupLocks(GROUP_LOCKS);
 
-  // @GuardedBy groupsLock
+  // @GuardedBy the lock of each group
   protected ObjectStore<Long> processedGroups = null;
 
   private long timeout = -1; // undefined
@@ -185,7 +193,7 @@ public class EventCorrelator implements Startable, Stoppable {
       }
 
       // ensure that only one thread at a time evaluates this EventGroup
-      synchronized (groupsLock) {
+      synchronized (getGroupLock(groupId)) {
         if (logger.isDebugEnabled()) {
           logger.debug("Adding event to aggregator group: " + groupId);
         }
@@ -257,7 +265,7 @@ public class EventCorrelator implements Startable, Stoppable {
 
   protected void removeEventGroup(EventGroup group) throws ObjectStoreException {
     final Object groupId = group.getGroupId();
-    synchronized (groupsLock) {
+    synchronized (getGroupLock(groupId)) {
       if (!isGroupAlreadyProcessed(groupId)) {
         correlatorStore.remove((String) groupId, getEventGroupsPartitionKey());
         addProcessedGroup(groupId);
@@ -266,17 +274,43 @@ public class EventCorrelator implements Startable, Stoppable {
   }
 
   protected void addProcessedGroup(Object id) throws ObjectStoreException {
-    synchronized (groupsLock) {
+    synchronized (getGroupLock(id)) {
       processedGroups.store((String) id, currentTimeMillis());
     }
   }
 
   protected boolean isGroupAlreadyProcessed(Object id) throws ObjectStoreException {
-    synchronized (groupsLock) {
+    synchronized (getGroupLock(id)) {
       return processedGroups.contains((String) id);
     }
   }
 
+  /**
+   * Provides the lock that guards the processing of the group with the given id. Events for groups with different locks may be
+   * processed concurrently.
+   *
+   * @param groupId the id of the group
+   * @return the lock for the group
+   */
+  protected Object getGroupLock(Object groupId) {
+    int hash = groupId == null ? 0 : groupId.hashCode();
+    // spread the higher bits, as done by HashMap
+    hash ^= hash >>> 16;
+    return groupLocks[hash & (groupLocks.length - 1)];
+  }
+
+  private static Object[] createGroupLocks(int count) {
+    int size = 1;
+    while (size < count) {
+      size <<= 1;
+    }
+    Object[] locks = new Object[size];
+    for (int i = 0; i < size; ++i) {
+      locks[i] = new Object();
+    }
+    return locks;
+  }
+
   public boolean isFailOnTimeout() {
     return failOnTimeout;
   }
@@ -351,8 +385,9 @@ public class EventCorrelator implements Startable, Stoppable {
   public void start() throws MuleException {
     logger.info("Starting event correlator: " + name);
     if (timeout != 0) {
-      scheduler = muleContext.getSchedulerService().customScheduler(muleContext.getSchedulerBaseConfig().withName(name)
-          .withMaxConcurrentTasks(1).withShutdownTimeout(0, MILLISECONDS));
+      // timed by the shared timer instead of a thread per correlator, with a fixed delay so that checks never overlap
+      scheduler = new TimerSchedulerDecorator(muleContext, muleContext.getSchedulerService()
+          .ioScheduler(muleContext.getSchedulerBaseConfig().withName(name).withShutdownTimeout(0, MILLISECONDS)));
       expiringGroupRunnable = new ExpiringGroupMonitoringRunnable();
       scheduler.scheduleWithFixedDelay(expiringGroupRunnable, 0, DELAY_TIME, MILLISECONDS);
     }
@@ -0,0 +1,375 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.api.util.IOUtils.closeQuietly;
+import static org.mule.runtime.core.api.util.IOUtils.toByteArray;
+import org.mule.runtime.api.serialization.SerializationException;
+import org.mule.runtime.api.serialization.SerializationProtocol;
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.SequenceInputStream;
+import java.io.StreamCorruptedException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.apache.commons.io.input.ClassLoaderObjectInputStream;
+
+/**
+ * Implementation of {@link SerializationProtocol} that writes a compact binary form, meant for data that is written and read
+ * by the runtime itself, such as persistent queues and object stores.
+ * <p>
+ * Strings, byte arrays and the most common boxed primitives are written with a one byte type tag and no other metadata. Any
+ * other {@link Serializable} object is written with Java's serialization mechanism, but without the stream header and
+ * replacing the descriptors of the classes registered in this protocol with a numeric id.
+ * <p>
+ * Data written by {@link JavaExternalSerializerProtocol} can also be read by this protocol, so it can be enabled on a runtime
+ * that has already persisted data in that format. The opposite is not true.
+ *
+ * @since 4.0
+ */
+public class CompactSerializationProtocol extends AbstractSerializationProtocol {
+
+  private static final byte NULL = 1;
+  private static final byte STRING = 2;
+  private static final byte BYTES = 3;
+  private static final byte INTEGER = 4;
+  private static final byte LONG = 5;
+  private static final byte BOOLEAN = 6;
+  private static final byte DOUBLE = 7;
+  private static final byte OBJECT = 8;
+
+  /**
+   * The first byte of a stream written by an {@link ObjectOutputStream}.
+   */
+  private static final int JAVA_STREAM_MAGIC_HEAD = (ObjectOutputStream.STREAM_MAGIC >>> 8) & 0xFF;
+
+  private static final byte REGISTERED_CLASS = 1;
+  private static final byte UNREGISTERED_CLASS = 0;
+
+  /**
+   * The classes whose descriptors are written as their position in this list. Their serialized form must not depend on the
+   * version of the runtime. Classes may only be added at the end, since the ids are part of the persisted data.
+   */
+  private static final List<Class<?>> REGISTERED_CLASSES = unmodifiableList(asList(Number.class,
+                                                                                   Integer.class,
+                                                                                   Long.class,
+                                                                                   Short.class,
+                                                                                   Byte.class,
+                                                                                   Double.class,
+                                                                                   Float.class,
+                                                                                   Boolean.class,
+                                                                                   Character.class,
+                                                                                   Enum.class,
+                                                                                   BigInteger.class,
+                                                                                   BigDecimal.class,
+                                                                                   Date.class,
+                                                                                   ArrayList.class,
+                                                                                   LinkedList.class,
+                                                                                   HashMap.class,
+                                                                                   LinkedHashMap.class,
+                                                                                   TreeMap.class,
+                                                                                   HashSet.class,
+                                                                                   LinkedHashSet.class,
+                                                                                   TreeSet.class,
+                                                                                   byte[].class,
+                                                                                   Object[].class,
+                                                                                   String[].class));
+
+  private static final Map<Class<?>, Integer> REGISTERED_CLASS_IDS = new HashMap<>();
+
+  static {
+    for (int i = 0; i < REGISTERED_CLASSES.size(); ++i) {
+      REGISTERED_CLASS_IDS.put(REGISTERED_CLASSES.get(i), i);
+    }
+  }
+
+  private static final int INITIAL_BUFFER_SIZE = 512;
+  private static final int MAX_REUSED_BUFFER_SIZE = 64 * 1024;
+
+  private static final ThreadLocal<OutputBuffer> BUFFER = new ThreadLocal<>();
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void serialize(Object object, OutputStream out) throws SerializationException {
+    try {
+      DataOutputStream dataOut = new DataOutputStream(out);
+      writeObject(object, dataOut);
+      dataOut.flush();
+    } catch (IOException e) {
+      throw new SerializationException("Could not write to output stream", e);
+    } finally {
+      closeQuietly(out);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected byte[] doSerialize(Object object) throws Exception {
+    OutputBuffer buffer = BUFFER.get();
+    if (buffer == null) {
+      buffer = new OutputBuffer();
+    } else {
+      // the buffer is taken while serializing in case an object serializes another one from its writeObject method
+      BUFFER.set(null);
+      buffer.reset();
+    }
+
+    try {
+      DataOutputStream out = new DataOutputStream(buffer);
+      writeObject(object, out);
+      out.flush();
+      return buffer.toByteArray();
+    } finally {
+      if (buffer.capacity() <= MAX_REUSED_BUFFER_SIZE) {
+        BUFFER.set(buffer);
+      }
+    }
+  }
+
+  private void writeObject(Object object, DataOutputStream out) throws IOException {
+    // a cursor provider only references its stream, so its content is written instead and read back as a byte array
+    if (object instanceof CursorStreamProvider) {
+      try (CursorStream cursor = ((CursorStreamProvider) object).openCursor()) {
+        object = toByteArray(cursor);
+      } catch (IOException e) {
+        throw new SerializationException(createStaticMessage("Could not serialize cursor stream"), e);
+      }
+    }
+
+    if (object == null) {
+      out.writeByte(NULL);
+    } else if (object instanceof String) {
+      out.writeByte(STRING);
+      writeBytes(((String) object).getBytes(UTF_8), out);
+    } else if (object instanceof byte[]) {
+      out.writeByte(BYTES);
+      writeBytes((byte[]) object, out);
+    } else if (object instanceof Integer) {
+      out.writeByte(INTEGER);
+      out.writeInt((Integer) object);
+    } else if (object instanceof Long) {
+      out.writeByte(LONG);
+      out.writeLong((Long) object);
+    } else if (object instanceof Boolean) {
+      out.writeByte(BOOLEAN);
+      out.writeBoolean((Boolean) object);
+    } else if (object instanceof Double) {
+      out.writeByte(DOUBLE);
+      out.writeDouble((Double) object);
+    } else {
+      validateForSerialization(object);
+      out.writeByte(OBJECT);
+      ObjectOutputStream objectOut = new CompactObjectOutputStream(out);
+      objectOut.writeObject(object);
+      objectOut.flush();
+    }
+  }
+
+  private void writeBytes(byte[] bytes, DataOutputStream out) throws IOException {
+    writeLength(bytes.length, out);
+    out.write(bytes);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected <T> T doDeserialize(InputStream inputStream, ClassLoader classLoader) throws Exception {
+    checkArgument(inputStream != null, "Cannot deserialize a null stream");
+    checkArgument(classLoader != null, "Cannot deserialize with a null classloader");
+
+    DataInputStream in = new DataInputStream(inputStream);
+    int tag = in.read();
+    switch (tag) {
+      case NULL:
+        return null;
+      case STRING:
+        return (T) new String(readBytes(in), UTF_8);
+      case BYTES:
+        return (T) readBytes(in);
+      case INTEGER:
+        return (T) Integer.valueOf(in.readInt());
+      case LONG:
+        return (T) Long.valueOf(in.readLong());
+      case BOOLEAN:
+        return (T) Boolean.valueOf(in.readBoolean());
+      case DOUBLE:
+        return (T) Double.valueOf(in.readDouble());
+      case OBJECT:
+        return (T) new CompactObjectInputStream(in, classLoader).readObject();
+      case JAVA_STREAM_MAGIC_HEAD:
+        InputStream javaStream = new SequenceInputStream(new ByteArrayInputStream(new byte[] {(byte) tag}), in);
+        return (T) new ClassLoaderObjectInputStream(classLoader, javaStream).readObject();
+      case -1:
+        throw new EOFException("No serialized object found");
+      default:
+        throw new StreamCorruptedException(format("Unknown type tag %d", tag));
+    }
+  }
+
+  private byte[] readBytes(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[readLength(in)];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+  private void writeLength(int length, DataOutputStream out) throws IOException {
+    while ((length & ~0x7F) != 0) {
+      out.writeByte((length & 0x7F) | 0x80);
+      length >>>= 7;
+    }
+    out.writeByte(length);
+  }
+
+  private int readLength(DataInputStream in) throws IOException {
+    int length = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      int b = in.readUnsignedByte();
+      length |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return length;
+      }
+    }
+    throw new StreamCorruptedException("Malformed length");
+  }
+
+  private void validateForSerialization(Object object) {
+    if (!(object instanceof Serializable)) {
+      throw new SerializationException(format("Was expecting a Serializable type. %s was found instead",
+                                              object.getClass().getName()));
+    }
+  }
+
+  /**
+   * An {@link ObjectOutputStream} that doesn't write a stream header and writes the registered classes by id.
+   */
+  private static final class CompactObjectOutputStream extends ObjectOutputStream {
+
+    CompactObjectOutputStream(OutputStream out) throws IOException {
+      super(out);
+    }
+
+    @Override
+    protected void writeStreamHeader() throws IOException {
+      // the type tag already identifies the stream
+    }
+
+    @Override
+    protected void writeClassDescriptor(ObjectStreamClass desc) throws IOException {
+      Integer id = REGISTERED_CLASS_IDS.get(desc.forClass());
+      if (id != null) {
+        writeByte(REGISTERED_CLASS);
+        writeShort(id);
+      } else {
+        writeByte(UNREGISTERED_CLASS);
+        super.writeClassDescriptor(desc);
+      }
+    }
+  }
+
+  /**
+   * An {@link ObjectInputStream} that reads what a {@link CompactObjectOutputStream} writes, resolving classes with a given
+   * {@link ClassLoader}.
+   */
+  private static final class CompactObjectInputStream extends ObjectInputStream {
+
+    private final ClassLoader classLoader;
+
+    CompactObjectInputStream(InputStream in, ClassLoader classLoader) throws IOException {
+      super(in);
+      this.classLoader = classLoader;
+    }
+
+    @Override
+    protected void readStreamHeader() throws IOException {
+      // the type tag already identified the stream
+    }
+
+    @Override
+    protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+      if (readByte() == REGISTERED_CLASS) {
+        int id = readUnsignedShort();
+        if (id >= REGISTERED_CLASSES.size()) {
+          throw new InvalidClassException(format("Unknown class id %d", id));
+        }
+        return ObjectStreamClass.lookupAny(REGISTERED_CLASSES.get(id));
+      }
+      return super.readClassDescriptor();
+    }
+
+    @Override
+    protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+      try {
+        return Class.forName(desc.getName(), false, classLoader);
+      } catch (ClassNotFoundException e) {
+        // primitive types can't be loaded by name
+        return super.resolveClass(desc);
+      }
+    }
+
+    @Override
+    protected Class<?> resolveProxyClass(String[] interfaces) throws IOException, ClassNotFoundException {
+      Class<?>[] interfaceClasses = new Class<?>[interfaces.length];
+      for (int i = 0; i < interfaces.length; i++) {
+        interfaceClasses[i] = Class.forName(interfaces[i], false, classLoader);
+      }
+      try {
+        return Proxy.getProxyClass(classLoader, interfaceClasses);
+      } catch (IllegalArgumentException e) {
+        return super.resolveProxyClass(interfaces);
+      }
+    }
+  }
+
+  private static final class OutputBuffer extends ByteArrayOutputStream {
+
+    OutputBuffer() {
+      super(INITIAL_BUFFER_SIZE);
+    }
+
+    int capacity() {
+      return buf.length;
+    }
+  }
+}
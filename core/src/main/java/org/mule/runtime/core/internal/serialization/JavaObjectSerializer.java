@@ -7,6 +7,9 @@
 
 package org.mule.runtime.core.internal.serialization;
 
+import static java.lang.Boolean.getBoolean;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_SERIALIZATION_COMPACT_INTERNAL_PROTOCOL;
+
 import org.mule.runtime.api.serialization.ObjectSerializer;
 import org.mule.runtime.api.serialization.SerializationProtocol;
 import org.mule.runtime.core.api.MuleContext;
@@ -14,14 +17,19 @@ import org.mule.runtime.core.api.context.MuleContextAware;
 
 /**
  * Serializes objects using the default Java serialization mechanism provided by writeObject and readObject methods.
+ * <p>
+ * When the {@link org.mule.runtime.core.api.config.MuleProperties#MULE_SERIALIZATION_COMPACT_INTERNAL_PROTOCOL} system property
+ * is set, the internal protocol is a {@link CompactSerializationProtocol} instead.
  */
 public class JavaObjectSerializer implements ObjectSerializer, MuleContextAware {
 
   private volatile JavaExternalSerializerProtocol javaSerializerProtocol = new JavaExternalSerializerProtocol();
+  private volatile AbstractSerializationProtocol internalSerializerProtocol =
+      getBoolean(MULE_SERIALIZATION_COMPACT_INTERNAL_PROTOCOL) ? new CompactSerializationProtocol() : javaSerializerProtocol;
 
   @Override
   public SerializationProtocol getInternalProtocol() {
-    return javaSerializerProtocol;
+    return internalSerializerProtocol;
   }
 
   @Override
@@ -32,5 +40,6 @@ public class JavaObjectSerializer implements ObjectSerializer, MuleContextAware
   @Override
   public void setMuleContext(MuleContext context) {
     javaSerializerProtocol.setMuleContext(context);
+    internalSerializerProtocol.setMuleContext(context);
   }
 }
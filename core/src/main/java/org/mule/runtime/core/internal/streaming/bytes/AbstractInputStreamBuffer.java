@@ -171,7 +171,14 @@ public abstract class AbstractInputStreamBuffer extends AbstractStreamingBuffer
   private ByteBuffer softCopy(long position, int length) {
     final int offset = toIntExact(position);
     final ByteBuffer b = buffer.get();
-    return ByteBuffer.wrap(b.array(), offset, min(length, b.limit() - offset)).slice();
+    length = min(length, b.limit() - offset);
+    if (b.hasArray()) {
+      return ByteBuffer.wrap(b.array(), offset, length).slice();
+    }
+
+    ByteBuffer view = b.duplicate();
+    view.limit(offset + length).position(offset);
+    return view.slice();
   }
 
   private ByteBuffer hardCopy(long position, int length) {
@@ -180,7 +187,13 @@ public abstract class AbstractInputStreamBuffer extends AbstractStreamingBuffer
     length = min(length, bf.limit() - offset);
 
     byte[] b = new byte[length];
-    arraycopy(bf.array(), offset, b, 0, length);
+    if (bf.hasArray()) {
+      arraycopy(bf.array(), offset, b, 0, length);
+    } else {
+      ByteBuffer view = bf.duplicate();
+      view.position(offset);
+      view.get(b, 0, length);
+    }
     return ByteBuffer.wrap(b);
   }
 }
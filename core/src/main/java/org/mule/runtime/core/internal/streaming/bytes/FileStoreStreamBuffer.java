@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.streaming.TempBufferFileUtils.createBufferFile;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.api.streaming.bytes.FileStoreCursorStreamConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An implementation of {@link AbstractInputStreamBuffer} which keeps the first
+ * {@link FileStoreCursorStreamConfig#getMaxInMemorySize()} bytes of the stream in memory and spills the rest
+ * to a temporal file.
+ * <p>
+ * The file is accessed through fixed size memory mapped regions. The stream is consumed directly into those
+ * regions and the data requested by the cursors is returned as slices of them, so reading spilled data
+ * involves neither copies nor system calls. Because only the in memory portion is accounted for by the
+ * {@link ByteBufferManager}, streams of arbitrary size can be made repeatable.
+ * <p>
+ * The regions are not unmapped explicitly when the buffer is closed, as a cursor may still be reading a slice of them. They are
+ * unmapped once they and all their slices are garbage collected, while the temporal file is deleted right away.
+ *
+ * @since 4.0
+ */
+public class FileStoreStreamBuffer extends AbstractInputStreamBuffer {
+
+  static final int MAPPED_REGION_SIZE = getInteger(FileStoreStreamBuffer.class.getName() + ".MAPPED_REGION_SIZE",
+                                                   64 * 1024 * 1024);
+
+  private final int maxInMemorySize;
+  private final int mappedRegionSize;
+  private final List<MappedByteBuffer> regions = new ArrayList<>();
+  private File bufferFile;
+  private RandomAccessFile randomAccessFile;
+  private FileChannel fileChannel;
+  private long bufferTip = 0;
+
+  /**
+   * Creates a new instance
+   *
+   * @param stream        the stream to be buffered
+   * @param config        this buffer's configuration.
+   * @param bufferManager the {@link ByteBufferManager} that will be used to allocate the in memory buffer
+   */
+  public FileStoreStreamBuffer(InputStream stream, FileStoreCursorStreamConfig config, ByteBufferManager bufferManager) {
+    this(stream, config, bufferManager, MAPPED_REGION_SIZE);
+  }
+
+  FileStoreStreamBuffer(InputStream stream, FileStoreCursorStreamConfig config, ByteBufferManager bufferManager,
+                        int mappedRegionSize) {
+    super(stream, bufferManager, config.getMaxInMemorySize().toBytes());
+    this.maxInMemorySize = config.getMaxInMemorySize().toBytes();
+    this.mappedRegionSize = mappedRegionSize;
+  }
+
+  @Override
+  protected ByteBuffer doGet(long position, int length) {
+    return doGet(position, length, true);
+  }
+
+  private ByteBuffer doGet(long position, int length, boolean consumeStreamIfNecessary) {
+    return withReadLock(releaser -> {
+
+      ByteBuffer presentRead = getFromCurrentData(position, length);
+      if (presentRead != null) {
+        return presentRead;
+      }
+
+      if (consumeStreamIfNecessary) {
+        releaser.release();
+        return withWriteLock(() -> {
+
+          ByteBuffer refetch = getFromCurrentData(position, length);
+          if (refetch != null) {
+            return refetch;
+          }
+
+          while (!isStreamFullyConsumed() && bufferTip <= position) {
+            try {
+              consumeForwardData();
+            } catch (IOException e) {
+              throw new MuleRuntimeException(createStaticMessage("Could not read stream"), e);
+            }
+          }
+
+          return doGet(position, length, false);
+        });
+      } else {
+        return getFromCurrentData(position, length);
+      }
+    });
+  }
+
+  private ByteBuffer getFromCurrentData(long position, int length) {
+    if (position >= bufferTip) {
+      return null;
+    }
+
+    length = toIntExact(min(length, bufferTip - position));
+    if (position < maxInMemorySize) {
+      return copy(position, min(length, toIntExact(maxInMemorySize - position)));
+    }
+
+    long filePosition = position - maxInMemorySize;
+    int offset = toIntExact(filePosition % mappedRegionSize);
+    ByteBuffer view = regions.get(toIntExact(filePosition / mappedRegionSize)).duplicate();
+    view.limit(offset + min(length, mappedRegionSize - offset)).position(offset);
+    return view.slice();
+  }
+
+  /**
+   * {@inheritDoc}
+   * Data is read into the in memory buffer until it's full, and into the memory mapped region of the
+   * temporal file that corresponds to the stream's current position afterwards.
+   */
+  @Override
+  public int consumeForwardData() throws IOException {
+    final int read;
+    if (bufferTip < maxInMemorySize) {
+      read = consumeStream(buffer.get());
+    } else {
+      read = consumeStream(currentRegion());
+    }
+
+    if (read > 0) {
+      bufferTip += read;
+    } else {
+      streamFullyConsumed();
+    }
+
+    return read;
+  }
+
+  private MappedByteBuffer currentRegion() throws IOException {
+    int regionIndex = toIntExact((bufferTip - maxInMemorySize) / mappedRegionSize);
+    if (regionIndex < regions.size()) {
+      return regions.get(regionIndex);
+    }
+
+    if (fileChannel == null) {
+      bufferFile = createBufferFile("stream-buffer");
+      randomAccessFile = new RandomAccessFile(bufferFile, "rw");
+      fileChannel = randomAccessFile.getChannel();
+    }
+
+    MappedByteBuffer region = fileChannel.map(READ_WRITE, (long) regionIndex * mappedRegionSize, mappedRegionSize);
+    regions.add(region);
+    return region;
+  }
+
+  /**
+   * The in memory buffer is never reallocated, so it's always safe to share its content
+   */
+  @Override
+  protected boolean canDoSoftCopy() {
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   * Closes and deletes the temporal file, if one was created. The mapped regions remain valid for the slices that cursors may
+   * still hold.
+   */
+  @Override
+  public void doClose() {
+    regions.clear();
+    if (fileChannel != null) {
+      closeSafely(fileChannel::close);
+      closeSafely(randomAccessFile::close);
+    }
+    if (bufferFile != null) {
+      closeSafely(() -> {
+        if (!bufferFile.delete()) {
+          bufferFile.deleteOnExit();
+        }
+      });
+    }
+  }
+
+  /**
+   * @return the temporal file used to spill data, or {@code null} if the stream fit in memory.
+   */
+  File getBufferFile() {
+    return bufferFile;
+  }
+}
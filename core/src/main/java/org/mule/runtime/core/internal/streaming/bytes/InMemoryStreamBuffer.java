@@ -174,7 +174,8 @@ public class InMemoryStreamBuffer extends AbstractInputStreamBuffer {
    */
   private ByteBuffer expandBuffer() {
     ByteBuffer b = buffer.get();
-    int newSize = b.capacity() + bufferSizeIncrement;
+    // the limit, as the buffer manager may hand out buffers with a larger capacity than requested
+    int newSize = b.limit() + bufferSizeIncrement;
     if (!canBeExpandedTo(newSize)) {
       throw new StreamingBufferSizeExceededException(maxBufferSize);
     }
@@ -193,7 +194,7 @@ public class InMemoryStreamBuffer extends AbstractInputStreamBuffer {
   @Override
   protected boolean canDoSoftCopy() {
     return streamFullyConsumed ||
-        buffer.get().capacity() >= maxBufferSize ||
+        buffer.get().limit() >= maxBufferSize ||
         bufferSizeIncrement == 0;
   }
 
@@ -112,7 +112,15 @@ public class PoolingByteBufferManager implements ByteBufferManager, Disposable {
     this.waitTimeoutMillis = waitTimeoutMillis;
   }
 
-  private long calculateMaxStreamingMemory(MemoryManager memoryManager) {
+  /**
+   * Calculates the maximum amount of memory that may be retained by buffers, which is the value of the
+   * {@code MULE_STREAMING_MAX_MEMORY} system property or, if not set, 50% of calling
+   * {@link MemoryManager#getMaxMemory()} on the given {@code memoryManager}.
+   *
+   * @param memoryManager a {@link MemoryManager} used to determine the runtime's max memory
+   * @return the max streaming memory, in bytes
+   */
+  static long calculateMaxStreamingMemory(MemoryManager memoryManager) {
     String maxMemoryProperty = getProperty(MULE_STREAMING_MAX_MEMORY);
     if (maxMemoryProperty == null) {
       return round(memoryManager.getMaxMemory() * 0.5);
@@ -0,0 +1,427 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static java.lang.System.nanoTime;
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+import static org.mule.runtime.api.config.PoolingProfile.DEFAULT_MAX_POOL_WAIT;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.streaming.bytes.PoolingByteBufferManager.calculateMaxStreamingMemory;
+
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.internal.streaming.DefaultMemoryManager;
+import org.mule.runtime.core.internal.streaming.MemoryManager;
+
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * {@link ByteBufferManager} implementation which hands out direct (off-heap) buffers carved from larger slabs.
+ * <p>
+ * Buffers are grouped in size classes. Requested capacities are rounded up to the next size class, with four size classes
+ * between consecutive powers of two, so the returned buffers may have a capacity up to 25% larger than requested, with their
+ * limit set to the requested capacity. Each size class carves its buffers from slabs of direct
+ * memory using a lock-free bump pointer and recycles deallocated buffers through a small per-thread cache backed by a lock-free
+ * free list, so neither {@link #allocate(int)} nor {@link #deallocate(ByteBuffer)} acquire locks on the hot path and the buffers
+ * themselves put no pressure on the garbage collector.
+ * <p>
+ * As with {@link PoolingByteBufferManager}, the amount of memory retained by all the slabs is limited. When that limit is reached
+ * the slabs of size classes which have no buffers in use are released. If that is not enough, invocations to
+ * {@link #allocate(int)} wait until more memory becomes available and throw a {@link MaxStreamingMemoryExceededException} if
+ * that doesn't happen within {@link #waitTimeoutMillis} milliseconds. Size classes which are not used for a while are also
+ * released.
+ *
+ * @since 4.0
+ */
+public class SlabByteBufferManager implements ByteBufferManager, Disposable {
+
+  private static final String SYSTEM_PROPERTY_PREFIX = SlabByteBufferManager.class.getName() + ".";
+
+  static final int SLAB_SIZE = getInteger(SYSTEM_PROPERTY_PREFIX + "SLAB_SIZE", 1024 * 1024);
+  static final int MAX_BUFFERS_PER_SLAB = getInteger(SYSTEM_PROPERTY_PREFIX + "MAX_BUFFERS_PER_SLAB", 64);
+  static final int THREAD_CACHE_SIZE = getInteger(SYSTEM_PROPERTY_PREFIX + "THREAD_CACHE_SIZE", 4);
+
+  private static final long IDLE_SIZE_CLASS_EXPIRATION_NANOS = SECONDS.toNanos(10);
+  private static final long WAIT_INTERVAL_NANOS = MILLISECONDS.toNanos(1);
+
+  private final Map<Integer, SizeClass> sizeClasses = new ConcurrentHashMap<>();
+  private final AtomicLong streamingMemory = new AtomicLong(0);
+  private final AtomicLong lastExpiration = new AtomicLong(nanoTime());
+  private final long maxStreamingMemory;
+  private final long waitTimeoutMillis;
+
+  /**
+   * Creates a new instance which allows the slabs to grow up to 50% of the runtime's max memory and has a wait timeout of 10
+   * seconds. The definition of max memory is that of {@link MemoryManager#getMaxMemory()}
+   */
+  public SlabByteBufferManager() {
+    this(new DefaultMemoryManager(), DEFAULT_MAX_POOL_WAIT);
+  }
+
+  /**
+   * Creates a new instance which allows the slabs to grow up to 50% of calling {@link MemoryManager#getMaxMemory()} on the given
+   * {@code memoryManager}, and has {@code waitTimeoutMillis} as wait timeout.
+   *
+   * @param memoryManager     a {@link MemoryManager} used to determine the runtime's max memory
+   * @param waitTimeoutMillis how long to wait when the memory is exhausted
+   */
+  public SlabByteBufferManager(MemoryManager memoryManager, long waitTimeoutMillis) {
+    this.maxStreamingMemory = calculateMaxStreamingMemory(memoryManager);
+    this.waitTimeoutMillis = waitTimeoutMillis;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public ByteBuffer allocate(int capacity) {
+    int sizeClassCapacity = sizeClassCapacity(capacity);
+    while (true) {
+      SizeClass sizeClass = sizeClasses.get(sizeClassCapacity);
+      if (sizeClass == null) {
+        sizeClass = sizeClasses.computeIfAbsent(sizeClassCapacity, SizeClass::new);
+      }
+
+      ByteBuffer buffer = sizeClass.take();
+      if (buffer != null) {
+        buffer.clear().limit(capacity);
+        return buffer;
+      }
+    }
+  }
+
+  /**
+   * Rounds the given capacity up to a multiple of a quarter of its highest power of two, so that there are four size classes
+   * between consecutive powers of two and at most 25% of a buffer is wasted.
+   */
+  static int sizeClassCapacity(int capacity) {
+    if (capacity <= 8 || capacity > 1 << 30) {
+      return capacity;
+    }
+    int step = highestOneBit(capacity - 1) >> 2;
+    return (capacity + step - 1) & -step;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void deallocate(ByteBuffer byteBuffer) {
+    if (!byteBuffer.isDirect()) {
+      return;
+    }
+
+    SizeClass sizeClass = sizeClasses.get(byteBuffer.capacity());
+    if (sizeClass != null) {
+      sizeClass.give(byteBuffer);
+    }
+  }
+
+  @Override
+  public void dispose() {
+    sizeClasses.values().forEach(SizeClass::retire);
+    sizeClasses.clear();
+    streamingMemory.set(0);
+  }
+
+  /**
+   * @return the amount of memory currently retained by slabs, in bytes.
+   */
+  long getStreamingMemory() {
+    return streamingMemory.get();
+  }
+
+  private boolean tryReserve(long bytes) {
+    long current;
+    do {
+      current = streamingMemory.get();
+      if (current + bytes > maxStreamingMemory) {
+        return false;
+      }
+    } while (!streamingMemory.compareAndSet(current, current + bytes));
+    return true;
+  }
+
+  private void expireIdleSizeClasses() {
+    long last = lastExpiration.get();
+    long now = nanoTime();
+    if (now - last >= IDLE_SIZE_CLASS_EXPIRATION_NANOS && lastExpiration.compareAndSet(last, now)) {
+      releaseIdleSizeClasses(false);
+    }
+  }
+
+  /**
+   * Releases the slabs of the size classes that have no buffers in use.
+   *
+   * @param force whether to release the size classes regardless of how long ago they were last used
+   * @return whether any memory was released
+   */
+  private boolean releaseIdleSizeClasses(boolean force) {
+    boolean released = false;
+    long now = nanoTime();
+    for (SizeClass sizeClass : sizeClasses.values()) {
+      if ((force || now - sizeClass.lastAccess >= IDLE_SIZE_CLASS_EXPIRATION_NANOS) && sizeClass.tryRetire()) {
+        sizeClasses.remove(sizeClass.capacity, sizeClass);
+        released |= sizeClass.releaseMemory() > 0;
+      }
+    }
+    return released;
+  }
+
+  /**
+   * Buffers of the capacity of a size class.
+   */
+  private final class SizeClass {
+
+    private final int capacity;
+    private final int slabSize;
+    private final Queue<ByteBuffer> freeList = new ConcurrentLinkedQueue<>();
+    private final Queue<ThreadCache> threadCaches = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<ThreadCache> threadCache = ThreadLocal.withInitial(this::newThreadCache);
+    private final AtomicInteger inUse = new AtomicInteger(0);
+    private final AtomicLong reservedMemory = new AtomicLong(0);
+    private final AtomicReference<Slab> currentSlab = new AtomicReference<>();
+    private volatile boolean retired = false;
+    private volatile long lastAccess = nanoTime();
+
+    private SizeClass(int capacity) {
+      this.capacity = capacity;
+      this.slabSize = capacity * max(1, min(SLAB_SIZE / max(capacity, 1), MAX_BUFFERS_PER_SLAB));
+    }
+
+    /**
+     * @return a buffer of this class' capacity, or {@code null} if this class was retired and the caller has to retry on a new
+     *         one.
+     */
+    private ByteBuffer take() {
+      inUse.incrementAndGet();
+      if (retired) {
+        inUse.decrementAndGet();
+        return null;
+      }
+
+      lastAccess = nanoTime();
+
+      AtomicReferenceArray<ByteBuffer> cache = threadCache.get().buffers;
+      for (int i = cache.length() - 1; i >= 0; --i) {
+        ByteBuffer buffer = cache.get(i);
+        if (buffer != null && cache.compareAndSet(i, buffer, null)) {
+          return buffer;
+        }
+      }
+
+      ByteBuffer buffer = freeList.poll();
+      if (buffer != null) {
+        return buffer;
+      }
+
+      try {
+        return carve();
+      } catch (RuntimeException e) {
+        inUse.decrementAndGet();
+        throw e;
+      }
+    }
+
+    private void give(ByteBuffer buffer) {
+      AtomicReferenceArray<ByteBuffer> cache = threadCache.get().buffers;
+      boolean cached = false;
+      for (int i = 0; i < cache.length() && !cached; ++i) {
+        cached = cache.get(i) == null && cache.compareAndSet(i, null, buffer);
+      }
+
+      if (!cached) {
+        freeList.offer(buffer);
+      }
+      inUse.decrementAndGet();
+    }
+
+    /**
+     * Takes a buffer from the cache of any thread, so that buffers deallocated by threads which no longer allocate can be
+     * reused.
+     */
+    private ByteBuffer steal() {
+      pruneThreadCaches();
+      ByteBuffer pruned = freeList.poll();
+      if (pruned != null) {
+        return pruned;
+      }
+
+      for (ThreadCache cache : threadCaches) {
+        for (int i = 0; i < cache.buffers.length(); ++i) {
+          ByteBuffer buffer = cache.buffers.getAndSet(i, null);
+          if (buffer != null) {
+            return buffer;
+          }
+        }
+      }
+      return null;
+    }
+
+    private ThreadCache newThreadCache() {
+      pruneThreadCaches();
+      ThreadCache cache = new ThreadCache();
+      threadCaches.add(cache);
+      return cache;
+    }
+
+    /**
+     * Removes the caches of the threads that have finished, moving their buffers to the free list.
+     */
+    private void pruneThreadCaches() {
+      for (Iterator<ThreadCache> iterator = threadCaches.iterator(); iterator.hasNext();) {
+        ThreadCache cache = iterator.next();
+        if (!cache.isOwnerAlive()) {
+          iterator.remove();
+          for (int i = 0; i < cache.buffers.length(); ++i) {
+            ByteBuffer buffer = cache.buffers.getAndSet(i, null);
+            if (buffer != null) {
+              freeList.offer(buffer);
+            }
+          }
+        }
+      }
+    }
+
+    private ByteBuffer carve() {
+      expireIdleSizeClasses();
+      long deadline = 0;
+      while (true) {
+        Slab slab = currentSlab.get();
+        if (slab != null) {
+          ByteBuffer buffer = slab.next();
+          if (buffer != null) {
+            return buffer;
+          }
+        }
+
+        ByteBuffer buffer = freeList.poll();
+        if (buffer == null) {
+          buffer = steal();
+        }
+        if (buffer != null) {
+          return buffer;
+        }
+
+        // When memory is scarce a slab holding a single buffer is requested instead of failing right away
+        int newSlabSize = slabSize;
+        if (!tryReserve(newSlabSize)) {
+          newSlabSize = capacity;
+          if (!tryReserve(newSlabSize)) {
+            if (releaseIdleSizeClasses(true)) {
+              continue;
+            }
+
+            long now = nanoTime();
+            if (deadline == 0) {
+              deadline = now + MILLISECONDS.toNanos(waitTimeoutMillis);
+            } else if (now - deadline >= 0) {
+              throw new MaxStreamingMemoryExceededException(createStaticMessage(format(
+                                                                                       "Max streaming memory limit of %d bytes was exceeded",
+                                                                                       maxStreamingMemory)));
+            }
+            parkNanos(WAIT_INTERVAL_NANOS);
+            continue;
+          }
+        }
+
+        Slab newSlab = new Slab(ByteBuffer.allocateDirect(newSlabSize), capacity);
+        if (currentSlab.compareAndSet(slab, newSlab)) {
+          reservedMemory.addAndGet(newSlabSize);
+        } else {
+          streamingMemory.addAndGet(-newSlabSize);
+        }
+      }
+    }
+
+    private boolean tryRetire() {
+      retired = true;
+      if (inUse.get() != 0) {
+        retired = false;
+        return false;
+      }
+      return true;
+    }
+
+    private void retire() {
+      retired = true;
+    }
+
+    private long releaseMemory() {
+      currentSlab.set(null);
+      freeList.clear();
+      // the caches are still referenced by the threads that used them, so their buffers have to be dropped explicitly
+      for (ThreadCache cache : threadCaches) {
+        for (int i = 0; i < cache.buffers.length(); ++i) {
+          cache.buffers.set(i, null);
+        }
+      }
+      threadCaches.clear();
+      long released = reservedMemory.getAndSet(0);
+      streamingMemory.addAndGet(-released);
+      return released;
+    }
+  }
+
+  /**
+   * The buffers of a size class recently deallocated by a thread.
+   */
+  private static final class ThreadCache {
+
+    private final WeakReference<Thread> owner = new WeakReference<>(currentThread());
+    private final AtomicReferenceArray<ByteBuffer> buffers = new AtomicReferenceArray<>(THREAD_CACHE_SIZE);
+
+    private boolean isOwnerAlive() {
+      Thread thread = owner.get();
+      return thread != null && thread.isAlive();
+    }
+  }
+
+  /**
+   * A chunk of direct memory from which buffers of a fixed capacity are carved.
+   */
+  private static final class Slab {
+
+    private final ByteBuffer memory;
+    private final int bufferCapacity;
+    private final AtomicInteger nextOffset = new AtomicInteger(0);
+
+    private Slab(ByteBuffer memory, int bufferCapacity) {
+      this.memory = memory;
+      this.bufferCapacity = bufferCapacity;
+    }
+
+    private ByteBuffer next() {
+      int offset = nextOffset.getAndAdd(bufferCapacity);
+      if (offset + bufferCapacity > memory.capacity() || offset < 0) {
+        return null;
+      }
+
+      ByteBuffer view = memory.duplicate();
+      view.limit(offset + bufferCapacity).position(offset);
+      return view.slice();
+    }
+  }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object;
+
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.streaming.TempBufferFileUtils.createBufferFile;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.serialization.SerializationProtocol;
+import org.mule.runtime.core.api.streaming.object.FileStoreCursorIteratorConfig;
+import org.mule.runtime.core.api.streaming.iterator.StreamingIterator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * An {@link AbstractObjectStreamBuffer} implementation which only keeps a bounded window of buckets in memory.
+ * <p>
+ * All buckets have the same size. The one being filled is always kept in memory and full buckets are held in a
+ * least recently used cache of {@link FileStoreCursorIteratorConfig#getMaxInMemoryBuckets()} entries. Buckets evicted
+ * from that cache are serialized to a temporal file using the configured {@link ObjectSerializer}, and loaded back
+ * when a cursor requests a {@link Position} they contain. Each bucket is written at most once since full buckets
+ * never change.
+ *
+ * @param <T> The generic type of the items in the stream
+ * @since 4.0
+ */
+public class FileStoreObjectStreamBuffer<T> extends AbstractObjectStreamBuffer<T> {
+
+  private final FileStoreCursorIteratorConfig config;
+  private final SerializationProtocol serializationProtocol;
+  private final Map<Integer, SpilledBucket> spilledBuckets = new HashMap<>();
+  private Map<Integer, Bucket<T>> cachedBuckets;
+  private File bufferFile;
+  private RandomAccessFile randomAccessFile;
+
+  /**
+   * Creates a new instance
+   *
+   * @param stream           the stream to be buffered
+   * @param config           this buffer's configuration
+   * @param objectSerializer the {@link ObjectSerializer} used to write and read back the buckets evicted from memory
+   */
+  public FileStoreObjectStreamBuffer(StreamingIterator<T> stream, FileStoreCursorIteratorConfig config,
+                                     ObjectSerializer objectSerializer) {
+    super(stream);
+    this.config = config;
+    this.serializationProtocol = objectSerializer.getInternalProtocol();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Position toPosition(long position) {
+    int bucketSize = config.getBucketSize();
+    return new Position((int) (position / bucketSize), (int) (position % bucketSize));
+  }
+
+  @Override
+  protected void initialize(Optional<Position> maxPosition, Bucket<T> initialBucket) {
+    cachedBuckets = new LinkedHashMap<Integer, Bucket<T>>(config.getMaxInMemoryBuckets() + 1, 0.75f, true) {
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, Bucket<T>> eldest) {
+        if (size() > config.getMaxInMemoryBuckets()) {
+          spill(eldest.getValue());
+          return true;
+        }
+        return false;
+      }
+    };
+    setCurrentBucket(new Bucket<>(0, config.getBucketSize()));
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * This method is invoked while only holding the read lock, so access to the cache is synchronized because
+   * lookups alter its order and can load buckets from the file.
+   */
+  @Override
+  protected Optional<Bucket<T>> getPresentBucket(Position position) {
+    final int index = position.getBucketIndex();
+    Bucket<T> currentBucket = getCurrentBucket();
+    if (currentBucket != null && currentBucket.getIndex() == index) {
+      return of(currentBucket);
+    }
+
+    synchronized (spilledBuckets) {
+      Bucket<T> bucket = cachedBuckets.get(index);
+      if (bucket == null) {
+        SpilledBucket spilledBucket = spilledBuckets.get(index);
+        if (spilledBucket == null) {
+          return empty();
+        }
+
+        bucket = load(index, spilledBucket);
+        cachedBuckets.put(index, bucket);
+      }
+
+      return of(bucket);
+    }
+  }
+
+  @Override
+  protected Bucket<T> onBucketOverflow(Bucket<T> overflownBucket) {
+    synchronized (spilledBuckets) {
+      cachedBuckets.put(overflownBucket.getIndex(), overflownBucket);
+    }
+    return new Bucket<>(overflownBucket.getIndex() + 1, config.getBucketSize());
+  }
+
+  /**
+   * No limit is enforced since memory usage is bounded regardless of the stream's size
+   */
+  @Override
+  protected void validateMaxBufferSizeNotExceeded(int instancesCount) {}
+
+  /**
+   * {@inheritDoc}
+   * Closes and deletes the temporal file, if one was created.
+   */
+  @Override
+  protected void doClose() {
+    synchronized (spilledBuckets) {
+      if (cachedBuckets != null) {
+        cachedBuckets.clear();
+      }
+      spilledBuckets.clear();
+      if (randomAccessFile != null) {
+        closeSafely(randomAccessFile::close);
+      }
+      if (bufferFile != null) {
+        closeSafely(() -> {
+          if (!bufferFile.delete()) {
+            bufferFile.deleteOnExit();
+          }
+        });
+      }
+    }
+  }
+
+  private void spill(Bucket<T> bucket) {
+    if (spilledBuckets.containsKey(bucket.getIndex())) {
+      return;
+    }
+
+    ArrayList<T> items = new ArrayList<>(config.getBucketSize());
+    Optional<T> item;
+    while ((item = bucket.get(items.size())).isPresent()) {
+      items.add(item.get());
+    }
+
+    byte[] bytes = serializationProtocol.serialize(items);
+    try {
+      if (randomAccessFile == null) {
+        bufferFile = createBufferFile("object-buffer");
+        randomAccessFile = new RandomAccessFile(bufferFile, "rw");
+      }
+
+      long offset = randomAccessFile.length();
+      randomAccessFile.seek(offset);
+      randomAccessFile.write(bytes);
+      spilledBuckets.put(bucket.getIndex(), new SpilledBucket(offset, bytes.length));
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not write streaming buffer to " + bufferFile), e);
+    }
+  }
+
+  private Bucket<T> load(int index, SpilledBucket spilledBucket) {
+    byte[] bytes = new byte[spilledBucket.length];
+    try {
+      randomAccessFile.seek(spilledBucket.offset);
+      randomAccessFile.readFully(bytes);
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not read streaming buffer from " + bufferFile), e);
+    }
+
+    ArrayList<T> items = serializationProtocol.deserialize(bytes);
+    Bucket<T> bucket = new Bucket<>(index, config.getBucketSize());
+    items.forEach(bucket::add);
+    return bucket;
+  }
+
+  /**
+   * @return the temporal file used to spill buckets, or {@code null} if none was evicted yet.
+   */
+  File getBufferFile() {
+    return bufferFile;
+  }
+
+  private static class SpilledBucket {
+
+    private final long offset;
+    private final int length;
+
+    private SpilledBucket(long offset, int length) {
+      this.offset = offset;
+      this.length = length;
+    }
+  }
+}
@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.core.internal.transformer.compression;
 
+import static org.mule.runtime.core.api.util.compression.GZipCompression.DEFAULT_BUFFER_SIZE;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.zip.CRC32;
@@ -78,7 +80,17 @@ public class GZIPCompressorInputStream extends DeflaterInputStream {
    * @param in The uncompressed {@link InputStream}.
    */
   public GZIPCompressorInputStream(InputStream in) {
-    super(new CheckedInputStream(in, new CRC32()), new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+    this(in, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Creates a new {@link GZIPCompressorInputStream} from an uncompressed {@link InputStream}.
+   *
+   * @param in The uncompressed {@link InputStream}.
+   * @param bufferSize The size of the buffer used to hold compressed data.
+   */
+  public GZIPCompressorInputStream(InputStream in, int bufferSize) {
+    super(new CheckedInputStream(in, new CRC32()), new Deflater(Deflater.DEFAULT_COMPRESSION, true), bufferSize);
     buffer = new Buffer();
   }
 
@@ -115,6 +127,21 @@ public class GZIPCompressorInputStream extends DeflaterInputStream {
     }
   }
 
+  /**
+   * Closes this stream and releases the native memory of its {@link Deflater}, which {@link DeflaterInputStream} doesn't do for
+   * deflaters that it didn't create.
+   *
+   * @throws IOException If an I/O error is produced.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      super.close();
+    } finally {
+      def.end();
+    }
+  }
+
   /**
    * Writes GZIP member trailer to a byte array, starting at a given offset.
    *
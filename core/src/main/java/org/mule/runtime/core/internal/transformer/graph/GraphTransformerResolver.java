@@ -6,24 +6,41 @@
  */
 package org.mule.runtime.core.internal.transformer.graph;
 
+import static com.google.common.cache.CacheBuilder.newBuilder;
+import static java.util.Optional.ofNullable;
+
 import org.mule.runtime.api.metadata.DataType;
 import org.mule.runtime.core.api.registry.ResolverException;
 import org.mule.runtime.core.api.registry.TransformerResolver;
 import org.mule.runtime.core.api.transformer.Converter;
 import org.mule.runtime.core.api.transformer.Transformer;
 import org.mule.runtime.core.api.config.i18n.CoreMessages;
+import org.mule.runtime.core.privileged.transformer.CompositeConverter;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
-import org.apache.commons.collections.map.LRUMap;
+import com.google.common.cache.Cache;
 
+/**
+ * Resolves the {@link Converter} between two {@link DataType}s by looking for a conversion path in a {@link TransformationGraph}.
+ * <p>
+ * Resolutions, including the ones that find no converter, are cached by pair of data types, so that resolving a pair again
+ * doesn't need any lock. The cache is bounded to {@link #CACHE_SIZE} pairs, evicting the least recently used ones. Adding a
+ * converter to the graph clears the cache, since it may provide a better path for any pair, but removing one only evicts the
+ * resolutions that use it.
+ */
 public class GraphTransformerResolver implements TransformerResolver {
 
+  private static final int CACHE_SIZE = 100;
+
   private ReentrantReadWriteLock readWriteLock;
   private TransformationGraph graph;
   private CompositeConverterFilter converterFilter;
-  private LRUMap cache;
+  private final Cache<DataTypePair, Optional<Transformer>> cache = newBuilder().maximumSize(CACHE_SIZE).build();
+  private final AtomicLong graphVersion = new AtomicLong();
   private TransformationGraphLookupStrategy lookupStrategyTransformation;
 
   public GraphTransformerResolver() {
@@ -32,71 +49,97 @@ public class GraphTransformerResolver implements TransformerResolver {
     lookupStrategyTransformation = new TransformationGraphLookupStrategy(graph);
     converterFilter = new CompositeConverterFilter(new TransformationLengthConverterFilter(),
                                                    new PriorityWeightingConverterFilter(), new NameConverterFilter());
-    cache = new LRUMap();
   }
 
   @Override
   public Transformer resolve(DataType source, DataType result) throws ResolverException {
-    String cacheKey = getDataTypeSourceResultPairHash(source, result);
+    DataTypePair cacheKey = new DataTypePair(source, result);
+
+    Optional<Transformer> cached = cache.getIfPresent(cacheKey);
+    if (cached != null) {
+      return cached.orElse(null);
+    }
 
+    Transformer converter;
+    long version;
     readWriteLock.readLock().lock();
     try {
-      if (cache.containsKey(cacheKey)) {
-        return (Converter) cache.get(cacheKey);
+      version = graphVersion.get();
+      List<Converter> converters =
+          converterFilter.filter(lookupStrategyTransformation.lookupConverters(source, result), source, result);
+
+      if (converters.size() > 1) {
+        throw new ResolverException(CoreMessages.transformHasMultipleMatches(source.getType(), result.getType(), converters));
       }
+
+      converter = (converters.size() == 0) ? null : converters.get(0);
     } finally {
       readWriteLock.readLock().unlock();
     }
 
-    List<Converter> converters =
-        converterFilter.filter(lookupStrategyTransformation.lookupConverters(source, result), source, result);
-
-    if (converters.size() > 1) {
-      throw new ResolverException(CoreMessages.transformHasMultipleMatches(source.getType(), result.getType(), converters));
-    }
-
-    Transformer converter = (converters.size() == 0) ? null : converters.get(0);
-
-
-    readWriteLock.writeLock().lock();
-    try {
-      cache.put(cacheKey, converter);
-    } finally {
-      readWriteLock.writeLock().unlock();
+    cache.put(cacheKey, ofNullable(converter));
+    if (graphVersion.get() != version) {
+      // the graph changed after the lookup, so the resolution may be stale
+      cache.invalidate(cacheKey);
     }
 
     return converter;
   }
 
-  private String getDataTypeSourceResultPairHash(DataType source, DataType result) {
-    StringBuilder builder = new StringBuilder();
-    builder.append(source.getClass().getName());
-    builder.append(source.hashCode());
-    builder.append(":");
-    builder.append(result.getClass().getName());
-    builder.append(result.hashCode());
-
-    return builder.toString();
-  }
-
   @Override
   public void transformerChange(Transformer transformer, RegistryAction registryAction) {
-    readWriteLock.writeLock().lock();
+    if (!(transformer instanceof Converter)) {
+      return;
+    }
 
+    readWriteLock.writeLock().lock();
     try {
-      if (!(transformer instanceof Converter)) {
-        return;
-      }
-
-      cache.clear();
+      graphVersion.incrementAndGet();
 
       if (registryAction == RegistryAction.ADDED) {
+        cache.invalidateAll();
         graph.addConverter((Converter) transformer);
       } else if (registryAction == RegistryAction.REMOVED) {
+        cache.asMap().values().removeIf(resolved -> resolved.map(converter -> uses(converter, transformer)).orElse(false));
         graph.removeConverter((Converter) transformer);
       }
     } finally {
       readWriteLock.writeLock().unlock();
     }
   }
+
+  private boolean uses(Transformer converter, Transformer transformer) {
+    if (converter == transformer) {
+      return true;
+    }
+    return converter instanceof CompositeConverter && ((CompositeConverter) converter).getConverters().contains(transformer);
+  }
+
+  private static final class DataTypePair {
+
+    private final DataType source;
+    private final DataType result;
+
+    DataTypePair(DataType source, DataType result) {
+      this.source = source;
+      this.result = result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof DataTypePair)) {
+        return false;
+      }
+      DataTypePair other = (DataTypePair) obj;
+      return source.equals(other.source) && result.equals(other.result);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * source.hashCode() + result.hashCode();
+    }
+  }
 }
@@ -0,0 +1,521 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static java.lang.Character.toLowerCase;
+import static java.lang.Character.toUpperCase;
+import static java.lang.Integer.bitCount;
+import static java.lang.System.arraycopy;
+
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable {@link Map} with {@link String} keys implemented as a hash array mapped trie.
+ * <p>
+ * {@link #plus(String, Object)} and {@link #minus(String)} return a new map which shares all the structure of this one except
+ * for the path leading to the changed key, so deriving a map from another one costs {@code O(log32 n)} regardless of its size.
+ * <p>
+ * When created through {@link #emptyCaseInsensitive()} keys are compared ignoring their case, like in
+ * {@link org.mule.runtime.core.api.util.CaseInsensitiveHashMap}, while the keys returned preserve the case they were added
+ * with. All the mutator methods of {@link Map} throw {@link UnsupportedOperationException}.
+ *
+ * @param <V> the type of the values
+ * @since 4.0
+ */
+public final class PersistentHashTrieMap<V> extends AbstractMap<String, V> implements Serializable {
+
+  private static final long serialVersionUID = 3474306347208727446L;
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+  private static final int MAX_DEPTH = 8;
+  private static final Object NOT_FOUND = new Object();
+
+  private static final PersistentHashTrieMap<?> EMPTY = new PersistentHashTrieMap<>(null, 0, false);
+  private static final PersistentHashTrieMap<?> EMPTY_CASE_INSENSITIVE = new PersistentHashTrieMap<>(null, 0, true);
+
+  private final transient Node root;
+  private final transient int size;
+  private final transient boolean caseInsensitive;
+  private transient Set<Entry<String, V>> entrySet;
+
+  /**
+   * @return an empty map which compares its keys honoring their case.
+   */
+  public static <V> PersistentHashTrieMap<V> empty() {
+    return (PersistentHashTrieMap<V>) EMPTY;
+  }
+
+  /**
+   * @return an empty map which compares its keys ignoring their case.
+   */
+  public static <V> PersistentHashTrieMap<V> emptyCaseInsensitive() {
+    return (PersistentHashTrieMap<V>) EMPTY_CASE_INSENSITIVE;
+  }
+
+  private PersistentHashTrieMap(Node root, int size, boolean caseInsensitive) {
+    this.root = root;
+    this.size = size;
+    this.caseInsensitive = caseInsensitive;
+  }
+
+  /**
+   * @return a map with the mappings of this one plus the given one, replacing any previous mapping for an equivalent key.
+   */
+  public PersistentHashTrieMap<V> plus(String key, V value) {
+    Change change = new Change();
+    Node newRoot =
+        (root == null ? BitmapNode.EMPTY : root).put(0, hash(key, caseInsensitive), key, value, caseInsensitive, change);
+    if (newRoot == root) {
+      return this;
+    }
+    return new PersistentHashTrieMap<>(newRoot, change.added ? size + 1 : size, caseInsensitive);
+  }
+
+  /**
+   * @return a map with the mappings of this one plus the ones in {@code map}.
+   */
+  public PersistentHashTrieMap<V> plusAll(Map<String, ? extends V> map) {
+    PersistentHashTrieMap<V> result = this;
+    for (Entry<String, ? extends V> entry : map.entrySet()) {
+      result = result.plus(entry.getKey(), entry.getValue());
+    }
+    return result;
+  }
+
+  /**
+   * @return a map with the mappings of this one except the one for {@code key}, or this same instance if there's no such
+   *         mapping.
+   */
+  public PersistentHashTrieMap<V> minus(String key) {
+    if (root == null) {
+      return this;
+    }
+    Change change = new Change();
+    Node newRoot = root.remove(0, hash(key, caseInsensitive), key, caseInsensitive, change);
+    if (!change.removed) {
+      return this;
+    }
+    return newRoot == null ? emptyOfSameKind() : new PersistentHashTrieMap<>(newRoot, size - 1, caseInsensitive);
+  }
+
+  /**
+   * @return an empty map which compares its keys the same way as this one.
+   */
+  public PersistentHashTrieMap<V> emptyOfSameKind() {
+    return caseInsensitive ? emptyCaseInsensitive() : empty();
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public V get(Object key) {
+    Object value = find(key);
+    return value == NOT_FOUND ? null : (V) value;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return find(key) != NOT_FOUND;
+  }
+
+  private Object find(Object key) {
+    if (root == null || !(key instanceof String)) {
+      return NOT_FOUND;
+    }
+    return root.find(0, hash((String) key, caseInsensitive), (String) key, caseInsensitive);
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super String, ? super V> action) {
+    if (root != null) {
+      root.forEach((BiConsumer<String, Object>) action);
+    }
+  }
+
+  @Override
+  public Set<Entry<String, V>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new AbstractSet<Entry<String, V>>() {
+
+        @Override
+        public Iterator<Entry<String, V>> iterator() {
+          return new EntryIterator<>(root);
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+      };
+    }
+    return entrySet;
+  }
+
+  private static int hash(String key, boolean caseInsensitive) {
+    int h;
+    if (caseInsensitive) {
+      // consistent with String#equalsIgnoreCase
+      h = 0;
+      for (int i = 0; i < key.length(); i++) {
+        h = 31 * h + toLowerCase(toUpperCase(key.charAt(i)));
+      }
+    } else {
+      h = key.hashCode();
+    }
+    return h ^ (h >>> 16);
+  }
+
+  private static boolean keyEquals(String a, String b, boolean caseInsensitive) {
+    return caseInsensitive ? a.equalsIgnoreCase(b) : a.equals(b);
+  }
+
+  private Object writeReplace() {
+    return new SerializedForm(this);
+  }
+
+  private void readObject(ObjectInputStream in) throws InvalidObjectException {
+    throw new InvalidObjectException("Serialization proxy required");
+  }
+
+  private static final class Change {
+
+    private boolean added;
+    private boolean removed;
+  }
+
+  /**
+   * Nodes keep their mappings in a single array of key/value pairs. In {@link BitmapNode}s a {@code null} key means that the
+   * value is a child node.
+   */
+  private abstract static class Node {
+
+    final Object[] array;
+
+    Node(Object[] array) {
+      this.array = array;
+    }
+
+    /**
+     * @return the value mapped to {@code key} or {@link #NOT_FOUND}
+     */
+    abstract Object find(int shift, int hash, String key, boolean caseInsensitive);
+
+    abstract Node put(int shift, int hash, String key, Object value, boolean caseInsensitive, Change change);
+
+    abstract Node remove(int shift, int hash, String key, boolean caseInsensitive, Change change);
+
+    void forEach(BiConsumer<String, Object> action) {
+      for (int i = 0; i < array.length; i += 2) {
+        if (array[i] == null) {
+          ((Node) array[i + 1]).forEach(action);
+        } else {
+          action.accept((String) array[i], array[i + 1]);
+        }
+      }
+    }
+  }
+
+  private static final class BitmapNode extends Node {
+
+    private static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+    private final int bitmap;
+
+    private BitmapNode(int bitmap, Object[] array) {
+      super(array);
+      this.bitmap = bitmap;
+    }
+
+    @Override
+    Object find(int shift, int hash, String key, boolean caseInsensitive) {
+      int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return NOT_FOUND;
+      }
+      int index = index(bit);
+      Object keyOrNull = array[index];
+      if (keyOrNull == null) {
+        return ((Node) array[index + 1]).find(shift + BITS, hash, key, caseInsensitive);
+      }
+      return keyEquals((String) keyOrNull, key, caseInsensitive) ? array[index + 1] : NOT_FOUND;
+    }
+
+    @Override
+    Node put(int shift, int hash, String key, Object value, boolean caseInsensitive, Change change) {
+      int bit = bit(hash, shift);
+      int index = index(bit);
+      if ((bitmap & bit) == 0) {
+        Object[] newArray = new Object[array.length + 2];
+        arraycopy(array, 0, newArray, 0, index);
+        newArray[index] = key;
+        newArray[index + 1] = value;
+        arraycopy(array, index, newArray, index + 2, array.length - index);
+        change.added = true;
+        return new BitmapNode(bitmap | bit, newArray);
+      }
+
+      Object keyOrNull = array[index];
+      Object valueOrNode = array[index + 1];
+      if (keyOrNull == null) {
+        Node child = (Node) valueOrNode;
+        Node newChild = child.put(shift + BITS, hash, key, value, caseInsensitive, change);
+        return newChild == child ? this : with(index + 1, newChild);
+      }
+
+      String existingKey = (String) keyOrNull;
+      if (keyEquals(existingKey, key, caseInsensitive)) {
+        if (valueOrNode == value && existingKey.equals(key)) {
+          return this;
+        }
+        Object[] newArray = array.clone();
+        newArray[index] = key;
+        newArray[index + 1] = value;
+        return new BitmapNode(bitmap, newArray);
+      }
+
+      change.added = true;
+      Node child = createNode(shift + BITS, existingKey, valueOrNode, key, value, hash, caseInsensitive);
+      Object[] newArray = array.clone();
+      newArray[index] = null;
+      newArray[index + 1] = child;
+      return new BitmapNode(bitmap, newArray);
+    }
+
+    @Override
+    Node remove(int shift, int hash, String key, boolean caseInsensitive, Change change) {
+      int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+      int index = index(bit);
+      Object keyOrNull = array[index];
+      if (keyOrNull == null) {
+        Node child = (Node) array[index + 1];
+        Node newChild = child.remove(shift + BITS, hash, key, caseInsensitive, change);
+        if (newChild == child) {
+          return this;
+        }
+        return newChild == null ? without(bit, index) : with(index + 1, newChild);
+      }
+
+      if (keyEquals((String) keyOrNull, key, caseInsensitive)) {
+        change.removed = true;
+        return without(bit, index);
+      }
+      return this;
+    }
+
+    private Node with(int index, Object value) {
+      Object[] newArray = array.clone();
+      newArray[index] = value;
+      return new BitmapNode(bitmap, newArray);
+    }
+
+    private Node without(int bit, int index) {
+      if (bitmap == bit) {
+        return null;
+      }
+      Object[] newArray = new Object[array.length - 2];
+      arraycopy(array, 0, newArray, 0, index);
+      arraycopy(array, index + 2, newArray, index, array.length - index - 2);
+      return new BitmapNode(bitmap ^ bit, newArray);
+    }
+
+    private int index(int bit) {
+      return 2 * bitCount(bitmap & (bit - 1));
+    }
+
+    private static int bit(int hash, int shift) {
+      return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private static Node createNode(int shift, String key1, Object value1, String key2, Object value2, int hash2,
+                                   boolean caseInsensitive) {
+      int hash1 = hash(key1, caseInsensitive);
+      if (hash1 == hash2) {
+        return new CollisionNode(hash1, new Object[] {key1, value1, key2, value2});
+      }
+      Change ignored = new Change();
+      return EMPTY.put(shift, hash1, key1, value1, caseInsensitive, ignored)
+          .put(shift, hash2, key2, value2, caseInsensitive, ignored);
+    }
+  }
+
+  /**
+   * Holds the mappings of different keys with the same hash.
+   */
+  private static final class CollisionNode extends Node {
+
+    private final int hash;
+
+    private CollisionNode(int hash, Object[] array) {
+      super(array);
+      this.hash = hash;
+    }
+
+    @Override
+    Object find(int shift, int hash, String key, boolean caseInsensitive) {
+      int index = indexOf(key, caseInsensitive);
+      return index < 0 ? NOT_FOUND : array[index + 1];
+    }
+
+    @Override
+    Node put(int shift, int hash, String key, Object value, boolean caseInsensitive, Change change) {
+      if (hash != this.hash) {
+        // the new key diverges from the colliding ones at this level
+        Node wrapper = new BitmapNode(BitmapNode.bit(this.hash, shift), new Object[] {null, this});
+        return wrapper.put(shift, hash, key, value, caseInsensitive, change);
+      }
+
+      int index = indexOf(key, caseInsensitive);
+      if (index >= 0) {
+        if (array[index + 1] == value && array[index].equals(key)) {
+          return this;
+        }
+        Object[] newArray = array.clone();
+        newArray[index] = key;
+        newArray[index + 1] = value;
+        return new CollisionNode(hash, newArray);
+      }
+
+      Object[] newArray = new Object[array.length + 2];
+      arraycopy(array, 0, newArray, 0, array.length);
+      newArray[array.length] = key;
+      newArray[array.length + 1] = value;
+      change.added = true;
+      return new CollisionNode(hash, newArray);
+    }
+
+    @Override
+    Node remove(int shift, int hash, String key, boolean caseInsensitive, Change change) {
+      int index = indexOf(key, caseInsensitive);
+      if (index < 0) {
+        return this;
+      }
+      change.removed = true;
+      if (array.length == 2) {
+        return null;
+      }
+      Object[] newArray = new Object[array.length - 2];
+      arraycopy(array, 0, newArray, 0, index);
+      arraycopy(array, index + 2, newArray, index, array.length - index - 2);
+      return new CollisionNode(hash, newArray);
+    }
+
+    private int indexOf(String key, boolean caseInsensitive) {
+      for (int i = 0; i < array.length; i += 2) {
+        if (keyEquals((String) array[i], key, caseInsensitive)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+  }
+
+  private static final class EntryIterator<V> implements Iterator<Entry<String, V>> {
+
+    private final Object[][] arrays = new Object[MAX_DEPTH][];
+    private final int[] positions = new int[MAX_DEPTH];
+    private int depth = -1;
+    private Entry<String, V> next;
+
+    private EntryIterator(Node root) {
+      if (root != null) {
+        push(root.array);
+        advance();
+      }
+    }
+
+    private void push(Object[] array) {
+      arrays[++depth] = array;
+      positions[depth] = 0;
+    }
+
+    private void advance() {
+      next = null;
+      while (depth >= 0) {
+        Object[] array = arrays[depth];
+        int position = positions[depth];
+        if (position >= array.length) {
+          arrays[depth--] = null;
+          continue;
+        }
+        positions[depth] = position + 2;
+        if (array[position] == null) {
+          push(((Node) array[position + 1]).array);
+        } else {
+          next = new SimpleImmutableEntry<>((String) array[position], (V) array[position + 1]);
+          return;
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Entry<String, V> next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      Entry<String, V> current = next;
+      advance();
+      return current;
+    }
+  }
+
+  /**
+   * Serializes the mappings instead of the trie, which is rebuilt on deserialization.
+   */
+  private static final class SerializedForm implements Serializable {
+
+    private static final long serialVersionUID = -4606327981419245434L;
+
+    private final boolean caseInsensitive;
+    private final String[] keys;
+    private final Object[] values;
+
+    private SerializedForm(PersistentHashTrieMap<?> map) {
+      caseInsensitive = map.caseInsensitive;
+      keys = new String[map.size];
+      values = new Object[map.size];
+      int[] index = new int[1];
+      map.forEach((key, value) -> {
+        keys[index[0]] = key;
+        values[index[0]++] = value;
+      });
+    }
+
+    private Object readResolve() {
+      PersistentHashTrieMap<Object> map = caseInsensitive ? emptyCaseInsensitive() : empty();
+      for (int i = 0; i < keys.length; i++) {
+        map = map.plus(keys[i], values[i]);
+      }
+      return map;
+    }
+  }
+}
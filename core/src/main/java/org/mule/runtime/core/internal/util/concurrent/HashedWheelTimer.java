@@ -0,0 +1,409 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.concurrent;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.Math.max;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.MuleContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+
+/**
+ * A timer meant for a large number of short lived timeouts, most of which are cancelled before they expire.
+ * <p>
+ * Timeouts are kept in a wheel of buckets, one for each tick of the timer, instead of in a heap sorted by deadline. Scheduling
+ * and cancelling a timeout are constant time operations, at the cost of timeouts expiring only with the precision of a tick.
+ * <p>
+ * A single thread, taken from a {@link Scheduler} of the runtime, advances the wheel and runs the tasks of the expired timeouts,
+ * so these tasks must be short and non blocking, usually handing the actual work to another executor. The timer stops when
+ * that {@link Scheduler} is stopped.
+ *
+ * @since 4.0
+ */
+public final class HashedWheelTimer {
+
+  private static final Logger LOGGER = getLogger(HashedWheelTimer.class);
+
+  private static final int STATE_INIT = 0;
+  private static final int STATE_STARTED = 1;
+  private static final int STATE_STOPPED = 2;
+
+  // limits the timeouts added to the wheel in a single tick, so that a burst of them doesn't delay the tick for too long
+  private static final int MAX_TIMEOUTS_ADDED_PER_TICK = 100000;
+
+  private static final long TICK_MILLIS = max(1, getInteger(HashedWheelTimer.class.getName() + ".TICK_MILLIS", 10));
+  private static final int TICKS_PER_WHEEL = max(1, getInteger(HashedWheelTimer.class.getName() + ".TICKS_PER_WHEEL", 512));
+
+  // delays beyond this (about 146 years) never expire, so they are not added to the wheel and don't overflow its deadlines
+  private static final long MAX_DELAY_NANOS = Long.MAX_VALUE >> 1;
+
+  private static final Map<MuleContext, HashedWheelTimer> SHARED_TIMERS = new HashMap<>();
+
+  private final String name;
+  private final long tickNanos;
+  private final Bucket[] wheel;
+  private final int mask;
+
+  private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+  private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+
+  private final Supplier<Scheduler> workerSchedulerFactory;
+  private Scheduler workerScheduler;
+  private final AtomicInteger state = new AtomicInteger(STATE_INIT);
+  private final long startTime = nanoTime();
+
+  // guarded by SHARED_TIMERS
+  private MuleContext sharedBy;
+  private int sharedUsers;
+
+  /**
+   * Acquires the timer shared by all the components of a {@link MuleContext}. Its thread is started on first use and stopped
+   * when the last component using it calls {@link #release()}.
+   *
+   * @param muleContext the context whose {@link org.mule.runtime.core.api.scheduler.SchedulerService} provides the thread of the
+   *        timer
+   * @return the shared timer, which must be released once no longer used.
+   */
+  public static HashedWheelTimer acquireSharedTimer(MuleContext muleContext) {
+    synchronized (SHARED_TIMERS) {
+      HashedWheelTimer timer = SHARED_TIMERS.get(muleContext);
+      // the scheduler of the timer may have been stopped along with the scheduler service
+      if (timer == null || timer.state.get() == STATE_STOPPED) {
+        timer = new HashedWheelTimer("timer", TICK_MILLIS, MILLISECONDS, TICKS_PER_WHEEL,
+                                     () -> muleContext.getSchedulerService().customScheduler(muleContext.getSchedulerBaseConfig()
+                                         .withName("timer").withMaxConcurrentTasks(1)));
+        timer.sharedBy = muleContext;
+        SHARED_TIMERS.put(muleContext, timer);
+      }
+      ++timer.sharedUsers;
+      return timer;
+    }
+  }
+
+  /**
+   * Releases a timer acquired with {@link #acquireSharedTimer(MuleContext)}, stopping it if no other component uses it.
+   */
+  public void release() {
+    synchronized (SHARED_TIMERS) {
+      if (sharedBy == null || --sharedUsers > 0) {
+        return;
+      }
+      if (SHARED_TIMERS.get(sharedBy) == this) {
+        SHARED_TIMERS.remove(sharedBy);
+      }
+      sharedBy = null;
+    }
+    stop();
+  }
+
+  /**
+   * @param name the name of the timer
+   * @param tickDuration the time between ticks of the timer
+   * @param unit the unit of {@code tickDuration}
+   * @param ticksPerWheel the number of buckets of the wheel, rounded up to a power of two
+   * @param workerScheduler the scheduler that provides the thread that advances the wheel, once the first timeout is scheduled.
+   *        Once started, it's stopped along with this timer.
+   */
+  public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int ticksPerWheel, Scheduler workerScheduler) {
+    this(name, tickDuration, unit, ticksPerWheel, () -> workerScheduler);
+  }
+
+  private HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int ticksPerWheel,
+                           Supplier<Scheduler> workerSchedulerFactory) {
+    checkArgument(tickDuration > 0, "tickDuration must be positive");
+    checkArgument(ticksPerWheel > 0, "ticksPerWheel must be positive");
+    this.name = name;
+    this.tickNanos = unit.toNanos(tickDuration);
+    this.workerSchedulerFactory = workerSchedulerFactory;
+
+    int size = 1;
+    while (size < ticksPerWheel) {
+      size <<= 1;
+    }
+    wheel = new Bucket[size];
+    for (int i = 0; i < size; ++i) {
+      wheel[i] = new Bucket();
+    }
+    mask = size - 1;
+  }
+
+  /**
+   * Schedules a task to be run by the thread of this timer once the given delay elapses.
+   *
+   * @param task the task to run when the timeout expires. Must be short and non blocking.
+   * @param delay the time from now until the timeout expires. Delays too long to ever elapse, such as {@link Long#MAX_VALUE}
+   *        milliseconds, never expire.
+   * @param unit the unit of {@code delay}
+   * @return the timeout, which may be used to cancel it.
+   * @throws RejectedExecutionException if this timer was stopped.
+   */
+  public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+    start();
+    long elapsed = nanoTime() - startTime;
+    long delayNanos = max(0, unit.toNanos(delay));
+    if (delayNanos >= MAX_DELAY_NANOS - elapsed) {
+      return new Timeout(task, Long.MAX_VALUE);
+    }
+
+    Timeout timeout = new Timeout(task, elapsed + delayNanos);
+    pendingTimeouts.add(timeout);
+    return timeout;
+  }
+
+  private void start() {
+    switch (state.get()) {
+      case STATE_INIT:
+        if (state.compareAndSet(STATE_INIT, STATE_STARTED)) {
+          synchronized (this) {
+            if (state.get() != STATE_STARTED) {
+              throw new RejectedExecutionException("Timer '" + name + "' was stopped");
+            }
+            try {
+              // created on first use, so that components that never schedule a timeout don't take a thread
+              workerScheduler = workerSchedulerFactory.get();
+              workerScheduler.execute(new Worker());
+            } catch (RuntimeException e) {
+              state.set(STATE_STOPPED);
+              throw e;
+            }
+          }
+        }
+        break;
+      case STATE_STARTED:
+        break;
+      default:
+        throw new RejectedExecutionException("Timer '" + name + "' was stopped");
+    }
+  }
+
+  /**
+   * Stops the thread of this timer and the scheduler that provides it. Pending timeouts never expire.
+   */
+  public void stop() {
+    state.set(STATE_STOPPED);
+    synchronized (this) {
+      if (workerScheduler != null) {
+        workerScheduler.stop();
+        workerScheduler = null;
+      }
+    }
+  }
+
+  private final class Worker implements Runnable {
+
+    private long tick;
+
+    @Override
+    public void run() {
+      try {
+        while (state.get() == STATE_STARTED) {
+          long deadline = waitForNextTick();
+          if (deadline < 0) {
+            // interrupted when the scheduler is stopped
+            return;
+          }
+
+          removeCancelledTimeouts();
+          addPendingTimeouts();
+          wheel[(int) (tick & mask)].expireTimeouts(deadline);
+          ++tick;
+        }
+      } finally {
+        state.set(STATE_STOPPED);
+      }
+    }
+
+    /**
+     * @return the time of the tick relative to the start of the timer, or a negative value if interrupted.
+     */
+    private long waitForNextTick() {
+      long deadline = tickNanos * (tick + 1);
+      while (true) {
+        long sleepNanos = deadline - (nanoTime() - startTime);
+        if (sleepNanos <= 0) {
+          return deadline;
+        }
+        parkNanos(this, sleepNanos);
+        if (Thread.interrupted()) {
+          return -1;
+        }
+      }
+    }
+
+    private void addPendingTimeouts() {
+      for (int i = 0; i < MAX_TIMEOUTS_ADDED_PER_TICK; ++i) {
+        Timeout timeout = pendingTimeouts.poll();
+        if (timeout == null) {
+          return;
+        }
+        if (timeout.state.get() == Timeout.STATE_CANCELLED) {
+          continue;
+        }
+
+        long expirationTick = timeout.deadline / tickNanos;
+        timeout.remainingRounds = (expirationTick - tick) / wheel.length;
+        // a timeout already in the past expires in the current tick
+        wheel[(int) (max(expirationTick, tick) & mask)].add(timeout);
+      }
+    }
+
+    private void removeCancelledTimeouts() {
+      Timeout timeout;
+      while ((timeout = cancelledTimeouts.poll()) != null) {
+        if (timeout.bucket != null) {
+          timeout.bucket.remove(timeout);
+        }
+      }
+    }
+  }
+
+  /**
+   * A doubly linked list of the timeouts that expire in a tick of the wheel, only accessed by the thread of the timer.
+   */
+  private static final class Bucket {
+
+    private Timeout head;
+    private Timeout tail;
+
+    void add(Timeout timeout) {
+      timeout.bucket = this;
+      if (head == null) {
+        head = timeout;
+        tail = timeout;
+      } else {
+        tail.next = timeout;
+        timeout.prev = tail;
+        tail = timeout;
+      }
+    }
+
+    void expireTimeouts(long deadline) {
+      Timeout timeout = head;
+      while (timeout != null) {
+        Timeout next = timeout.next;
+        if (timeout.remainingRounds <= 0) {
+          remove(timeout);
+          if (timeout.deadline <= deadline) {
+            timeout.expire();
+          }
+        } else if (timeout.state.get() == Timeout.STATE_CANCELLED) {
+          remove(timeout);
+        } else {
+          --timeout.remainingRounds;
+        }
+        timeout = next;
+      }
+    }
+
+    void remove(Timeout timeout) {
+      if (timeout.bucket != this) {
+        return;
+      }
+      if (timeout.prev != null) {
+        timeout.prev.next = timeout.next;
+      } else {
+        head = timeout.next;
+      }
+      if (timeout.next != null) {
+        timeout.next.prev = timeout.prev;
+      } else {
+        tail = timeout.prev;
+      }
+      timeout.prev = null;
+      timeout.next = null;
+      timeout.bucket = null;
+    }
+  }
+
+  /**
+   * A task scheduled in a {@link HashedWheelTimer}.
+   */
+  public final class Timeout {
+
+    private static final int STATE_PENDING = 0;
+    private static final int STATE_CANCELLED = 1;
+    private static final int STATE_EXPIRED = 2;
+
+    private final Runnable task;
+    private final long deadline;
+    private final AtomicInteger state = new AtomicInteger(STATE_PENDING);
+
+    // only accessed by the thread of the timer
+    private long remainingRounds;
+    private Bucket bucket;
+    private Timeout prev;
+    private Timeout next;
+
+    private Timeout(Runnable task, long deadline) {
+      this.task = task;
+      this.deadline = deadline;
+    }
+
+    /**
+     * Cancels this timeout, so that its task is not run.
+     *
+     * @return {@code false} if this timeout had already expired or been cancelled.
+     */
+    public boolean cancel() {
+      if (!state.compareAndSet(STATE_PENDING, STATE_CANCELLED)) {
+        return false;
+      }
+      cancelledTimeouts.add(this);
+      return true;
+    }
+
+    /**
+     * @return whether this timeout has been cancelled.
+     */
+    public boolean isCancelled() {
+      return state.get() == STATE_CANCELLED;
+    }
+
+    /**
+     * @return whether this timeout has expired and its task been run.
+     */
+    public boolean isExpired() {
+      return state.get() == STATE_EXPIRED;
+    }
+
+    /**
+     * @param unit the unit of the returned delay
+     * @return the time remaining until this timeout expires.
+     */
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(deadline - (nanoTime() - startTime), NANOSECONDS);
+    }
+
+    private void expire() {
+      if (!state.compareAndSet(STATE_PENDING, STATE_EXPIRED)) {
+        return;
+      }
+      try {
+        task.run();
+      } catch (Throwable t) {
+        LOGGER.error("Task of timer '" + name + "' failed", t);
+      }
+    }
+  }
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.concurrent;
+
+import static java.lang.Long.compare;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.Executors.callable;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.ConcurrentHashMap.newKeySet;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.internal.util.concurrent.HashedWheelTimer.acquireSharedTimer;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.internal.util.concurrent.HashedWheelTimer.Timeout;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Decorates a {@link Scheduler} so that its delayed and periodic tasks are timed by a {@link HashedWheelTimer} instead of the
+ * queue of the decorated scheduler. Once due, the tasks are run by the decorated scheduler.
+ * <p>
+ * This is meant for components that schedule a large number of timeouts per event, most of which are cancelled before they
+ * expire, since these are scheduled and cancelled in constant time. The tasks still pending when this scheduler is stopped are
+ * cancelled, so that they don't stay in the timer until due.
+ *
+ * @since 4.0
+ */
+public class TimerSchedulerDecorator implements Scheduler {
+
+  // same bound as ScheduledThreadPoolExecutor, so that the difference between trigger times doesn't overflow
+  private static final long MAX_DELAY_NANOS = Long.MAX_VALUE >> 1;
+
+  private final HashedWheelTimer timer;
+  private final Scheduler decorated;
+  private final boolean sharedTimer;
+  private final Set<TimerTask<?>> pendingTasks = newKeySet();
+  private final AtomicBoolean stopped = new AtomicBoolean();
+
+  /**
+   * Creates a scheduler that uses the timer shared by the components of the given context, until stopped.
+   *
+   * @param muleContext the context whose shared timer is used for the delayed tasks
+   * @param decorated the scheduler that runs the tasks
+   */
+  public TimerSchedulerDecorator(MuleContext muleContext, Scheduler decorated) {
+    this(acquireSharedTimer(muleContext), decorated, true);
+  }
+
+  /**
+   * @param timer the timer to use for the delayed tasks. Not stopped along with this scheduler.
+   * @param decorated the scheduler that runs the tasks
+   */
+  public TimerSchedulerDecorator(HashedWheelTimer timer, Scheduler decorated) {
+    this(timer, decorated, false);
+  }
+
+  private TimerSchedulerDecorator(HashedWheelTimer timer, Scheduler decorated, boolean sharedTimer) {
+    this.timer = timer;
+    this.decorated = decorated;
+    this.sharedTimer = sharedTimer;
+  }
+
+  @Override
+  public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+    return arm(new TimerTask<>(callable(command, null), delayedTime(delay, unit), 0));
+  }
+
+  @Override
+  public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+    return arm(new TimerTask<>(callable, delayedTime(delay, unit), 0));
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+    checkArgument(period > 0, "period must be positive");
+    return arm(new TimerTask<>(callable(command, null), delayedTime(initialDelay, unit), unit.toNanos(period)));
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+    checkArgument(delay > 0, "delay must be positive");
+    return arm(new TimerTask<>(callable(command, null), delayedTime(initialDelay, unit), -unit.toNanos(delay)));
+  }
+
+  private long delayedTime(long delay, TimeUnit unit) {
+    long delayNanos = unit.toNanos(delay);
+    return nanoTime() + (delayNanos < MAX_DELAY_NANOS ? delayNanos : MAX_DELAY_NANOS);
+  }
+
+  private <V> TimerTask<V> arm(TimerTask<V> task) {
+    if (pendingTasks.add(task) && stopped.get()) {
+      task.cancel(false);
+      throw new RejectedExecutionException("Scheduler '" + getName() + "' was stopped");
+    }
+    try {
+      task.timeout = timer.newTimeout(() -> dispatch(task), task.time - nanoTime(), NANOSECONDS);
+    } catch (RejectedExecutionException e) {
+      pendingTasks.remove(task);
+      throw e;
+    }
+    // the task may have been cancelled before its timeout was set
+    if (task.isCancelled()) {
+      task.timeout.cancel();
+    }
+    return task;
+  }
+
+  private void dispatch(TimerTask<?> task) {
+    try {
+      decorated.execute(task);
+    } catch (RejectedExecutionException e) {
+      task.cancel(false);
+    }
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleWithCronExpression(Runnable command, String cronExpression) {
+    return decorated.scheduleWithCronExpression(command, cronExpression);
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleWithCronExpression(Runnable command, String cronExpression, TimeZone timeZone) {
+    return decorated.scheduleWithCronExpression(command, cronExpression, timeZone);
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    decorated.execute(command);
+  }
+
+  @Override
+  public <T> Future<T> submit(Callable<T> task) {
+    return decorated.submit(task);
+  }
+
+  @Override
+  public <T> Future<T> submit(Runnable task, T result) {
+    return decorated.submit(task, result);
+  }
+
+  @Override
+  public Future<?> submit(Runnable task) {
+    return decorated.submit(task);
+  }
+
+  @Override
+  public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+    return decorated.invokeAll(tasks);
+  }
+
+  @Override
+  public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+      throws InterruptedException {
+    return decorated.invokeAll(tasks, timeout, unit);
+  }
+
+  @Override
+  public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
+    return decorated.invokeAny(tasks);
+  }
+
+  @Override
+  public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+      throws InterruptedException, ExecutionException, TimeoutException {
+    return decorated.invokeAny(tasks, timeout, unit);
+  }
+
+  /**
+   * Stops the decorated scheduler, cancelling the tasks still pending in the timer.
+   */
+  @Override
+  public void stop() {
+    cancelPendingTasks();
+    decorated.stop();
+  }
+
+  @Override
+  public void shutdown() {
+    cancelPendingTasks();
+    decorated.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    cancelPendingTasks();
+    return decorated.shutdownNow();
+  }
+
+  private void cancelPendingTasks() {
+    if (!stopped.compareAndSet(false, true)) {
+      return;
+    }
+    for (TimerTask<?> task : pendingTasks) {
+      task.cancel(false);
+    }
+    pendingTasks.clear();
+    if (sharedTimer) {
+      timer.release();
+    }
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return decorated.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return decorated.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return decorated.awaitTermination(timeout, unit);
+  }
+
+  @Override
+  public String getName() {
+    return decorated.getName();
+  }
+
+  @Override
+  public String toString() {
+    return TimerSchedulerDecorator.class.getSimpleName() + ":" + decorated.getName();
+  }
+
+  private final class TimerTask<V> extends FutureTask<V> implements RunnableScheduledFuture<V> {
+
+    // zero for one shot tasks, positive for fixed rate and negative for fixed delay
+    private final long period;
+    // when the task is due, as given by System.nanoTime()
+    private volatile long time;
+    private volatile Timeout timeout;
+
+    TimerTask(Callable<V> callable, long time, long period) {
+      super(callable);
+      this.time = time;
+      this.period = period;
+    }
+
+    @Override
+    public boolean isPeriodic() {
+      return period != 0;
+    }
+
+    @Override
+    public void run() {
+      if (!isPeriodic()) {
+        super.run();
+      } else if (runAndReset()) {
+        time = period > 0 ? time + period : nanoTime() - period;
+        try {
+          arm(this);
+        } catch (RejectedExecutionException e) {
+          cancel(false);
+        }
+      }
+    }
+
+    @Override
+    protected void done() {
+      pendingTasks.remove(this);
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      boolean cancelled = super.cancel(mayInterruptIfRunning);
+      Timeout currentTimeout = timeout;
+      if (cancelled && currentTimeout != null) {
+        currentTimeout.cancel();
+      }
+      return cancelled;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(time - nanoTime(), NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+      if (other == this) {
+        return 0;
+      }
+      return compare(getDelay(NANOSECONDS), other.getDelay(NANOSECONDS));
+    }
+  }
+}
@@ -6,12 +6,15 @@
  */
 package org.mule.runtime.core.internal.util.journal;
 
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+
 import org.mule.runtime.api.exception.MuleRuntimeException;
 
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
@@ -30,6 +33,11 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Manages a transaction journal file.
+ * <p/>
+ * When group commit is enabled, entries are serialized into an in memory buffer instead of being written right away. The first
+ * thread that awaits for its entry to be durable takes every buffered entry, writes them with a single operation and syncs the
+ * file, while threads logging in the meantime accumulate their entries for the next batch. Entries are written in the same
+ * order they were logged, so the file content is the same as without group commit.
  *
  * @param <T> type of the transaction identifier
  * @param <K> type of the journal entry
@@ -47,12 +55,20 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
   private final File journalFile;
   private final JournalEntrySerializer<T, K> journalEntrySerializer;
   private final Long clearFileMinimumSizeInBytes;
+  private final boolean groupCommit;
 
   private Multimap<T, K> entries = LinkedHashMultimap.create();
 
+  private FileOutputStream logFile;
   private DataOutputStream logFileOutputStream;
   private int journalOperations = 0;
 
+  private final ByteArrayOutputStream pendingBuffer = new ByteArrayOutputStream();
+  private final DataOutputStream pendingOutputStream = new DataOutputStream(pendingBuffer);
+  private long loggedOperations = 0;
+  private long durableOperations = 0;
+  private boolean flushing = false;
+
   /**
    * @param journalFile journal file to use. Will be created if it doesn't exists. If exists then transaction entries will get
    *        loaded from it.
@@ -61,9 +77,23 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    */
   public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer,
                                 TransactionCompletePredicate transactionCompletePredicate, Long clearFileMinimumSizeInBytes) {
+    this(journalFile, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes, false);
+  }
+
+  /**
+   * @param journalFile journal file to use. Will be created if it doesn't exists. If exists then transaction entries will get
+   *        loaded from it.
+   * @param journalEntrySerializer serializer for {@link JournalEntry}
+   * @param transactionCompletePredicate a callback to determine if a transaction is complete.
+   * @param groupCommit whether entries are written and synced to disk in batches.
+   */
+  public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer,
+                                TransactionCompletePredicate transactionCompletePredicate, Long clearFileMinimumSizeInBytes,
+                                boolean groupCommit) {
     this.journalFile = journalFile;
     this.journalEntrySerializer = journalEntrySerializer;
     this.clearFileMinimumSizeInBytes = clearFileMinimumSizeInBytes;
+    this.groupCommit = groupCommit;
     if (journalFile.exists()) {
       loadAllEntries(transactionCompletePredicate);
     }
@@ -75,10 +105,108 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    * 
    * @param journalEntry operation details
    */
-  public synchronized void logOperation(K journalEntry) {
+  public void logOperation(K journalEntry) {
+    awaitDurable(enqueueOperation(journalEntry));
+  }
+
+  /**
+   * Adds a journal entry for an operation done over a transactional resource without waiting for it to be written.
+   *
+   * @param journalEntry operation details
+   * @return a ticket to pass to {@link #awaitDurable(long)}
+   */
+  synchronized long enqueueOperation(K journalEntry) {
     entries.put(journalEntry.getTxId(), journalEntry);
-    journalEntrySerializer.serialize(journalEntry, logFileOutputStream);
     journalOperations++;
+    loggedOperations++;
+    if (groupCommit) {
+      journalEntrySerializer.serialize(journalEntry, pendingOutputStream);
+    } else {
+      journalEntrySerializer.serialize(journalEntry, logFileOutputStream);
+      durableOperations = loggedOperations;
+    }
+    return loggedOperations;
+  }
+
+  /**
+   * Blocks until the operation identified by {@code ticket} has been written, writing the pending batch if no other thread is
+   * already doing so.
+   *
+   * @param ticket the value returned by {@link #enqueueOperation(JournalEntry)}
+   */
+  void awaitDurable(long ticket) {
+    while (true) {
+      final byte[] batch;
+      final long batchOperations;
+      synchronized (this) {
+        while (flushing && durableOperations < ticket) {
+          try {
+            wait();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MuleRuntimeException(createStaticMessage("Interrupted while writing transaction journal"), e);
+          }
+        }
+        if (durableOperations >= ticket) {
+          return;
+        }
+
+        flushing = true;
+        batch = pendingBuffer.toByteArray();
+        batchOperations = loggedOperations;
+        pendingBuffer.reset();
+      }
+
+      boolean written = false;
+      try {
+        writeAndSync(batch);
+        written = true;
+      } finally {
+        synchronized (this) {
+          flushing = false;
+          if (written) {
+            durableOperations = batchOperations;
+          } else {
+            // put the batch back so that it's retried by the next writer before any newer entry
+            byte[] newerEntries = pendingBuffer.toByteArray();
+            pendingBuffer.reset();
+            pendingBuffer.write(batch, 0, batch.length);
+            pendingBuffer.write(newerEntries, 0, newerEntries.length);
+          }
+          notifyAll();
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes the pending batch from the calling thread. Must be invoked holding this instance's monitor.
+   */
+  private void flushPending() {
+    while (flushing) {
+      try {
+        wait();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new MuleRuntimeException(createStaticMessage("Interrupted while writing transaction journal"), e);
+      }
+    }
+    if (pendingBuffer.size() > 0) {
+      writeAndSync(pendingBuffer.toByteArray());
+      pendingBuffer.reset();
+    }
+    durableOperations = loggedOperations;
+    notifyAll();
+  }
+
+  private void writeAndSync(byte[] batch) {
+    try {
+      logFileOutputStream.write(batch);
+      logFile.getChannel().force(false);
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not write transaction journal " + journalFile.getAbsolutePath()),
+                                     e);
+    }
   }
 
   /**
@@ -121,11 +249,19 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    */
   public synchronized void close() {
     try {
-      logFileOutputStream.close();
-    } catch (IOException e) {
-      logger.warn(e.getMessage());
-      if (logger.isDebugEnabled()) {
-        logger.debug("Error closing transaction journal file", e);
+      if (groupCommit) {
+        flushPending();
+      }
+    } catch (MuleRuntimeException e) {
+      logger.warn("Could not write pending entries before closing transaction journal file " + journalFile.getAbsolutePath(), e);
+    } finally {
+      try {
+        logFileOutputStream.close();
+      } catch (IOException e) {
+        logger.warn(e.getMessage());
+        if (logger.isDebugEnabled()) {
+          logger.debug("Error closing transaction journal file", e);
+        }
       }
     }
   }
@@ -171,7 +307,8 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
       }
     }
     try {
-      this.logFileOutputStream = new DataOutputStream(new FileOutputStream(journalFile, true));
+      this.logFile = new FileOutputStream(journalFile, true);
+      this.logFileOutputStream = new DataOutputStream(logFile);
     } catch (FileNotFoundException e) {
       throw new MuleRuntimeException(e);
     }
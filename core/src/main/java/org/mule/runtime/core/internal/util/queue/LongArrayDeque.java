@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static java.lang.System.arraycopy;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Resizable circular array of primitive {@code long} values supporting insertion and removal at both ends.
+ * <p/>
+ * Avoids boxing each key as {@link java.util.LinkedList} does. Not thread safe.
+ */
+class LongArrayDeque {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private long[] elements = new long[INITIAL_CAPACITY];
+  private int head = 0;
+  private int size = 0;
+
+  void addFirst(long value) {
+    ensureCapacity();
+    head = (head - 1) & (elements.length - 1);
+    elements[head] = value;
+    size++;
+  }
+
+  void addLast(long value) {
+    ensureCapacity();
+    elements[(head + size) & (elements.length - 1)] = value;
+    size++;
+  }
+
+  /**
+   * @return the first value, without removing it
+   * @throws NoSuchElementException if the deque is empty
+   */
+  long getFirst() {
+    if (size == 0) {
+      throw new NoSuchElementException();
+    }
+    return elements[head];
+  }
+
+  /**
+   * @return the first value, which is removed
+   * @throws NoSuchElementException if the deque is empty
+   */
+  long removeFirst() {
+    long value = getFirst();
+    head = (head + 1) & (elements.length - 1);
+    size--;
+    return value;
+  }
+
+  /**
+   * @param index the position of the value, being {@code 0} the first one
+   * @return the value at the given position
+   */
+  long get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+    return elements[(head + index) & (elements.length - 1)];
+  }
+
+  /**
+   * Removes the first occurrence of the given value, shifting the following ones.
+   *
+   * @param value the value to remove
+   * @return whether the value was found
+   */
+  boolean remove(long value) {
+    for (int i = 0; i < size; i++) {
+      if (get(i) == value) {
+        for (int j = i; j < size - 1; j++) {
+          elements[(head + j) & (elements.length - 1)] = elements[(head + j + 1) & (elements.length - 1)];
+        }
+        size--;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  void clear() {
+    head = 0;
+    size = 0;
+  }
+
+  private void ensureCapacity() {
+    if (size == elements.length) {
+      long[] newElements = new long[elements.length << 1];
+      int firstChunk = elements.length - head;
+      arraycopy(elements, head, newElements, 0, firstChunk);
+      arraycopy(elements, 0, newElements, firstChunk, head);
+      elements = newElements;
+      head = 0;
+    }
+  }
+}
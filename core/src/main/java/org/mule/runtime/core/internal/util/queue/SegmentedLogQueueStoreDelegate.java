@@ -0,0 +1,619 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.util.Preconditions.checkState;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.core.api.MuleContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link TransactionalQueueStoreDelegate} implementation which stores the queue data in an append-only log split in
+ * segments.
+ * <p/>
+ * Every operation appends a record to the active segment: additions at either end of the queue carry the serialized item
+ * and removals carry the location of the removed item. Nothing is ever rewritten in place, and the order of the queue is
+ * rebuilt on startup by replaying the segments. The locations of the queued items are kept in memory as primitive
+ * {@code long} values.
+ * <p/>
+ * Writes are not synchronized to disk individually. A task run on the IO scheduler forces the segments written since the
+ * previous sync and releases every operation appended up to that point at once, so concurrent producers and consumers share
+ * the cost of each fsync. An operation only returns once its record is durable, but while it waits the queue monitor is
+ * released so that other operations can be appended to the next batch, and no fsync is ever done while holding it. If forcing
+ * a batch fails, only the operations of that batch fail, and an item taken from the queue by one of them is put back.
+ * <p/>
+ * Once a segment reaches {@link #SEGMENT_SIZE} a new one is started. Segments are reclaimed in order as soon as none of
+ * their items remain in the queue.
+ *
+ * @since 4.0
+ */
+public class SegmentedLogQueueStoreDelegate extends AbstractQueueStoreDelegate implements TransactionalQueueStoreDelegate {
+
+  private static final String SYSTEM_PROPERTY_PREFIX = SegmentedLogQueueStoreDelegate.class.getName() + ".";
+
+  static final int SEGMENT_SIZE = getInteger(SYSTEM_PROPERTY_PREFIX + "SEGMENT_SIZE", 4 * 1024 * 1024);
+
+  private static final String QUEUE_STORE_DIRECTORY = "queuestore";
+  private static final String LOG_DIRECTORY_SUFFIX = "-log";
+  private static final String SEGMENT_FILE_EXTENSION = ".log";
+
+  private static final byte ADD_LAST = 1;
+  private static final byte ADD_FIRST = 2;
+  private static final byte REMOVE = 3;
+  private static final int HEADER_SIZE = 5;
+  private static final int REMOVE_PAYLOAD_SIZE = 8;
+
+  protected final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private final ObjectSerializer serializer;
+  private final File logDirectory;
+  private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+  private final LongArrayDeque keys = new LongArrayDeque();
+  private final Object syncLock = new Object();
+  private final Scheduler syncScheduler;
+
+  private Segment activeSegment;
+  private SyncBatch pendingBatch = new SyncBatch();
+  private boolean syncRequested = false;
+  private boolean syncScheduled = false;
+  private volatile boolean closed = false;
+
+  public SegmentedLogQueueStoreDelegate(String queueName, String workingDirectory, MuleContext muleContext, int capacity) {
+    super(capacity);
+    serializer = muleContext.getObjectSerializer();
+    logDirectory = getLogDirectory(queueName, workingDirectory);
+    if (!logDirectory.exists()) {
+      checkState(logDirectory.mkdirs(), "Could not create queue store directory " + logDirectory.getAbsolutePath());
+    }
+
+    try {
+      recover();
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not recover queue store " + logDirectory.getAbsolutePath()), e);
+    }
+
+    syncScheduler = muleContext.getSchedulerService().ioScheduler();
+
+    if (logger.isDebugEnabled()) {
+      logger.debug(format("Queue %s has %s messages in %s segments", queueName, keys.size(), segments.size()));
+    }
+  }
+
+  static File getLogDirectory(String queueName, String workingDirectory) {
+    String directoryName = queueName.matches("[\\w.\\-]+") ? queueName : new BigInteger(queueName.getBytes(UTF_8)).toString(16);
+    return new File(workingDirectory + File.separator + QUEUE_STORE_DIRECTORY, directoryName + LOG_DIRECTORY_SUFFIX);
+  }
+
+  @Override
+  protected synchronized void addFirst(Serializable item) throws InterruptedException {
+    long location = append(ADD_FIRST, serializer.getInternalProtocol().serialize(item));
+    keys.addFirst(location);
+    awaitDurable();
+  }
+
+  @Override
+  protected synchronized void add(Serializable item) {
+    long location = append(ADD_LAST, serializer.getInternalProtocol().serialize(item));
+    keys.addLast(location);
+    awaitDurableUninterruptibly();
+  }
+
+  @Override
+  protected synchronized boolean doAddAll(Collection<? extends Serializable> items) {
+    if (items.isEmpty()) {
+      return true;
+    }
+    for (Serializable item : items) {
+      keys.addLast(append(ADD_LAST, serializer.getInternalProtocol().serialize(item)));
+    }
+    awaitDurableUninterruptibly();
+    return true;
+  }
+
+  @Override
+  protected synchronized Serializable removeFirst() throws InterruptedException {
+    if (keys.isEmpty()) {
+      return null;
+    }
+
+    long location = keys.getFirst();
+    byte[] payload = read(location);
+    Serializable value = deserialize(payload);
+    // taken right away so that no other consumer gets it while waiting, but only committed once the removal is durable
+    keys.removeFirst();
+    try {
+      appendRemove(location);
+      awaitDurable();
+    } catch (InterruptedException | RuntimeException e) {
+      putBack(location, payload, e);
+      throw e;
+    }
+    release(location);
+    return value;
+  }
+
+  /**
+   * Puts an item whose removal could not be synced back at the head of the queue. The removal record may still become durable
+   * along with a later batch, so the item is appended again in order to survive a restart.
+   */
+  private void putBack(long location, byte[] payload, Exception cause) {
+    try {
+      keys.addFirst(append(ADD_FIRST, payload));
+      release(location);
+    } catch (RuntimeException e) {
+      cause.addSuppressed(e);
+      keys.addFirst(location);
+    }
+  }
+
+  @Override
+  protected synchronized Serializable getFirst() throws InterruptedException {
+    if (keys.isEmpty()) {
+      return null;
+    }
+    return deserialize(read(keys.getFirst()));
+  }
+
+  @Override
+  protected synchronized int size() {
+    return keys.size();
+  }
+
+  @Override
+  protected synchronized boolean isEmpty() {
+    return keys.isEmpty();
+  }
+
+  @Override
+  protected synchronized void doClear() {
+    int nextSegmentId = activeSegment.id + 1;
+    keys.clear();
+    segments.descendingMap().values().forEach(Segment::delete);
+    segments.clear();
+    try {
+      activeSegment = openSegment(nextSegmentId);
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not create queue store segment"), e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized void remove(Serializable value) {
+    for (int i = 0; i < keys.size(); ++i) {
+      long location = keys.get(i);
+      if (deserialize(read(location)).equals(value)) {
+        keys.remove(location);
+        appendRemove(location);
+        awaitDurableUninterruptibly();
+        release(location);
+        return;
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized boolean contains(Serializable value) {
+    for (int i = 0; i < keys.size(); ++i) {
+      if (deserialize(read(keys.get(i))).equals(value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void close() {
+    final SyncBatch batch;
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      batch = pendingBatch;
+    }
+    syncScheduler.stop();
+
+    // no more records can be appended, so the last batch is forced here since the scheduler won't do it anymore
+    IOException failure = batch.force();
+    if (failure != null) {
+      logger.warn("Could not sync queue store " + logDirectory.getAbsolutePath(), failure);
+    }
+
+    synchronized (this) {
+      batch.complete(failure);
+      notifyAll();
+      segments.values().forEach(Segment::close);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void dispose() {
+    close();
+    synchronized (this) {
+      segments.values().forEach(Segment::delete);
+      segments.clear();
+      deleteQuietly(logDirectory);
+    }
+  }
+
+  private long append(byte type, byte[] payload) {
+    checkState(!closed, "Queue store is closed");
+    final long location;
+    try {
+      if (activeSegment.size >= SEGMENT_SIZE) {
+        // the previous segment is forced along with the rest of the batch
+        activeSegment = openSegment(activeSegment.id + 1);
+      }
+      pendingBatch.written(activeSegment);
+
+      ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+      record.put(type).putInt(payload.length).put(payload).flip();
+
+      long offset = activeSegment.size;
+      location = location(activeSegment.id, offset);
+      activeSegment.write(record, offset);
+      activeSegment.size += record.capacity();
+      if (type != REMOVE) {
+        activeSegment.live++;
+      }
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not write to queue store segment "
+          + activeSegment.file.getAbsolutePath()), e);
+    }
+
+    requestSync();
+    return location;
+  }
+
+  private void appendRemove(long location) {
+    append(REMOVE, ByteBuffer.allocate(REMOVE_PAYLOAD_SIZE).putLong(location).array());
+  }
+
+  private void release(long location) {
+    Segment segment = segments.get(segmentId(location));
+    if (segment != null) {
+      segment.live--;
+    }
+  }
+
+  private byte[] read(long location) {
+    Segment segment = segments.get(segmentId(location));
+    long offset = offset(location);
+    try {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      segment.read(header, offset);
+      byte[] payload = new byte[header.getInt(1)];
+      segment.read(ByteBuffer.wrap(payload), offset + HEADER_SIZE);
+      return payload;
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not read from queue store segment "
+          + segment.file.getAbsolutePath()), e);
+    }
+  }
+
+  private Serializable deserialize(byte[] valueAsBytes) {
+    return serializer.getInternalProtocol().deserialize(valueAsBytes);
+  }
+
+  /**
+   * Waits until the batch holding the records appended so far has been synchronized to disk. The queue monitor is released
+   * while waiting so that other operations get appended to the next batch.
+   *
+   * @throws InterruptedException if interrupted while waiting. The records are written and may still become durable.
+   */
+  private synchronized void awaitDurable() throws InterruptedException {
+    final SyncBatch batch = pendingBatch;
+    while (!batch.synced) {
+      wait();
+    }
+    if (batch.failure != null) {
+      throw new MuleRuntimeException(createStaticMessage("Could not sync queue store " + logDirectory.getAbsolutePath()),
+                                     batch.failure);
+    }
+  }
+
+  private void awaitDurableUninterruptibly() {
+    try {
+      awaitDurable();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MuleRuntimeException(createStaticMessage("Interrupted while waiting for queue store "
+          + logDirectory.getAbsolutePath() + " to sync"), e);
+    }
+  }
+
+  private void requestSync() {
+    synchronized (syncLock) {
+      syncRequested = true;
+      if (syncScheduled) {
+        return;
+      }
+      syncScheduled = true;
+    }
+
+    try {
+      syncScheduler.execute(this::syncBatches);
+    } catch (RejectedExecutionException e) {
+      synchronized (syncLock) {
+        syncScheduled = false;
+      }
+      if (!closed) {
+        throw new MuleRuntimeException(createStaticMessage("Could not schedule sync of queue store "
+            + logDirectory.getAbsolutePath()), e);
+      }
+    }
+  }
+
+  /**
+   * Syncs batches for as long as operations keep being appended, so that a single task serves a burst of operations.
+   */
+  private void syncBatches() {
+    while (true) {
+      synchronized (syncLock) {
+        if (!syncRequested || closed) {
+          syncScheduled = false;
+          return;
+        }
+        syncRequested = false;
+      }
+      syncBatch();
+    }
+  }
+
+  private void syncBatch() {
+    final SyncBatch batch;
+    final List<Segment> reclaimable = new ArrayList<>();
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      batch = pendingBatch;
+      pendingBatch = new SyncBatch();
+      for (Segment candidate : segments.values()) {
+        if (candidate == activeSegment || candidate.live > 0) {
+          break;
+        }
+        reclaimable.add(candidate);
+      }
+    }
+
+    IOException failure = batch.force();
+
+    synchronized (this) {
+      batch.complete(failure);
+      notifyAll();
+
+      if (failure != null) {
+        return;
+      }
+      // All the records of the batch are durable now, so the segments which had no items left by then can go
+      reclaimable.removeIf(candidate -> segments.get(candidate.id) != candidate || candidate.live > 0);
+      reclaimable.forEach(candidate -> segments.remove(candidate.id));
+    }
+
+    reclaimable.forEach(Segment::delete);
+  }
+
+  private void recover() throws IOException {
+    File[] files = logDirectory.listFiles((dir, name) -> name.endsWith(SEGMENT_FILE_EXTENSION));
+    if (files != null) {
+      for (File file : files) {
+        String name = file.getName();
+        try {
+          int id = Integer.parseInt(name.substring(0, name.length() - SEGMENT_FILE_EXTENSION.length()));
+          segments.put(id, new Segment(id, file));
+        } catch (NumberFormatException e) {
+          logger.warn("Ignoring unexpected file in queue store directory: " + file.getAbsolutePath());
+        }
+      }
+    }
+
+    for (Segment segment : segments.values()) {
+      replay(segment);
+    }
+
+    activeSegment = segments.isEmpty() ? openSegment(0) : segments.lastEntry().getValue();
+
+    while (segments.size() > 1) {
+      Segment first = segments.firstEntry().getValue();
+      if (first == activeSegment || first.live > 0) {
+        break;
+      }
+      segments.pollFirstEntry();
+      first.delete();
+    }
+  }
+
+  private void replay(Segment segment) throws IOException {
+    final long length = segment.channel.size();
+    final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    final ByteBuffer removedLocation = ByteBuffer.allocate(REMOVE_PAYLOAD_SIZE);
+    long position = 0;
+
+    while (position + HEADER_SIZE <= length) {
+      header.clear();
+      segment.read(header, position);
+      byte type = header.get(0);
+      int payloadLength = header.getInt(1);
+      if (type < ADD_LAST || type > REMOVE || payloadLength < 0 || position + HEADER_SIZE + payloadLength > length) {
+        break;
+      }
+
+      if (type == ADD_LAST) {
+        keys.addLast(location(segment.id, position));
+        segment.live++;
+      } else if (type == ADD_FIRST) {
+        keys.addFirst(location(segment.id, position));
+        segment.live++;
+      } else {
+        removedLocation.clear();
+        segment.read(removedLocation, position + HEADER_SIZE);
+        long location = removedLocation.getLong(0);
+        if (!keys.isEmpty() && keys.getFirst() == location) {
+          keys.removeFirst();
+          release(location);
+        } else if (keys.remove(location)) {
+          release(location);
+        }
+      }
+      position += HEADER_SIZE + payloadLength;
+    }
+
+    if (position < length) {
+      logger.warn(format("Discarding %d bytes of incomplete data at the end of queue store segment %s", length - position,
+                         segment.file.getAbsolutePath()));
+      segment.channel.truncate(position);
+    }
+    segment.size = position;
+  }
+
+  private Segment openSegment(int id) throws IOException {
+    Segment segment = new Segment(id, new File(logDirectory, format("%010d%s", id, SEGMENT_FILE_EXTENSION)));
+    segments.put(id, segment);
+    return segment;
+  }
+
+  private static long location(int segmentId, long offset) {
+    return ((long) segmentId << 32) | offset;
+  }
+
+  private static int segmentId(long location) {
+    return (int) (location >>> 32);
+  }
+
+  private static long offset(long location) {
+    return location & 0xFFFFFFFFL;
+  }
+
+  /**
+   * Records appended between two syncs, which become durable or fail together.
+   */
+  private static class SyncBatch {
+
+    private final List<Segment> segments = new ArrayList<>(1);
+    private boolean synced = false;
+    private IOException failure;
+
+    private void written(Segment segment) {
+      if (segments.isEmpty() || segments.get(segments.size() - 1) != segment) {
+        segments.add(segment);
+      }
+    }
+
+    /**
+     * Forces the segments written by this batch. Must be called once no more records can be added to it.
+     *
+     * @return the failure forcing the segments, or {@code null} if all of them are durable
+     */
+    private IOException force() {
+      for (Segment segment : segments) {
+        try {
+          segment.force();
+        } catch (IOException e) {
+          return e;
+        }
+      }
+      return null;
+    }
+
+    private void complete(IOException failure) {
+      this.failure = failure;
+      this.synced = true;
+    }
+  }
+
+  private class Segment {
+
+    private final int id;
+    private final File file;
+    private final FileChannel channel;
+    private long size;
+    private int live = 0;
+
+    private Segment(int id, File file) throws IOException {
+      this.id = id;
+      this.file = file;
+      this.channel = FileChannel.open(file.toPath(), CREATE, READ, WRITE);
+      this.size = channel.size();
+    }
+
+    private void write(ByteBuffer data, long position) throws IOException {
+      while (data.hasRemaining()) {
+        position += channel.write(data, position);
+      }
+    }
+
+    private void read(ByteBuffer data, long position) throws IOException {
+      while (data.hasRemaining()) {
+        int read = channel.read(data, position);
+        if (read < 0) {
+          throw new IOException("Unexpected end of queue store segment " + file.getAbsolutePath());
+        }
+        position += read;
+      }
+    }
+
+    private void force() throws IOException {
+      try {
+        channel.force(false);
+      } catch (ClosedChannelException e) {
+        // segment was reclaimed or the store closed, nothing left to sync
+      }
+    }
+
+    private void close() {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        logger.warn("Could not close queue store segment " + file.getAbsolutePath(), e);
+      }
+    }
+
+    private void delete() {
+      close();
+      deleteQuietly(file);
+    }
+  }
+}
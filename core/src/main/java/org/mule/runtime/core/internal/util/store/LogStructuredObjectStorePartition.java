@@ -0,0 +1,739 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Collections.unmodifiableList;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.config.i18n.CoreMessages.failedToCreate;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+import static org.mule.runtime.core.internal.util.store.PersistentObjectStorePartition.PARTITION_DESCRIPTOR_FILE;
+import static org.mule.runtime.core.internal.util.store.PersistentObjectStorePartition.readPartitionFileName;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.ObjectStoreNotAvailableException;
+import org.mule.runtime.api.store.TemplateObjectStore;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.store.DeserializationPostInitialisable;
+import org.mule.runtime.core.api.store.ExpirableObjectStore;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent partition which stores all its entries in a single append-only log file instead of one file per entry.
+ * <p>
+ * Every store and removal appends a checksummed record to the log, and an in memory hash index maps each key to the location of
+ * its value so that retrievals need a single positional read. Once removed and expired entries account for most of the log it
+ * is compacted by copying the live records into a new file, which atomically replaces the old one.
+ * <p>
+ * Entries are also indexed by the order in which they were stored, so expiration only visits the entries it evicts.
+ * <p>
+ * A snapshot of the index is written when the partition is closed or compacted. On {@link #open()} the snapshot is loaded and
+ * only the records appended after it are replayed, so startup doesn't need to read every value back.
+ *
+ * @param <T> the type of the stored values
+ * @since 4.0
+ */
+public class LogStructuredObjectStorePartition<T extends Serializable> extends TemplateObjectStore<T>
+    implements ExpirableObjectStore<T> {
+
+  private static final String SYSTEM_PROPERTY_PREFIX = LogStructuredObjectStorePartition.class.getName() + ".";
+
+  static final int COMPACTION_THRESHOLD = getInteger(SYSTEM_PROPERTY_PREFIX + "COMPACTION_THRESHOLD", 1024 * 1024);
+
+  static final String LOG_FILE = "store.log";
+  static final String SNAPSHOT_FILE = "index.snapshot";
+  private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+  private static final int LOG_MAGIC = 0x4D4F534C;
+  private static final int SNAPSHOT_MAGIC = 0x4D4F5349;
+  private static final int LOG_HEADER_SIZE = 12;
+
+  private static final byte PUT = 1;
+  private static final byte REMOVE = 2;
+  private static final int CHECKSUM_SIZE = 4;
+  private static final int RECORD_HEADER_SIZE = CHECKSUM_SIZE + 17;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LogStructuredObjectStorePartition.class);
+
+  private final MuleContext muleContext;
+  private final ObjectSerializer serializer;
+  private final File partitionDirectory;
+  private String partitionName;
+
+  /**
+   * Read access allows concurrent operations over the log, write access is needed to replace or truncate it.
+   */
+  private final ReadWriteLock logLock = new ReentrantReadWriteLock();
+  private final Object appendLock = new Object();
+  private final Map<String, IndexEntry> index = new ConcurrentHashMap<>();
+  private final ConcurrentNavigableMap<Long, String> keysBySequence = new ConcurrentSkipListMap<>();
+
+  private FileChannel log;
+  private long generation;
+  private long logLength;
+  private long liveBytes;
+  private long sequence;
+  private volatile boolean opened = false;
+
+  public LogStructuredObjectStorePartition(MuleContext muleContext, String partitionName, File partitionDirectory) {
+    this.muleContext = muleContext;
+    serializer = muleContext.getObjectSerializer();
+    this.partitionName = partitionName;
+    this.partitionDirectory = partitionDirectory;
+  }
+
+  public LogStructuredObjectStorePartition(MuleContext muleContext, File partitionDirectory)
+      throws ObjectStoreNotAvailableException {
+    this.muleContext = muleContext;
+    serializer = muleContext.getObjectSerializer();
+    this.partitionDirectory = partitionDirectory;
+    this.partitionName = readPartitionFileName(partitionDirectory);
+  }
+
+  /**
+   * @param partitionDirectory the directory of a persistent partition
+   * @return whether the partition in the given directory uses this format
+   */
+  public static boolean isLogStructuredPartition(File partitionDirectory) {
+    return new File(partitionDirectory, LOG_FILE).exists();
+  }
+
+  @Override
+  public synchronized void open() throws ObjectStoreException {
+    if (opened) {
+      return;
+    }
+
+    createDirectory();
+    createOrRetrievePartitionDescriptorFile();
+    index.clear();
+    keysBySequence.clear();
+    liveBytes = 0;
+    sequence = 0;
+    try {
+      log = FileChannel.open(getLogFile().toPath(), CREATE, READ, WRITE);
+      if (log.size() < LOG_HEADER_SIZE) {
+        generation = 0;
+        log.truncate(0);
+        writeLogHeader(log, generation);
+      } else {
+        ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_SIZE);
+        readFully(header, 0);
+        if (header.getInt(0) != LOG_MAGIC) {
+          throw new ObjectStoreException(createStaticMessage("Invalid object store log " + getLogFile().getAbsolutePath()));
+        }
+        generation = header.getLong(4);
+      }
+
+      replay(loadSnapshot());
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage(format("Could not restore object store data from %1s",
+                                                                partitionDirectory.getAbsolutePath())),
+                                     e);
+    }
+    opened = true;
+    compactIfNeeded();
+  }
+
+  /**
+   * Syncs the log, writes a snapshot of the index so that the next {@link #open()} is fast and closes the log file. Further
+   * operations over the partition open it again.
+   */
+  @Override
+  public synchronized void close() throws ObjectStoreException {
+    if (!opened) {
+      return;
+    }
+
+    logLock.writeLock().lock();
+    try {
+      writeSnapshot();
+    } finally {
+      opened = false;
+      try {
+        log.close();
+      } catch (IOException e) {
+        LOGGER.warn("Could not close object store log " + getLogFile().getAbsolutePath(), e);
+      }
+      log = null;
+      logLock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public List<String> allKeys() throws ObjectStoreException {
+    assureOpened();
+    return unmodifiableList(new ArrayList<>(index.keySet()));
+  }
+
+  @Override
+  protected boolean doContains(String key) throws ObjectStoreException {
+    assureOpened();
+    return index.containsKey(key);
+  }
+
+  @Override
+  protected void doStore(String key, T value) throws ObjectStoreException {
+    byte[] serializedValue = serialize(value);
+
+    Lock lock = lockOpened(logLock.readLock());
+    try {
+      synchronized (appendLock) {
+        if (index.containsKey(key)) {
+          throw new ObjectAlreadyExistsException();
+        }
+        IndexEntry entry = append(PUT, key, serializedValue);
+        index.put(key, entry);
+        keysBySequence.put(entry.getSequence(), key);
+        liveBytes += entry.getRecordLength();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  protected T doRetrieve(String key) throws ObjectStoreException {
+    final byte[] serializedValue;
+    Lock lock = lockOpened(logLock.readLock());
+    try {
+      IndexEntry entry = index.get(key);
+      if (entry == null) {
+        throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+      }
+      serializedValue = readValue(entry);
+    } finally {
+      lock.unlock();
+    }
+    return deserialize(serializedValue);
+  }
+
+  @Override
+  protected T doRemove(String key) throws ObjectStoreException {
+    final byte[] serializedValue;
+    Lock lock = lockOpened(logLock.readLock());
+    try {
+      synchronized (appendLock) {
+        IndexEntry entry = index.get(key);
+        if (entry == null) {
+          throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+        }
+        serializedValue = readValue(entry);
+        removeEntry(key, entry);
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    compactIfNeeded();
+    return deserialize(serializedValue);
+  }
+
+  @Override
+  public void clear() throws ObjectStoreException {
+    Lock lock = lockOpened(logLock.writeLock());
+    try {
+      index.clear();
+      keysBySequence.clear();
+      deleteQuietly(getSnapshotFile());
+      log.truncate(0);
+      writeLogHeader(log, ++generation);
+      logLength = LOG_HEADER_SIZE;
+      liveBytes = 0;
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage("Could not clear ObjectStore"), e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean isPersistent() {
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Entries are evicted in the order they were stored. The space of the evicted entries is reclaimed by compacting the log
+   * once it's mostly garbage.
+   */
+  @Override
+  public void expire(long entryTTL, int maxEntries) throws ObjectStoreException {
+    assureOpened();
+
+    if (maxEntries != UNBOUNDED) {
+      Map.Entry<Long, String> oldest;
+      while (index.size() > maxEntries && (oldest = keysBySequence.firstEntry()) != null) {
+        expireEntry(oldest.getValue(), oldest.getKey());
+      }
+    }
+
+    if (entryTTL != UNBOUNDED) {
+      final long now = System.currentTimeMillis();
+      Map.Entry<Long, String> oldest;
+      while ((oldest = keysBySequence.firstEntry()) != null) {
+        IndexEntry entry = index.get(oldest.getValue());
+        if (entry != null && entry.getSequence() == oldest.getKey() && (now - entry.getTimestamp()) < entryTTL) {
+          break;
+        }
+        expireEntry(oldest.getValue(), oldest.getKey());
+      }
+    }
+
+    compactIfNeeded();
+  }
+
+  public String getPartitionName() {
+    return partitionName;
+  }
+
+  private void expireEntry(String key, long entrySequence) throws ObjectStoreException {
+    Lock lock = lockOpened(logLock.readLock());
+    try {
+      synchronized (appendLock) {
+        IndexEntry entry = index.get(key);
+        if (entry != null && entry.getSequence() == entrySequence) {
+          removeEntry(key, entry);
+        } else {
+          keysBySequence.remove(entrySequence, key);
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Must be invoked holding the read lock and the append lock.
+   */
+  private void removeEntry(String key, IndexEntry entry) throws ObjectStoreException {
+    append(REMOVE, key, new byte[0]);
+    index.remove(key);
+    keysBySequence.remove(entry.getSequence());
+    liveBytes -= entry.getRecordLength();
+  }
+
+  /**
+   * Must be invoked holding the read lock and the append lock.
+   */
+  private IndexEntry append(byte type, String key, byte[] value) throws ObjectStoreException {
+    byte[] keyBytes = key.getBytes(UTF_8);
+    long timestamp = System.currentTimeMillis();
+
+    ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + keyBytes.length + value.length);
+    record.position(CHECKSUM_SIZE);
+    record.put(type).putLong(timestamp).putInt(keyBytes.length).putInt(value.length).put(keyBytes).put(value);
+    record.putInt(0, checksum(record.array(), CHECKSUM_SIZE, record.capacity() - CHECKSUM_SIZE));
+    record.flip();
+
+    long offset = logLength;
+    try {
+      while (record.hasRemaining()) {
+        log.write(record, offset + record.position());
+      }
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage("Could not write to object store log "
+          + getLogFile().getAbsolutePath()), e);
+    }
+    logLength += record.capacity();
+    return new IndexEntry(offset, keyBytes.length, value.length, timestamp, sequence++);
+  }
+
+  private byte[] readValue(IndexEntry entry) throws ObjectStoreException {
+    ByteBuffer value = ByteBuffer.allocate(entry.getValueLength());
+    try {
+      readFully(value, entry.getValueOffset());
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage("Could not read from object store log "
+          + getLogFile().getAbsolutePath()), e);
+    }
+    return value.array();
+  }
+
+  private void readFully(ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (log.read(buffer, position + buffer.position()) < 0) {
+        throw new IOException("Unexpected end of object store log " + getLogFile().getAbsolutePath());
+      }
+    }
+  }
+
+  private void replay(long position) throws IOException {
+    final long size = log.size();
+    final CRC32 crc = new CRC32();
+    final byte[] header = new byte[RECORD_HEADER_SIZE];
+
+    log.position(position);
+    DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(log)));
+    while (position + RECORD_HEADER_SIZE <= size) {
+      input.readFully(header);
+      ByteBuffer headerBuffer = ByteBuffer.wrap(header);
+      int checksum = headerBuffer.getInt();
+      byte type = headerBuffer.get();
+      long timestamp = headerBuffer.getLong();
+      int keyLength = headerBuffer.getInt();
+      int valueLength = headerBuffer.getInt();
+      if ((type != PUT && type != REMOVE) || keyLength < 0 || valueLength < 0
+          || position + RECORD_HEADER_SIZE + keyLength + valueLength > size) {
+        break;
+      }
+
+      byte[] body = new byte[keyLength + valueLength];
+      input.readFully(body);
+      crc.reset();
+      crc.update(header, CHECKSUM_SIZE, RECORD_HEADER_SIZE - CHECKSUM_SIZE);
+      crc.update(body, 0, body.length);
+      if ((int) crc.getValue() != checksum) {
+        break;
+      }
+
+      String key = new String(body, 0, keyLength, UTF_8);
+      IndexEntry previous;
+      if (type == PUT) {
+        IndexEntry entry = new IndexEntry(position, keyLength, valueLength, timestamp, sequence++);
+        previous = index.put(key, entry);
+        keysBySequence.put(entry.getSequence(), key);
+        liveBytes += entry.getRecordLength();
+      } else {
+        previous = index.remove(key);
+      }
+      if (previous != null) {
+        keysBySequence.remove(previous.getSequence());
+        liveBytes -= previous.getRecordLength();
+      }
+      position += RECORD_HEADER_SIZE + body.length;
+    }
+
+    if (position < size) {
+      LOGGER.warn(format("Discarding %d bytes of incomplete data at the end of object store log %s", size - position,
+                         getLogFile().getAbsolutePath()));
+      log.truncate(position);
+    }
+    logLength = position;
+  }
+
+  private void compactIfNeeded() throws ObjectStoreException {
+    if (logLength - LOG_HEADER_SIZE > COMPACTION_THRESHOLD && liveBytes * 2 < logLength - LOG_HEADER_SIZE) {
+      compact();
+    }
+  }
+
+  private void compact() throws ObjectStoreException {
+    logLock.writeLock().lock();
+    try {
+      // re-check since another thread may have compacted or closed the log already
+      if (!opened || liveBytes * 2 >= logLength - LOG_HEADER_SIZE) {
+        return;
+      }
+
+      File compactedFile = new File(partitionDirectory, LOG_FILE + TEMP_FILE_SUFFIX);
+      Map<String, IndexEntry> compactedIndex = new HashMap<>();
+      long position = LOG_HEADER_SIZE;
+      try (FileChannel compacted = FileChannel.open(compactedFile.toPath(), CREATE, TRUNCATE_EXISTING, WRITE)) {
+        writeLogHeader(compacted, generation + 1);
+        // the records are copied in the order they were stored, so their sequences remain valid
+        for (String key : keysBySequence.values()) {
+          IndexEntry indexEntry = index.get(key);
+          ByteBuffer record = ByteBuffer.allocate(indexEntry.getRecordLength());
+          readFully(record, indexEntry.getOffset());
+          record.flip();
+          while (record.hasRemaining()) {
+            compacted.write(record, position + record.position());
+          }
+          compactedIndex.put(key, indexEntry.movedTo(position));
+          position += record.capacity();
+        }
+        compacted.force(true);
+      }
+
+      log.close();
+      Files.move(compactedFile.toPath(), getLogFile().toPath(), ATOMIC_MOVE, REPLACE_EXISTING);
+      log = FileChannel.open(getLogFile().toPath(), READ, WRITE);
+
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug(format("Compacted object store log %s from %d to %d bytes", getLogFile().getAbsolutePath(), logLength,
+                            position));
+      }
+
+      generation++;
+      logLength = position;
+      liveBytes = position - LOG_HEADER_SIZE;
+      index.putAll(compactedIndex);
+      writeSnapshot();
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage("Could not compact object store log "
+          + getLogFile().getAbsolutePath()), e);
+    } finally {
+      logLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Must be invoked holding the write lock.
+   */
+  private void writeSnapshot() throws ObjectStoreException {
+    File snapshotFile = getSnapshotFile();
+    File tempFile = new File(partitionDirectory, SNAPSHOT_FILE + TEMP_FILE_SUFFIX);
+    try {
+      log.force(false);
+      try (FileOutputStream fileOutput = new FileOutputStream(tempFile);
+          DataOutputStream output = new DataOutputStream(new BufferedOutputStream(fileOutput))) {
+        output.writeInt(SNAPSHOT_MAGIC);
+        output.writeLong(generation);
+        output.writeLong(logLength);
+        output.writeLong(sequence);
+        output.writeInt(index.size());
+        for (Map.Entry<String, IndexEntry> entry : index.entrySet()) {
+          IndexEntry indexEntry = entry.getValue();
+          byte[] keyBytes = entry.getKey().getBytes(UTF_8);
+          output.writeInt(keyBytes.length);
+          output.write(keyBytes);
+          output.writeLong(indexEntry.getOffset());
+          output.writeInt(indexEntry.getKeyLength());
+          output.writeInt(indexEntry.getValueLength());
+          output.writeLong(indexEntry.getTimestamp());
+          output.writeLong(indexEntry.getSequence());
+        }
+        output.flush();
+        fileOutput.getFD().sync();
+      }
+      Files.move(tempFile.toPath(), snapshotFile.toPath(), ATOMIC_MOVE, REPLACE_EXISTING);
+    } catch (IOException e) {
+      deleteQuietly(tempFile);
+      throw new ObjectStoreException(createStaticMessage("Could not write object store index snapshot "
+          + snapshotFile.getAbsolutePath()), e);
+    }
+  }
+
+  /**
+   * @return the position of the log from which records have to be replayed
+   */
+  private long loadSnapshot() throws IOException {
+    File snapshotFile = getSnapshotFile();
+    if (!snapshotFile.exists()) {
+      return LOG_HEADER_SIZE;
+    }
+
+    try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshotFile)))) {
+      long snapshotLogLength;
+      if (input.readInt() != SNAPSHOT_MAGIC || input.readLong() != generation
+          || (snapshotLogLength = input.readLong()) > log.size()) {
+        LOGGER.warn("Ignoring stale object store index snapshot " + snapshotFile.getAbsolutePath());
+        return LOG_HEADER_SIZE;
+      }
+
+      Map<String, IndexEntry> snapshot = new HashMap<>();
+      long snapshotLiveBytes = 0;
+      long snapshotSequence = input.readLong();
+      int entries = input.readInt();
+      for (int i = 0; i < entries; i++) {
+        byte[] keyBytes = new byte[input.readInt()];
+        input.readFully(keyBytes);
+        String key = new String(keyBytes, UTF_8);
+        IndexEntry entry = new IndexEntry(input.readLong(), input.readInt(), input.readInt(), input.readLong(), input.readLong());
+        snapshot.put(key, entry);
+        snapshotLiveBytes += entry.getRecordLength();
+      }
+
+      index.putAll(snapshot);
+      snapshot.forEach((key, entry) -> keysBySequence.put(entry.getSequence(), key));
+      liveBytes = snapshotLiveBytes;
+      sequence = snapshotSequence;
+      return snapshotLogLength;
+    } catch (IOException e) {
+      LOGGER.warn("Ignoring corrupted object store index snapshot " + snapshotFile.getAbsolutePath(), e);
+      index.clear();
+      keysBySequence.clear();
+      liveBytes = 0;
+      sequence = 0;
+      return LOG_HEADER_SIZE;
+    }
+  }
+
+  private static void writeLogHeader(FileChannel channel, long generation) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_SIZE);
+    header.putInt(LOG_MAGIC).putLong(generation).flip();
+    while (header.hasRemaining()) {
+      channel.write(header, header.position());
+    }
+  }
+
+  private static int checksum(byte[] data, int offset, int length) {
+    CRC32 crc = new CRC32();
+    crc.update(data, offset, length);
+    return (int) crc.getValue();
+  }
+
+  private void assureOpened() throws ObjectStoreException {
+    if (!opened) {
+      open();
+    }
+  }
+
+  /**
+   * Acquires the given lock over the log, opening the partition first if it's closed.
+   *
+   * @return the acquired lock
+   */
+  private Lock lockOpened(Lock lock) throws ObjectStoreException {
+    while (true) {
+      assureOpened();
+      lock.lock();
+      if (opened) {
+        return lock;
+      }
+      // closed before the lock was acquired
+      lock.unlock();
+    }
+  }
+
+  private File getLogFile() {
+    return new File(partitionDirectory, LOG_FILE);
+  }
+
+  private File getSnapshotFile() {
+    return new File(partitionDirectory, SNAPSHOT_FILE);
+  }
+
+  private void createDirectory() throws ObjectStoreException {
+    try {
+      if (!partitionDirectory.exists() && !partitionDirectory.mkdirs()) {
+        throw new MuleRuntimeException(failedToCreate("object store directory " + partitionDirectory.getAbsolutePath()));
+      }
+    } catch (Exception e) {
+      throw new ObjectStoreException(e);
+    }
+  }
+
+  private void createOrRetrievePartitionDescriptorFile() throws ObjectStoreException {
+    File partitionDescriptorFile = new File(partitionDirectory, PARTITION_DESCRIPTOR_FILE);
+    if (partitionDescriptorFile.exists()) {
+      this.partitionName = readPartitionFileName(partitionDirectory);
+      return;
+    }
+    try (FileWriter fileWriter = new FileWriter(partitionDescriptorFile.getAbsolutePath(), false)) {
+      fileWriter.write(partitionName);
+      fileWriter.flush();
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    }
+  }
+
+  private byte[] serialize(T value) throws ObjectStoreException {
+    try {
+      return serializer.getInternalProtocol().serialize(value);
+    } catch (Exception e) {
+      throw new ObjectStoreException(e);
+    }
+  }
+
+  private T deserialize(byte[] serializedValue) throws ObjectStoreException {
+    try {
+      T value = serializer.getInternalProtocol().deserialize(serializedValue);
+      if (value instanceof DeserializationPostInitialisable) {
+        DeserializationPostInitialisable.Implementation.init(value, muleContext);
+      }
+      return value;
+    } catch (Exception e) {
+      throw new ObjectStoreException(e);
+    }
+  }
+
+  /**
+   * Location of the record holding the current value of a key
+   */
+  private static final class IndexEntry {
+
+    private final long offset;
+    private final int keyLength;
+    private final int valueLength;
+    private final long timestamp;
+    private final long sequence;
+
+    private IndexEntry(long offset, int keyLength, int valueLength, long timestamp, long sequence) {
+      this.offset = offset;
+      this.keyLength = keyLength;
+      this.valueLength = valueLength;
+      this.timestamp = timestamp;
+      this.sequence = sequence;
+    }
+
+    private IndexEntry movedTo(long newOffset) {
+      return new IndexEntry(newOffset, keyLength, valueLength, timestamp, sequence);
+    }
+
+    private long getOffset() {
+      return offset;
+    }
+
+    private int getKeyLength() {
+      return keyLength;
+    }
+
+    private int getValueLength() {
+      return valueLength;
+    }
+
+    private long getValueOffset() {
+      return offset + RECORD_HEADER_SIZE + keyLength;
+    }
+
+    private int getRecordLength() {
+      return RECORD_HEADER_SIZE + keyLength + valueLength;
+    }
+
+    private long getTimestamp() {
+      return timestamp;
+    }
+
+    private long getSequence() {
+      return sequence;
+    }
+  }
+}
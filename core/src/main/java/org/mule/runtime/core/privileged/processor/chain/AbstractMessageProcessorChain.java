@@ -7,6 +7,7 @@
 package org.mule.runtime.core.privileged.processor.chain;
 
 import static java.lang.String.format;
+import static java.lang.System.nanoTime;
 import static java.util.Optional.of;
 import static org.apache.commons.lang3.StringUtils.replace;
 import static org.mule.runtime.core.api.InternalEvent.setCurrentEvent;
@@ -24,6 +25,7 @@ import static org.slf4j.LoggerFactory.getLogger;
 import static reactor.core.publisher.Flux.from;
 import static reactor.core.publisher.Flux.just;
 
+import org.mule.runtime.api.component.location.ComponentLocation;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.runtime.api.lifecycle.InitialisationException;
@@ -35,6 +37,7 @@ import org.mule.runtime.core.api.construct.FlowConstruct;
 import org.mule.runtime.core.api.context.notification.MessageProcessorNotification;
 import org.mule.runtime.core.api.context.notification.ServerNotificationManager;
 import org.mule.runtime.core.api.exception.MessagingException;
+import org.mule.runtime.core.api.management.stats.FlowConstructStatistics;
 import org.mule.runtime.core.api.processor.MessageProcessorChain;
 import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.api.processor.ReactiveProcessor;
@@ -120,7 +123,31 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
         .doOnNext(event -> setCurrentEvent(event))
         .transform(next));
 
-    // #3 Apply processing strategy. This is done here to ensure notifications and interceptors do not execute on async processor
+    // #3 Record the time each event spends in the processor in the flow statistics, whether it succeeds or fails. This is done
+    // once on the processor thread, so the time doesn't include scheduling nor notifications. The error handling interceptor
+    // assembles this for each event, so the start time can be kept in the assembly.
+    FlowConstructStatistics flowStatistics = resolveFlowStatistics();
+    if (flowStatistics != null) {
+      interceptors.add((processor, next) -> {
+        ComponentLocation location = processor instanceof AnnotatedObject ? ((AnnotatedObject) processor).getLocation() : null;
+        if (location == null) {
+          return next;
+        }
+        return stream -> {
+          if (!flowStatistics.isEnabled()) {
+            return next.apply(stream);
+          }
+          long[] startTime = new long[1];
+          return from(stream)
+              .doOnNext(event -> startTime[0] = nanoTime())
+              .transform(next)
+              .doOnNext(result -> flowStatistics.addProcessorExecutionTime(location, nanoTime() - startTime[0]))
+              .doOnError(error -> flowStatistics.addProcessorExecutionError(location, nanoTime() - startTime[0]));
+        };
+      });
+    }
+
+    // #4 Apply processing strategy. This is done here to ensure notifications and interceptors do not execute on async processor
     // threads which may be limited to avoid deadlocks.
     // Use anonymous ReactiveProcessor to apply processing strategy to processor + previous interceptors
     // while using the processing type of the processor itself.
@@ -140,24 +167,24 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
           }));
     }
 
-    // #4 Update ThreadLocal event after processor execution once back on flow thread.
+    // #5 Update ThreadLocal event after processor execution once back on flow thread.
     interceptors.add((processor, next) -> stream -> from(stream)
         .transform(next)
         .doOnNext(result -> setCurrentEvent(result)));
 
-    // #5 Fire MessageProcessor notifications before and after processor execution.
+    // #6 Fire MessageProcessor notifications before and after processor execution.
     interceptors.add((processor, next) -> stream -> from(stream)
         .doOnNext(preNotification(processor))
         .transform(next)
         .doOnNext(postNotification(processor))
         .doOnError(MessagingException.class, errorNotification(processor)));
 
-    // #6 If the processor returns a CursorProvider, then have the StreamingManager manage it
+    // #7 If the processor returns a CursorProvider, then have the StreamingManager manage it
     interceptors.add((processor, next) -> stream -> from(stream)
         .transform(next)
         .map(updateEventForStreaming(streamingManager)));
 
-    // #7 Apply processor interceptors.
+    // #8 Apply processor interceptors.
     muleContext.getProcessorInterceptorManager().getInterceptorFactories().stream()
         .forEach(interceptorFactory -> {
           ReactiveInterceptorAdapter reactiveInterceptorAdapter = new ReactiveInterceptorAdapter(interceptorFactory);
@@ -170,7 +197,7 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
         });
 
 
-    // #8 Handle errors that occur during Processor execution. This is done outside to any scheduling to ensure errors in
+    // #9 Handle errors that occur during Processor execution. This is done outside to any scheduling to ensure errors in
     // scheduling such as RejectedExecutionException's can be handled cleanly
     interceptors.add((processor, next) -> stream -> from(stream).concatMap(event -> just(event)
         .transform(next)
@@ -187,6 +214,13 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
     return interceptors;
   }
 
+  private FlowConstructStatistics resolveFlowStatistics() {
+    if (getRootContainerName() == null) {
+      return null;
+    }
+    return getFlowConstruct().map(FlowConstruct::getStatistics).orElse(null);
+  }
+
   private MessagingException resolveException(AnnotatedObject processor, InternalEvent event, Throwable throwable) {
     MessagingExceptionResolver exceptionResolver = new MessagingExceptionResolver(processor);
     return exceptionResolver.resolve(new MessagingException(event, throwable, processor), muleContext);
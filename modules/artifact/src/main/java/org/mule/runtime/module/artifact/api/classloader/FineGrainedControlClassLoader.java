@@ -6,14 +6,20 @@
  */
 package org.mule.runtime.module.artifact.api.classloader;
 
+import static java.lang.Boolean.getBoolean;
 import static java.lang.Boolean.valueOf;
 import static java.lang.String.format;
 import static java.lang.System.getProperty;
+import static java.util.Collections.newSetFromMap;
+import static java.util.Collections.singletonList;
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.api.config.MuleProperties.MULE_DISABLE_CLASS_LOOKUP_CACHE;
 import static org.mule.runtime.core.api.config.MuleProperties.MULE_LOG_VERBOSE_CLASSLOADING;
 import org.mule.runtime.core.api.util.ClassUtils;
 import org.mule.runtime.module.artifact.api.classloader.exception.CompositeClassNotFoundException;
+import org.mule.runtime.module.artifact.internal.classloader.ClassPathIndex;
 
+import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.net.JarURLConnection;
@@ -22,9 +28,12 @@ import java.net.URLClassLoader;
 import java.net.URLStreamHandler;
 import java.net.URLStreamHandlerFactory;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Set;
 
+import com.google.common.cache.CacheBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sun.misc.CompoundEnumeration;
@@ -35,6 +44,16 @@ import sun.net.www.protocol.jar.Handler;
  * <p/>
  * By using a {@link ClassLoaderLookupPolicy} this classLoader can use parent-first, parent-only or child-first classloading
  * lookup mode per package.
+ * <p/>
+ * The names of the classes that could not be found by a {@link LookupStrategy} that only searches this {@link ClassLoader} are
+ * remembered, so that libraries probing for optional classes don't search its jars on each attempt. They are forgotten when a
+ * URL is added to this {@link ClassLoader}. Misses of the other strategies are not remembered, since the {@link ClassLoader}s
+ * they delegate to, such as the members of a {@link RegionClassLoader}, may be able to load the class later on.
+ * <p/>
+ * Also, the entries of the jars of this {@link ClassLoader} are indexed in a {@link ClassPathIndex}, so that classes and
+ * resources that none of them contains are not searched for in them. The index is stored in the file given by
+ * {@link #getClassPathIndexFile()}, if any, to be reused the next time. Both can be disabled with the
+ * {@link org.mule.runtime.core.api.config.MuleProperties#MULE_DISABLE_CLASS_LOOKUP_CACHE} system property.
  */
 public class FineGrainedControlClassLoader extends URLClassLoader
     implements DisposableClassLoader, ClassLoaderLookupPolicyProvider {
@@ -43,11 +62,21 @@ public class FineGrainedControlClassLoader extends URLClassLoader
     registerAsParallelCapable();
   }
 
+  private static final boolean LOOKUP_CACHE_DISABLED = getBoolean(MULE_DISABLE_CLASS_LOOKUP_CACHE);
+
+  // bounds the classes remembered as not found, in case an application probes for an unlimited number of them
+  private static final int MAX_CLASSES_NOT_FOUND = 10000;
+
   protected Logger logger = LoggerFactory.getLogger(getClass());
 
   private final ClassLoaderLookupPolicy lookupPolicy;
   private final boolean verboseLogging;
 
+  private final Set<String> classesNotFound =
+      newSetFromMap(CacheBuilder.newBuilder().maximumSize(MAX_CLASSES_NOT_FOUND).<String, Boolean>build().asMap());
+  private volatile ClassPathIndex classPathIndex;
+  private volatile boolean classPathIndexResolved;
+
   public FineGrainedControlClassLoader(URL[] urls, ClassLoader parent, ClassLoaderLookupPolicy lookupPolicy) {
     super(urls, parent, new NonCachingURLStreamHandlerFactory());
     checkArgument(lookupPolicy != null, "Lookup policy cannot be null");
@@ -76,11 +105,17 @@ public class FineGrainedControlClassLoader extends URLClassLoader
       logLoadingClass(name, lookupStrategy, "Loading class '%s' with '%s' on '%s'", this);
     }
 
+    if (classesNotFound.contains(name)) {
+      throw new CompositeClassNotFoundException(name, lookupStrategy,
+                                                singletonList(new RememberedClassNotFoundException(name)));
+    }
+
     // Gather information about the exceptions in each of the searched class loaders to provide
     // troubleshooting information in case of throwing a ClassNotFoundException.
 
     List<ClassNotFoundException> exceptions = new ArrayList<>();
-    for (ClassLoader classLoader : lookupStrategy.getClassLoaders(this)) {
+    List<ClassLoader> classLoaders = lookupStrategy.getClassLoaders(this);
+    for (ClassLoader classLoader : classLoaders) {
       try {
         if (classLoader == this) {
           result = findLocalClass(name);
@@ -95,6 +130,9 @@ public class FineGrainedControlClassLoader extends URLClassLoader
     }
 
     if (result == null) {
+      if (!LOOKUP_CACHE_DISABLED && classLoaders.size() == 1 && classLoaders.get(0) == this) {
+        classesNotFound.add(name);
+      }
       throw new CompositeClassNotFoundException(name, lookupStrategy, exceptions);
     }
 
@@ -167,10 +205,69 @@ public class FineGrainedControlClassLoader extends URLClassLoader
         return result;
       }
 
+      ClassPathIndex index = getClassPathIndex();
+      if (index != null && !index.mayContainClass(name)) {
+        throw new ClassNotFoundException(name);
+      }
+
       return super.findClass(name);
     }
   }
 
+  @Override
+  public URL findResource(String name) {
+    ClassPathIndex index = getClassPathIndex();
+    if (index != null && !index.mayContainResource(name)) {
+      return null;
+    }
+    return super.findResource(name);
+  }
+
+  @Override
+  public Enumeration<URL> findResources(String name) throws IOException {
+    ClassPathIndex index = getClassPathIndex();
+    if (index != null && !index.mayContainResource(name)) {
+      return Collections.emptyEnumeration();
+    }
+    return super.findResources(name);
+  }
+
+  /**
+   * @return the index of the URLs of this class loader, or {@code null} if they can't be indexed.
+   */
+  private ClassPathIndex getClassPathIndex() {
+    if (!classPathIndexResolved) {
+      synchronized (this) {
+        if (!classPathIndexResolved) {
+          classPathIndex = LOOKUP_CACHE_DISABLED ? null : ClassPathIndex.loadOrBuild(getURLs(), getClassPathIndexFile());
+          classPathIndexResolved = true;
+        }
+      }
+    }
+    return classPathIndex;
+  }
+
+  /**
+   * @return the file where the index of the URLs of this class loader is stored, to be reused by the next class loader with the
+   *         same URLs, or {@code null} to not store it.
+   */
+  protected File getClassPathIndexFile() {
+    return null;
+  }
+
+  /**
+   * Forgets the classes not found and the index of the URLs, as they may be found in the added URL.
+   */
+  @Override
+  protected void addURL(URL url) {
+    synchronized (this) {
+      super.addURL(url);
+      classPathIndexResolved = false;
+      classPathIndex = null;
+    }
+    classesNotFound.clear();
+  }
+
   @Override
   public ClassLoaderLookupPolicy getClassLoaderLookupPolicy() {
     return lookupPolicy;
@@ -182,6 +279,9 @@ public class FineGrainedControlClassLoader extends URLClassLoader
    */
   @Override
   public void dispose() {
+    classesNotFound.clear();
+    classPathIndex = null;
+
     try {
       // Java 7 added support for closing a URLClassLoader, it will close any resources opened by this classloader
       close();
@@ -201,6 +301,24 @@ public class FineGrainedControlClassLoader extends URLClassLoader
     }
   }
 
+  /**
+   * Cause of the failure to load a class that was already not found, without the cost of a stack trace, as it's thrown on
+   * every attempt.
+   */
+  private static class RememberedClassNotFoundException extends ClassNotFoundException {
+
+    private static final long serialVersionUID = 4917380447317431045L;
+
+    public RememberedClassNotFoundException(String className) {
+      super(format("Class '%s' was not found on a previous attempt", className));
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+      return this;
+    }
+  }
+
   protected static class NonCachingURLStreamHandlerFactory implements URLStreamHandlerFactory {
 
     @Override
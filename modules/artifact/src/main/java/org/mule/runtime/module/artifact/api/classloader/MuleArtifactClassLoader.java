@@ -16,6 +16,7 @@ import static org.mule.runtime.core.api.util.IOUtils.closeQuietly;
 import org.mule.runtime.core.api.util.IOUtils;
 import org.mule.runtime.module.artifact.api.descriptor.ArtifactDescriptor;
 
+import java.io.File;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
@@ -32,6 +33,7 @@ public class MuleArtifactClassLoader extends FineGrainedControlClassLoader imple
 
   private static final String DEFAULT_RESOURCE_RELEASER_CLASS_LOCATION =
       "/org/mule/module/artifact/classloader/DefaultResourceReleaser.class";
+  private static final String CLASS_PATH_INDEX_FILE_NAME = ".classloader-index";
 
   protected List<ShutdownListener> shutdownListeners = new ArrayList<>();
 
@@ -174,6 +176,15 @@ public class MuleArtifactClassLoader extends FineGrainedControlClassLoader imple
     return getLocalResourceLocator().findLocalResource(resourceName);
   }
 
+  /**
+   * @return a file in the root folder of the artifact, so that the index of its class path is reused on the next deployment.
+   */
+  @Override
+  protected File getClassPathIndexFile() {
+    File rootFolder = artifactDescriptor.getRootFolder();
+    return rootFolder != null && rootFolder.isDirectory() ? new File(rootFolder, CLASS_PATH_INDEX_FILE_NAME) : null;
+  }
+
   private LocalResourceLocator getLocalResourceLocator() {
     if (localResourceLocator == null) {
       localResourceLocator = new DirectoryResourceLocator(getLocalResourceLocations());
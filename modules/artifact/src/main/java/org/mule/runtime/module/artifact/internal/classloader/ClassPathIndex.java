@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.artifact.internal.classloader;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Arrays.binarySearch;
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.sort;
+import static java.util.jar.Attributes.Name.CLASS_PATH;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+import org.slf4j.Logger;
+
+/**
+ * Index of the classes and resources contained in the jars of a class loader. It's used to avoid searching the jars for a class
+ * or resource that none of them contains, which would otherwise open and look up every one of them.
+ * <p>
+ * The names of the entries of the jars are kept as hashes in a sorted array, so the index is compact but may tell that an entry
+ * is contained when it's not. It never tells that an entry is not contained when it is. The paths of the directories that contain
+ * the entries are indexed too, as a jar may be looked up for a directory even when it doesn't have an entry for it.
+ * <p>
+ * The contents of directories in the class path are not indexed, as they may change. An entry is looked up in them directly, so
+ * an entry that is not in the jars costs a file system access for each directory in the class path.
+ * <p>
+ * An index may be stored in a file and loaded back, as long as the jars it was built from did not change, so that it doesn't
+ * have to be built again on every start of an artifact.
+ *
+ * @since 4.0
+ */
+public final class ClassPathIndex {
+
+  private static final Logger LOGGER = getLogger(ClassPathIndex.class);
+
+  private static final int FORMAT_VERSION = 2;
+
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private final List<String> fingerprint;
+  private final long[] entryHashes;
+  private final File[] directories;
+
+  private ClassPathIndex(List<String> fingerprint, long[] entryHashes, File[] directories) {
+    this.fingerprint = fingerprint;
+    this.entryHashes = entryHashes;
+    this.directories = directories;
+  }
+
+  /**
+   * Loads the index of the given URLs from a file if it's up to date, or builds it otherwise, storing it in the file.
+   *
+   * @param urls the class path to index
+   * @param indexFile the file where the index is stored. May be null, in which case the index is always built.
+   * @return the index, or {@code null} if the URLs can't be indexed because any of them is not a local file or a jar references
+   *         other jars in its manifest.
+   */
+  public static ClassPathIndex loadOrBuild(URL[] urls, File indexFile) {
+    List<String> fingerprint = new ArrayList<>(urls.length);
+    List<File> jars = new ArrayList<>(urls.length);
+    List<File> directories = new ArrayList<>();
+    for (URL url : urls) {
+      File file = toFile(url);
+      if (file == null) {
+        return null;
+      }
+      if (file.isDirectory()) {
+        directories.add(file);
+        fingerprint.add("D" + file.getAbsolutePath());
+      } else if (file.isFile()) {
+        jars.add(file);
+        fingerprint.add("J" + file.getAbsolutePath() + ":" + file.length() + ":" + file.lastModified());
+      } else {
+        fingerprint.add("M" + file.getAbsolutePath());
+      }
+    }
+    File[] directoriesArray = directories.toArray(new File[directories.size()]);
+
+    if (indexFile != null && indexFile.isFile()) {
+      long[] entryHashes = read(indexFile, fingerprint);
+      if (entryHashes != null) {
+        return new ClassPathIndex(fingerprint, entryHashes, directoriesArray);
+      }
+    }
+
+    long[] entryHashes = indexJars(jars);
+    if (entryHashes == null) {
+      return null;
+    }
+    ClassPathIndex index = new ClassPathIndex(fingerprint, entryHashes, directoriesArray);
+    if (indexFile != null) {
+      index.write(indexFile);
+    }
+    return index;
+  }
+
+  /**
+   * @param className the binary name of a class
+   * @return whether the class may be contained in the indexed class path.
+   */
+  public boolean mayContainClass(String className) {
+    return mayContainResource(className.replace('.', '/').concat(".class"));
+  }
+
+  /**
+   * @param resourceName the name of a resource, as passed to {@link ClassLoader#getResource(String)}
+   * @return whether the resource may be contained in the indexed class path.
+   */
+  public boolean mayContainResource(String resourceName) {
+    // relative names are resolved by the class path
+    if (resourceName.isEmpty() || resourceName.contains("..")) {
+      return true;
+    }
+    // a jar is looked up for a directory with and without the trailing slash, which is not part of the indexed paths
+    String path = resourceName.endsWith("/") ? resourceName.substring(0, resourceName.length() - 1) : resourceName;
+    if (path.isEmpty() || binarySearch(entryHashes, hash(path)) >= 0) {
+      return true;
+    }
+    for (File directory : directories) {
+      if (new File(directory, resourceName).exists()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static File toFile(URL url) {
+    if (!"file".equals(url.getProtocol())) {
+      return null;
+    }
+    try {
+      return new File(url.toURI());
+    } catch (URISyntaxException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private static long[] indexJars(List<File> jars) {
+    long[] hashes = new long[256];
+    int size = 0;
+    for (File jar : jars) {
+      try (JarFile jarFile = new JarFile(jar)) {
+        Manifest manifest = jarFile.getManifest();
+        if (manifest != null && manifest.getMainAttributes().getValue(CLASS_PATH) != null) {
+          // the class path would also contain the referenced jars
+          return null;
+        }
+
+        Enumeration<JarEntry> entries = jarFile.entries();
+        while (entries.hasMoreElements()) {
+          String name = entries.nextElement().getName();
+          // the name and each of its parent paths, without the trailing slash
+          long hash = FNV_OFFSET_BASIS;
+          for (int i = 0; i <= name.length(); ++i) {
+            if ((i == name.length() || name.charAt(i) == '/') && i > 0 && name.charAt(i - 1) != '/') {
+              if (size == hashes.length) {
+                hashes = copyOf(hashes, size * 2);
+              }
+              hashes[size++] = hash;
+            }
+            if (i < name.length()) {
+              hash = nextHash(hash, name.charAt(i));
+            }
+          }
+        }
+      } catch (IOException e) {
+        LOGGER.debug("Could not index jar '{}'", jar, e);
+        return null;
+      }
+    }
+
+    sort(hashes, 0, size);
+    // parent paths are repeated for every entry they contain
+    int distinct = 0;
+    for (int i = 0; i < size; ++i) {
+      if (distinct == 0 || hashes[i] != hashes[distinct - 1]) {
+        hashes[distinct++] = hashes[i];
+      }
+    }
+    return copyOf(hashes, distinct);
+  }
+
+  /**
+   * 64 bit FNV-1a hash of the chars of a name, so that collisions between the entries of an artifact are very unlikely.
+   */
+  private static long hash(String name) {
+    long hash = FNV_OFFSET_BASIS;
+    for (int i = 0; i < name.length(); ++i) {
+      hash = nextHash(hash, name.charAt(i));
+    }
+    return hash;
+  }
+
+  private static long nextHash(long hash, char c) {
+    return (hash ^ c) * FNV_PRIME;
+  }
+
+  private static long[] read(File indexFile, List<String> expectedFingerprint) {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+      if (in.readInt() != FORMAT_VERSION) {
+        return null;
+      }
+      int fingerprintSize = in.readInt();
+      if (fingerprintSize != expectedFingerprint.size()) {
+        return null;
+      }
+      for (String expected : expectedFingerprint) {
+        if (!expected.equals(in.readUTF())) {
+          return null;
+        }
+      }
+
+      long[] entryHashes = new long[in.readInt()];
+      for (int i = 0; i < entryHashes.length; ++i) {
+        entryHashes[i] = in.readLong();
+      }
+      return entryHashes;
+    } catch (IOException | RuntimeException e) {
+      LOGGER.debug("Could not read class path index '{}', it will be built again", indexFile, e);
+      return null;
+    }
+  }
+
+  private void write(File indexFile) {
+    File tempFile = null;
+    try {
+      // a unique name, as other class loaders may be storing the same index
+      tempFile = Files.createTempFile(indexFile.getParentFile().toPath(), indexFile.getName(), ".tmp").toFile();
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(fingerprint.size());
+        for (String entry : fingerprint) {
+          out.writeUTF(entry);
+        }
+        out.writeInt(entryHashes.length);
+        for (long entryHash : entryHashes) {
+          out.writeLong(entryHash);
+        }
+      }
+
+      try {
+        Files.move(tempFile.toPath(), indexFile.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tempFile.toPath(), indexFile.toPath(), REPLACE_EXISTING);
+      }
+    } catch (IOException | RuntimeException e) {
+      LOGGER.debug("Could not store class path index '{}'", indexFile, e);
+      if (tempFile != null) {
+        tempFile.delete();
+      }
+    }
+  }
+}
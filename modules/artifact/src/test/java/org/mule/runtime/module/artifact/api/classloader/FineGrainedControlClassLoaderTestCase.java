@@ -12,10 +12,15 @@ import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.Matchers.contains;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mule.runtime.module.artifact.api.classloader.ChildFirstLookupStrategy.CHILD_FIRST;
+import static org.mule.runtime.module.artifact.api.classloader.ChildOnlyLookupStrategy.CHILD_ONLY;
 import static org.mule.runtime.module.artifact.api.classloader.ParentFirstLookupStrategy.PARENT_FIRST;
 import static org.mule.runtime.module.artifact.api.classloader.ParentOnlyLookupStrategy.PARENT_ONLY;
 import static org.mule.tck.junit4.matcher.FunctionExpressionMatcher.expressionMatches;
@@ -174,6 +179,83 @@ public class FineGrainedControlClassLoaderTestCase extends AbstractMuleTestCase
     invokeTestClassMethod(ext);
   }
 
+  @Test
+  public void remembersClassNotFound() throws Exception {
+    final ClassNotFoundException thrownException = new ClassNotFoundException("ERROR");
+    final int[] localLookups = new int[1];
+
+    final ClassLoaderLookupPolicy lookupPolicy = mock(ClassLoaderLookupPolicy.class);
+    when(lookupPolicy.getClassLookupStrategy(TEST_CLASS_NAME)).thenReturn(CHILD_ONLY);
+
+    FineGrainedControlClassLoader ext = new FineGrainedControlClassLoader(new URL[0], null, lookupPolicy) {
+
+      @Override
+      public Class<?> findLocalClass(String name) throws ClassNotFoundException {
+        localLookups[0]++;
+        throw thrownException;
+      }
+    };
+
+    try {
+      ext.loadClass(TEST_CLASS_NAME);
+      fail("Class should not be found");
+    } catch (CompositeClassNotFoundException e) {
+      assertThat(e.getExceptions(), contains(sameInstance(thrownException)));
+    }
+    try {
+      ext.loadClass(TEST_CLASS_NAME);
+      fail("Class should not be found");
+    } catch (CompositeClassNotFoundException e) {
+      assertThat(e.getClassName(), is(TEST_CLASS_NAME));
+      assertThat(e.getExceptions().get(0).getStackTrace().length, is(0));
+    }
+    assertThat(localLookups[0], is(1));
+  }
+
+  @Test
+  public void doesNotRememberClassNotFoundByDelegates() throws Exception {
+    ClassLoader parent = mock(ClassLoader.class);
+    when(parent.loadClass(TEST_CLASS_NAME)).thenThrow(new ClassNotFoundException("ERROR"));
+
+    final ClassLoaderLookupPolicy lookupPolicy = mock(ClassLoaderLookupPolicy.class);
+    when(lookupPolicy.getClassLookupStrategy(TEST_CLASS_NAME)).thenReturn(PARENT_ONLY);
+
+    FineGrainedControlClassLoader ext =
+        new FineGrainedControlClassLoader(new URL[] {getChildFileResource()}, parent, lookupPolicy);
+
+    for (int i = 0; i < 2; ++i) {
+      try {
+        ext.loadClass(TEST_CLASS_NAME);
+        fail("Class should not be found");
+      } catch (CompositeClassNotFoundException e) {
+        // expected
+      }
+    }
+    verify(parent, times(2)).loadClass(TEST_CLASS_NAME);
+  }
+
+  @Test
+  public void findsClassInAddedUrl() throws Exception {
+    ClassLoader parent = Thread.currentThread().getContextClassLoader();
+
+    final ClassLoaderLookupPolicy lookupPolicy = mock(ClassLoaderLookupPolicy.class);
+    when(lookupPolicy.getClassLookupStrategy(TEST_CLASS_NAME)).thenReturn(CHILD_ONLY);
+    when(lookupPolicy.getClassLookupStrategy(Object.class.getName())).thenReturn(PARENT_ONLY);
+    when(lookupPolicy.getClassLookupStrategy(String.class.getName())).thenReturn(PARENT_ONLY);
+
+    FineGrainedControlClassLoader ext = new FineGrainedControlClassLoader(new URL[0], parent, lookupPolicy);
+
+    try {
+      ext.loadClass(TEST_CLASS_NAME);
+      fail("Class should not be found");
+    } catch (CompositeClassNotFoundException e) {
+      // expected
+    }
+
+    ext.addURL(getChildFileResource());
+    assertEquals(EXPECTED_CHILD_MESSAGE, invokeTestClassMethod(ext));
+  }
+
   protected FineGrainedControlClassLoader buildFineGrainedControlClassLoader(ClassLoader parent,
                                                                              final ClassLoaderLookupPolicy lookupPolicy) {
     return new FineGrainedControlClassLoader(new URL[0], parent, lookupPolicy) {
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.artifact.internal.classloader;
+
+import static org.apache.commons.io.FileUtils.writeStringToFile;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.mule.tck.ZipUtils;
+import org.mule.tck.ZipUtils.ZipResource;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.net.URL;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class ClassPathIndexTestCase extends AbstractMuleTestCase {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void indexesJarEntries() throws Exception {
+    File jar = createJar("test.jar", "org/foo/Foo.class", "META-INF/foo.txt");
+
+    ClassPathIndex index = ClassPathIndex.loadOrBuild(new URL[] {jar.toURI().toURL()}, null);
+
+    assertThat(index.mayContainClass("org.foo.Foo"), is(true));
+    assertThat(index.mayContainClass("org.foo.Bar"), is(false));
+    assertThat(index.mayContainResource("META-INF/foo.txt"), is(true));
+    assertThat(index.mayContainResource("META-INF/bar.txt"), is(false));
+    assertThat(index.mayContainResource("META-INF/"), is(true));
+  }
+
+  @Test
+  public void indexesDirectoriesOfJarEntries() throws Exception {
+    File jar = createJar("test.jar", "org/foo/Foo.class", "META-INF/maven/");
+
+    ClassPathIndex index = ClassPathIndex.loadOrBuild(new URL[] {jar.toURI().toURL()}, null);
+
+    assertThat(index.mayContainResource("org"), is(true));
+    assertThat(index.mayContainResource("org/foo"), is(true));
+    assertThat(index.mayContainResource("org/foo/"), is(true));
+    assertThat(index.mayContainResource("META-INF/maven"), is(true));
+    assertThat(index.mayContainResource("META-INF/maven/"), is(true));
+    assertThat(index.mayContainResource("org/bar"), is(false));
+    assertThat(index.mayContainResource("org/bar/"), is(false));
+  }
+
+  @Test
+  public void looksUpDirectories() throws Exception {
+    File directory = folder.newFolder("classes");
+
+    ClassPathIndex index = ClassPathIndex.loadOrBuild(new URL[] {directory.toURI().toURL()}, null);
+    assertThat(index.mayContainResource("foo.txt"), is(false));
+
+    writeStringToFile(new File(directory, "foo.txt"), "foo");
+    assertThat(index.mayContainResource("foo.txt"), is(true));
+  }
+
+  @Test
+  public void reusesStoredIndex() throws Exception {
+    URL[] urls = {createJar("test.jar", "org/foo/Foo.class").toURI().toURL()};
+    File indexFile = new File(folder.getRoot(), "index");
+
+    ClassPathIndex.loadOrBuild(urls, indexFile);
+    assertThat(indexFile.isFile(), is(true));
+    indexFile.setLastModified(0);
+
+    ClassPathIndex index = ClassPathIndex.loadOrBuild(urls, indexFile);
+    assertThat(index.mayContainClass("org.foo.Foo"), is(true));
+    assertThat(index.mayContainClass("org.foo.Bar"), is(false));
+    assertThat(indexFile.lastModified(), is(0L));
+  }
+
+  @Test
+  public void rebuildsStoredIndexWhenJarChanges() throws Exception {
+    File jar = createJar("test.jar", "org/foo/Foo.class");
+    URL[] urls = {jar.toURI().toURL()};
+    File indexFile = new File(folder.getRoot(), "index");
+    ClassPathIndex.loadOrBuild(urls, indexFile);
+
+    jar.delete();
+    createJar("test.jar", "org/foo/Foo.class", "org/foo/Bar.class");
+    jar.setLastModified(jar.lastModified() + 1000);
+
+    ClassPathIndex index = ClassPathIndex.loadOrBuild(urls, indexFile);
+    assertThat(index.mayContainClass("org.foo.Bar"), is(true));
+    assertThat(ClassPathIndex.loadOrBuild(urls, indexFile).mayContainClass("org.foo.Bar"), is(true));
+  }
+
+  @Test
+  public void rebuildsCorruptedStoredIndex() throws Exception {
+    URL[] urls = {createJar("test.jar", "org/foo/Foo.class").toURI().toURL()};
+    File indexFile = new File(folder.getRoot(), "index");
+    writeStringToFile(indexFile, "corrupted");
+
+    ClassPathIndex index = ClassPathIndex.loadOrBuild(urls, indexFile);
+    assertThat(index.mayContainClass("org.foo.Foo"), is(true));
+    assertThat(ClassPathIndex.loadOrBuild(urls, indexFile), is(notNullValue()));
+  }
+
+  @Test
+  public void doesNotIndexRemoteUrls() throws Exception {
+    URL[] urls = {createJar("test.jar", "org/foo/Foo.class").toURI().toURL(), new URL("http://localhost/test.jar")};
+
+    assertThat(ClassPathIndex.loadOrBuild(urls, null), is(nullValue()));
+  }
+
+  private File createJar(String name, String... entries) {
+    ZipResource[] resources = new ZipResource[entries.length];
+    for (int i = 0; i < entries.length; ++i) {
+      resources[i] = new ZipResource("EchoTest.clazz", entries[i]);
+    }
+    File jar = new File(folder.getRoot(), name);
+    ZipUtils.compress(jar, resources);
+    return jar;
+  }
+}
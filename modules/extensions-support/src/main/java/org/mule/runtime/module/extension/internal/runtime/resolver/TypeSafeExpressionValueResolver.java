@@ -69,6 +69,9 @@ public class TypeSafeExpressionValueResolver<T> implements ValueResolver<T>, Ini
   public void initialise() throws InitialisationException {
     ExpressionValueResolver resolver = new ExpressionValueResolver(expression, toDataType(expectedMetadataType));
     resolver.setExtendedExpressionManager(extendedExpressionManager);
+    if (extendedExpressionManager != null) {
+      resolver.initEvaluator();
+    }
     delegate = new TypeSafeValueResolverWrapper<>(resolver, expectedType);
     delegate.setTransformationService(transformationService);
     delegate.initialise();
@@ -28,6 +28,7 @@ import static org.mule.runtime.config.spring.api.dsl.model.ComponentBuildingDefi
 import static org.mule.runtime.core.api.construct.Flow.INITIAL_STATE_STARTED;
 import static org.mule.runtime.core.api.context.notification.ListenerSubscriptionPair.ANY_SELECTOR_STRING;
 import static org.mule.runtime.core.api.retry.policy.SimpleRetryPolicyTemplate.RETRY_COUNT_FOREVER;
+import static org.mule.runtime.core.api.streaming.object.FileStoreCursorIteratorConfig.DEFAULT_MAX_IN_MEMORY_BUCKETS;
 import static org.mule.runtime.core.api.transaction.MuleTransactionConfig.ACTION_INDIFFERENT_STRING;
 import static org.mule.runtime.core.privileged.routing.outbound.AbstractOutboundRouter.DEFAULT_FAILURE_EXPRESSION;
 import static org.mule.runtime.dsl.api.component.AttributeDefinition.Builder.fromChildCollectionConfiguration;
@@ -89,6 +90,8 @@ import org.mule.runtime.config.spring.internal.factories.ResponseMessageProcesso
 import org.mule.runtime.config.spring.internal.factories.SchedulingMessageSourceFactoryBean;
 import org.mule.runtime.config.spring.internal.factories.SubflowMessageProcessorChainFactoryBean;
 import org.mule.runtime.config.spring.internal.factories.TryProcessorFactoryBean;
+import org.mule.runtime.config.spring.internal.factories.streaming.FileStoreCursorIteratorProviderObjectFactory;
+import org.mule.runtime.config.spring.internal.factories.streaming.FileStoreCursorStreamProviderObjectFactory;
 import org.mule.runtime.config.spring.internal.factories.streaming.InMemoryCursorIteratorProviderObjectFactory;
 import org.mule.runtime.config.spring.internal.factories.streaming.InMemoryCursorStreamProviderObjectFactory;
 import org.mule.runtime.config.spring.internal.factories.streaming.NullCursorIteratorProviderObjectFactory;
@@ -247,6 +250,8 @@ public class CoreComponentBuildingDefinitionProvider implements ComponentBuildin
   private static final String TYPE = "type";
   private static final String TX_ACTION = "transactionalAction";
   private static final String TX_TYPE = "transactionType";
+  private static final String REPEATABLE_FILE_STORE_BYTES_STREAM_ALIAS = "repeatable-file-store-stream";
+  private static final String REPEATABLE_FILE_STORE_OBJECTS_STREAM_ALIAS = "repeatable-file-store-iterable";
 
   private static final Class<?> MESSAGE_PROCESSOR_CLASS = Processor.class;
 
@@ -1054,6 +1059,19 @@ public class CoreComponentBuildingDefinitionProvider implements ComponentBuildin
                                                 .withDefaultValue(DEFAULT_BYTE_STREAMING_BUFFER_DATA_UNIT).build())
         .build());
 
+    buildingDefinitions.add(baseDefinition
+        .withIdentifier(REPEATABLE_FILE_STORE_BYTES_STREAM_ALIAS)
+        .withTypeDefinition(fromType(CursorStreamProviderFactory.class))
+        .withObjectFactoryType(FileStoreCursorStreamProviderObjectFactory.class)
+        .withConstructorParameterDefinition(
+                                            fromSimpleParameter("maxInMemorySize")
+                                                .withDefaultValue(DEFAULT_BYTES_STREAMING_MAX_BUFFER_SIZE)
+                                                .build())
+        .withConstructorParameterDefinition(
+                                            fromSimpleParameter("bufferUnit", value -> DataUnit.valueOf((String) value))
+                                                .withDefaultValue(DEFAULT_BYTE_STREAMING_BUFFER_DATA_UNIT).build())
+        .build());
+
     buildingDefinitions.add(baseDefinition
         .withIdentifier(NON_REPEATABLE_BYTE_STREAM_ALIAS)
         .withTypeDefinition(fromType(CursorStreamProviderFactory.class))
@@ -1084,6 +1102,20 @@ public class CoreComponentBuildingDefinitionProvider implements ComponentBuildin
                                                 .build())
         .build());
 
+    buildingDefinitions.add(baseDefinition
+        .withIdentifier(REPEATABLE_FILE_STORE_OBJECTS_STREAM_ALIAS)
+        .withTypeDefinition(fromType(CursorIteratorProviderFactory.class))
+        .withObjectFactoryType(FileStoreCursorIteratorProviderObjectFactory.class)
+        .withConstructorParameterDefinition(
+                                            fromSimpleParameter("bucketSize")
+                                                .withDefaultValue(DEFAULT_OBJECT_STREAMING_BUFFER_SIZE)
+                                                .build())
+        .withConstructorParameterDefinition(
+                                            fromSimpleParameter("maxInMemoryBuckets")
+                                                .withDefaultValue(DEFAULT_MAX_IN_MEMORY_BUCKETS)
+                                                .build())
+        .build());
+
     buildingDefinitions.add(baseDefinition
         .withIdentifier(NON_REPEATABLE_OBJECTS_STREAM_ALIAS)
         .withTypeDefinition(fromType(CursorIteratorProviderFactory.class))
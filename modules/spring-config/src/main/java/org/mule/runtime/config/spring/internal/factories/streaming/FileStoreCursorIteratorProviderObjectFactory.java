@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.config.spring.internal.factories.streaming;
+
+import org.mule.runtime.config.spring.api.factories.streaming.AbstractCursorProviderObjectFactory;
+import org.mule.runtime.core.api.streaming.object.CursorIteratorProviderFactory;
+import org.mule.runtime.core.api.streaming.object.FileStoreCursorIteratorConfig;
+
+public class FileStoreCursorIteratorProviderObjectFactory
+    extends AbstractCursorProviderObjectFactory<CursorIteratorProviderFactory> {
+
+  private final int bucketSize;
+  private final int maxInMemoryBuckets;
+
+  public FileStoreCursorIteratorProviderObjectFactory(int bucketSize, int maxInMemoryBuckets) {
+    this.bucketSize = bucketSize;
+    this.maxInMemoryBuckets = maxInMemoryBuckets;
+  }
+
+  @Override
+  public CursorIteratorProviderFactory doGetObject() throws Exception {
+    FileStoreCursorIteratorConfig config = new FileStoreCursorIteratorConfig(bucketSize, maxInMemoryBuckets);
+    return streamingManager.forObjects().getFileStoreCursorProviderFactory(config);
+  }
+}